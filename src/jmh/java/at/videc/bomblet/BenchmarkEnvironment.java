@@ -0,0 +1,144 @@
+package at.videc.bomblet;
+
+import jdk.javadoc.doclet.Doclet;
+import jdk.javadoc.doclet.DocletEnvironment;
+import jdk.javadoc.doclet.Reporter;
+
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.spi.ToolProvider;
+import java.util.stream.Collectors;
+
+/**
+ * A live {@link DocletEnvironment} for benchmarks of code that needs the javac model.
+ *
+ * <p>A {@link DocletEnvironment} is only valid while the doclet's {@code run} method executes. This
+ * class therefore runs the javadoc tool on a background thread with a doclet that publishes its
+ * environment and then blocks until {@link #close()} is called.</p>
+ *
+ * <p>Only one instance can be open at a time.</p>
+ *
+ * @author DoomDoc Team
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see TypeElementConverterBenchmark
+ */
+public class BenchmarkEnvironment implements AutoCloseable {
+
+    private static CompletableFuture<BenchmarkEnvironment> opening;
+
+    private final DocletEnvironment environment;
+    private final List<TypeElement> typeElements;
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    private BenchmarkEnvironment(DocletEnvironment environment) {
+        this.environment = environment;
+        this.typeElements = environment.getIncludedElements().stream()
+                .filter(e -> e instanceof TypeElement)
+                .map(e -> (TypeElement) e)
+                .sorted((a, b) -> a.getQualifiedName().toString().compareTo(b.getQualifiedName().toString()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Runs javadoc on all packages below a source root and returns the environment once it is available.
+     *
+     * @param sourceRoot the source root
+     * @param subpackages the package prefix to document
+     * @return the open environment
+     * @throws IOException if javadoc fails
+     */
+    public static synchronized BenchmarkEnvironment open(Path sourceRoot, String subpackages) throws IOException {
+        ToolProvider javadoc = ToolProvider.findFirst("javadoc")
+                .orElseThrow(() -> new IllegalStateException("javadoc tool not found"));
+        opening = new CompletableFuture<>();
+        StringWriter log = new StringWriter();
+        Thread thread = new Thread(() -> {
+            PrintWriter out = new PrintWriter(log);
+            int result = javadoc.run(out, out, "-doclet", EnvironmentDoclet.class.getName(),
+                    "-sourcepath", sourceRoot.toString(), "-subpackages", subpackages, "-quiet");
+            out.flush();
+            opening.completeExceptionally(new IOException("javadoc exited with " + result + ": " + log));
+        }, "benchmark-javadoc");
+        thread.setDaemon(true);
+        thread.start();
+        try {
+            return opening.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for javadoc", e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    public DocletEnvironment getEnvironment() {
+        return environment;
+    }
+
+    /**
+     * Gets the included types, sorted by qualified name.
+     *
+     * @return the included types
+     */
+    public List<TypeElement> getTypeElements() {
+        return typeElements;
+    }
+
+    /**
+     * Lets the javadoc run finish. The environment must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        released.countDown();
+    }
+
+    /**
+     * Doclet publishing its environment to {@link BenchmarkEnvironment#open(Path, String)}.
+     * Must be public, javadoc instantiates it by name.
+     */
+    public static class EnvironmentDoclet implements Doclet {
+
+        @Override
+        public void init(Locale locale, Reporter reporter) {
+        }
+
+        @Override
+        public String getName() {
+            return "BenchmarkEnvironment";
+        }
+
+        @Override
+        public Set<? extends Option> getSupportedOptions() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.latest();
+        }
+
+        @Override
+        public boolean run(DocletEnvironment environment) {
+            BenchmarkEnvironment open = new BenchmarkEnvironment(environment);
+            opening.complete(open);
+            try {
+                open.released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package at.videc.bomblet;
+
+import at.videc.bomblet.dto.TypeInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.lang.model.element.TypeElement;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH microbenchmark of {@link TypeElementConverter#convert(TypeElement)} on single, member-heavy
+ * types of the {@code at.videc.dummy} test sources.
+ *
+ * <p>Complements {@link TypeElementConverterBenchmark}, which measures whole synthetic trees, with a
+ * view on the member extraction of one type: a class with many fields, constructors and methods, an
+ * enum and a generic class. Run with {@code -Djmh.args="-prof gc"} to report the bytes allocated per
+ * conversion next to the time.</p>
+ *
+ * @author DoomDoc Team
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see TypeElementConverter
+ * @see BenchmarkEnvironment
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemberExtractionBenchmark {
+
+    @Param({"at.videc.dummy.User", "at.videc.dummy.Status", "at.videc.dummy.GenericContainer"})
+    private String type;
+
+    private BenchmarkEnvironment environment;
+
+    private TypeElementConverter converter;
+
+    private TypeElement typeElement;
+
+    @Setup
+    public void setUp() throws IOException {
+        environment = BenchmarkEnvironment.open(Paths.get("src", "test", "java"), "at.videc.dummy");
+        converter = new TypeElementConverter(environment.getEnvironment());
+        typeElement = environment.getTypeElements().stream()
+                .filter(e -> e.getQualifiedName().contentEquals(type))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown type: " + type));
+    }
+
+    @TearDown
+    public void tearDown() {
+        environment.close();
+    }
+
+    /**
+     * Converts the selected type.
+     */
+    @Benchmark
+    public TypeInfo convert() {
+        return converter.convert(typeElement);
+    }
+}
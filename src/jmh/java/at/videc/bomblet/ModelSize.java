@@ -0,0 +1,38 @@
+package at.videc.bomblet;
+
+/**
+ * Sizes of the synthetic models used by the JMH benchmarks.
+ *
+ * @author DoomDoc Team
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see PackageTreeBenchmark
+ * @see TypeElementConverterBenchmark
+ */
+public enum ModelSize {
+
+    /**
+     * About the size of a single library module
+     */
+    SMALL(100),
+
+    /**
+     * A typical application
+     */
+    MEDIUM(1_000),
+
+    /**
+     * A large platform API
+     */
+    LARGE(10_000);
+
+    private final int typeCount;
+
+    ModelSize(int typeCount) {
+        this.typeCount = typeCount;
+    }
+
+    public int getTypeCount() {
+        return typeCount;
+    }
+}
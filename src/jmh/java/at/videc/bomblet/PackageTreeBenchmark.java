@@ -0,0 +1,124 @@
+package at.videc.bomblet;
+
+import at.videc.bomblet.dto.ClassInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of building, indexing and serializing a {@link PackageTree}.
+ *
+ * <p>The model is created by {@link SyntheticModel#createTypes(int)}: types with 5 fields and
+ * 10 methods each, spread over 100 packages.</p>
+ *
+ * @author DoomDoc Team
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see PackageTree
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PackageTreeBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    private ModelSize size;
+
+    private List<ClassInfo> types;
+
+    private String[] packageNames;
+
+    private PackageTree tree;
+
+    @Setup
+    public void setUp() {
+        types = SyntheticModel.createTypes(size.getTypeCount());
+        packageNames = new String[types.size()];
+        for (int i = 0; i < packageNames.length; i++) {
+            packageNames[i] = SyntheticModel.packageName(types.get(i));
+        }
+        tree = addType();
+        tree.buildSearchIndex();
+    }
+
+    /**
+     * Adds all types to an empty tree.
+     */
+    @Benchmark
+    public PackageTree addType() {
+        PackageTree fresh = new PackageTree();
+        for (int i = 0; i < packageNames.length; i++) {
+            fresh.addType(packageNames[i], types.get(i));
+        }
+        return fresh;
+    }
+
+    /**
+     * Rebuilds the search index and its trigram postings.
+     */
+    @Benchmark
+    public PackageTree buildSearchIndex() {
+        tree.buildSearchIndex();
+        return tree;
+    }
+
+    /**
+     * Serializes the model, search index included.
+     */
+    @Benchmark
+    public String toCompactJson() {
+        return tree.toCompactJson();
+    }
+
+    /**
+     * Streams the model, search index included, into a writer that only counts the characters.
+     */
+    @Benchmark
+    public long writeCompactJson() throws IOException {
+        CountingWriter out = new CountingWriter();
+        tree.writeCompactJson(out);
+        return out.count;
+    }
+
+    /**
+     * Discards everything written to it but counts the characters.
+     */
+    private static class CountingWriter extends Writer {
+
+        private long count;
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            count += length;
+        }
+
+        @Override
+        public void write(String text, int offset, int length) {
+            count += length;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
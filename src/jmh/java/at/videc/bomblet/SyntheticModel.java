@@ -0,0 +1,86 @@
+package at.videc.bomblet;
+
+import at.videc.bomblet.dto.ClassInfo;
+import at.videc.bomblet.dto.FieldInfo;
+import at.videc.bomblet.dto.JavaDocComment;
+import at.videc.bomblet.dto.JavaDocTag;
+import at.videc.bomblet.dto.MethodInfo;
+import at.videc.bomblet.dto.ParameterInfo;
+import at.videc.bomblet.dto.TypeInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Synthetic DTO models for the JMH benchmarks that do not need a javac model.
+ *
+ * @author DoomDoc Team
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see PackageTreeBenchmark
+ */
+final class SyntheticModel {
+
+    private SyntheticModel() {
+    }
+
+    /**
+     * Creates synthetic types spread over 100 packages, each with 5 fields and 10 methods.
+     */
+    static List<ClassInfo> createTypes(int typeCount) {
+        List<ClassInfo> types = new ArrayList<>(typeCount);
+        for (int t = 0; t < typeCount; t++) {
+            String packageName = "com.example.module" + (t % 100);
+            ClassInfo classInfo = new ClassInfo();
+            classInfo.setName("Type" + t);
+            classInfo.setQualifiedName(packageName + ".Type" + t);
+            classInfo.setModifiers(new ArrayList<>(Collections.singletonList("public")));
+            classInfo.setSuperClass("java.lang.Object");
+            classInfo.setJavadoc(javadoc("Synthetic <b>type</b> number " + t + " used for serialization benchmarks."));
+
+            for (int f = 0; f < 5; f++) {
+                FieldInfo field = new FieldInfo();
+                field.setName("field" + f);
+                field.setType("java.util.Map<java.lang.String, java.util.List<java.lang.Integer>>");
+                field.setModifiers(new ArrayList<>(List.of("private", "final")));
+                field.setJavadoc(javadoc("Field " + f + " of type " + t + "."));
+                classInfo.getFields().add(field);
+            }
+            for (int m = 0; m < 10; m++) {
+                MethodInfo method = new MethodInfo();
+                method.setName("method" + m);
+                method.setReturnType("java.lang.String");
+                method.setModifiers(new ArrayList<>(Collections.singletonList("public")));
+                for (int p = 0; p < 3; p++) {
+                    ParameterInfo parameter = new ParameterInfo();
+                    parameter.setName("arg" + p);
+                    parameter.setType("java.util.List<java.lang.String>");
+                    method.getParameters().add(parameter);
+                }
+                method.setJavadoc(javadoc("Method " + m + " returns the {@code value} of <i>something</i>."));
+                classInfo.getMethods().add(method);
+            }
+            types.add(classInfo);
+        }
+        return types;
+    }
+
+    /**
+     * Gets the package of a synthetic type from its qualified name.
+     */
+    static String packageName(TypeInfo typeInfo) {
+        String qualifiedName = typeInfo.getQualifiedName();
+        return qualifiedName.substring(0, qualifiedName.lastIndexOf('.'));
+    }
+
+    private static JavaDocComment javadoc(String description) {
+        JavaDocComment javadoc = new JavaDocComment();
+        javadoc.setDescription(description);
+        JavaDocTag since = new JavaDocTag();
+        since.setKind("since");
+        since.setDescription("1.0.0");
+        javadoc.getTags().add(since);
+        return javadoc;
+    }
+}
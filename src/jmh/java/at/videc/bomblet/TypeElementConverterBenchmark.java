@@ -0,0 +1,92 @@
+package at.videc.bomblet;
+
+import at.videc.SyntheticSourceGenerator;
+import at.videc.bomblet.dto.TypeInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.lang.model.element.TypeElement;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * JMH benchmark of {@link TypeElementConverter#convert(TypeElement)} over a source tree written by
+ * {@link SyntheticSourceGenerator}.
+ *
+ * <p>Each invocation converts every type of the tree with a fresh converter. The javac model parses
+ * doc comments on first access and keeps them, so warmup iterations also warm up the model and the
+ * measurement covers the conversion itself.</p>
+ *
+ * @author DoomDoc Team
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see TypeElementConverter
+ * @see BenchmarkEnvironment
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TypeElementConverterBenchmark {
+
+    private static final int TYPES_PER_PACKAGE = 25;
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    private ModelSize size;
+
+    private Path sourceRoot;
+
+    private BenchmarkEnvironment environment;
+
+    @Setup
+    public void setUp() throws IOException {
+        SyntheticSourceGenerator generator = new SyntheticSourceGenerator();
+        generator.setPackages(size.getTypeCount() / TYPES_PER_PACKAGE);
+        generator.setTypesPerPackage(TYPES_PER_PACKAGE);
+        generator.setFieldsPerType(5);
+        generator.setMethodsPerType(10);
+        sourceRoot = generator.write(Files.createTempDirectory("doomdoc-benchmark"));
+        environment = BenchmarkEnvironment.open(sourceRoot, generator.getRootPackage());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        environment.close();
+        try (Stream<Path> files = Files.walk(sourceRoot)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Converts all types of the source tree.
+     */
+    @Benchmark
+    public List<TypeInfo> convert() {
+        TypeElementConverter converter = new TypeElementConverter(environment.getEnvironment());
+        List<TypeInfo> types = new ArrayList<>(environment.getTypeElements().size());
+        for (TypeElement typeElement : environment.getTypeElements()) {
+            types.add(converter.convert(typeElement));
+        }
+        return types;
+    }
+}
@@ -0,0 +1,335 @@
+package at.videc;
+
+import at.videc.bomblet.TypeElementConverter;
+import at.videc.bomblet.dto.TypeInfo;
+import com.sun.source.util.TreePath;
+import jdk.javadoc.doclet.Doclet;
+import jdk.javadoc.doclet.DocletEnvironment;
+import jdk.javadoc.doclet.Reporter;
+
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.DocumentationTool;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Converts the types of a few changed source files without documenting the whole source tree again.
+ *
+ * <p>A {@link DocletEnvironment} is a snapshot: it cannot parse a file again once it changed. This class
+ * therefore runs a nested javadoc task on the changed files only. The task shares the file manager of the
+ * original run, so it uses the same source path, class path and source encoding, and references to the
+ * unchanged sources still resolve. Its doclet converts the selected types with a
+ * {@link TypeElementConverter} and hands the DTOs back. Parsing a handful of files and the declarations
+ * they reference is a small fraction of a full run.</p>
+ *
+ * <p><strong>Type Selection:</strong></p>
+ * <p>The nested task runs with {@code -private} and the source version of the original run, and the
+ * types are filtered like the original run selected them:</p>
+ * <ol>
+ *   <li>A type the original run documented is selected.</li>
+ *   <li>A type the original run saw in the documented packages but left out is not selected.</li>
+ *   <li>A new type is selected if its access is at least the lowest access of a type the original run
+ *       documented, e.g. package-private types after a {@code -package} run.</li>
+ * </ol>
+ *
+ * <p><strong>Typical Usage:</strong></p>
+ * <pre>{@code
+ * ChangedSourceConverter converter = new ChangedSourceConverter(environment);
+ * for (ChangedSourceConverter.ConvertedType converted : converter.convert(changedFiles)) {
+ *     packageTree.replaceType(converted.getPackageName(), converted.getType());
+ * }
+ * }</pre>
+ *
+ * <p><strong>Thread Safety:</strong></p>
+ * <p>Conversions run on the calling thread; one instance may be used by one thread at a time.</p>
+ *
+ * @author DoomDoc Team
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see SourceWatcher
+ * @see DoomDoclet
+ */
+public class ChangedSourceConverter {
+
+    /**
+     * The converter whose nested task is running, for the doclet which javadoc instantiates and runs on
+     * the calling thread.
+     */
+    private static final ThreadLocal<ChangedSourceConverter> ACTIVE = new ThreadLocal<>();
+
+    /**
+     * Access levels, from least to most visible.
+     */
+    private static final int PRIVATE = 0;
+    private static final int PACKAGE_PRIVATE = 1;
+    private static final int PROTECTED = 2;
+    private static final int PUBLIC = 3;
+
+    /**
+     * File manager of the original run, or {@code null} if it is not a standard file manager.
+     */
+    private final StandardJavaFileManager fileManager;
+
+    /**
+     * Options of the nested task.
+     */
+    private final List<String> options = new ArrayList<>();
+
+    /**
+     * Qualified names of the types documented by the original run.
+     */
+    private final Set<String> includedTypes = new HashSet<>();
+
+    /**
+     * Qualified names of the types of the documented packages the original run left out.
+     */
+    private final Set<String> excludedTypes = new HashSet<>();
+
+    /**
+     * Lowest access level of a type documented by the original run.
+     */
+    private int minimumAccess = PUBLIC;
+
+    /**
+     * Types converted by the running nested task.
+     */
+    private List<ConvertedType> results;
+
+    /**
+     * Creates a converter documenting changed files like the given run.
+     *
+     * @param environment the environment of the original run
+     */
+    public ChangedSourceConverter(DocletEnvironment environment) {
+        JavaFileManager originalFileManager = environment.getJavaFileManager();
+        if (originalFileManager instanceof StandardJavaFileManager) {
+            fileManager = (StandardJavaFileManager) originalFileManager;
+        } else {
+            fileManager = null;
+        }
+        options.add("-private");
+        options.add("--source");
+        options.add(environment.getSourceVersion().name().substring("RELEASE_".length()));
+        options.add("-quiet");
+
+        Set<PackageElement> packages = new HashSet<>();
+        for (Element element : environment.getIncludedElements()) {
+            if (element instanceof TypeElement) {
+                TypeElement typeElement = (TypeElement) element;
+                includedTypes.add(typeElement.getQualifiedName().toString());
+                minimumAccess = Math.min(minimumAccess, getAccess(typeElement));
+                packages.add(environment.getElementUtils().getPackageOf(typeElement));
+            }
+        }
+        for (PackageElement packageElement : packages) {
+            addExcludedTypes(packageElement.getEnclosedElements());
+        }
+    }
+
+    /**
+     * Gets the source file a type of a run was declared in.
+     *
+     * @param environment the environment of the run
+     * @param typeElement an included type element
+     * @return the absolute path of the source file, or {@code null} if the type has no source file on disk
+     */
+    public static Path getSourceFile(DocletEnvironment environment, TypeElement typeElement) {
+        TreePath path = environment.getDocTrees().getPath(typeElement);
+        if (path == null) {
+            return null;
+        }
+        try {
+            return Paths.get(path.getCompilationUnit().getSourceFile().toUri()).toAbsolutePath().normalize();
+        } catch (IllegalArgumentException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Documents the given source files and converts their selected types.
+     *
+     * @param files the existing source files to document
+     * @return the converted types in javadoc's element order
+     * @throws IOException if the files cannot be read or do not compile; the message names the first error
+     */
+    public List<ConvertedType> convert(Collection<Path> files) throws IOException {
+        if (files.isEmpty()) {
+            return Collections.emptyList();
+        }
+        DocumentationTool tool = ToolProvider.getSystemDocumentationTool();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        if (fileManager != null) {
+            return convert(tool, fileManager, options, diagnostics, files);
+        }
+        // Javadoc always runs doclets with a standard file manager; other tools get the default paths
+        try (StandardJavaFileManager standardFileManager = tool.getStandardFileManager(diagnostics, Locale.ROOT, null)) {
+            return convert(tool, standardFileManager, options, diagnostics, files);
+        }
+    }
+
+    private List<ConvertedType> convert(DocumentationTool tool, StandardJavaFileManager taskFileManager,
+                                        List<String> taskOptions, DiagnosticCollector<JavaFileObject> diagnostics,
+                                        Collection<Path> files) throws IOException {
+        DocumentationTool.DocumentationTask task = tool.getTask(new StringWriter(), taskFileManager, diagnostics,
+                ChangedSourceDoclet.class, taskOptions, taskFileManager.getJavaFileObjectsFromPaths(files));
+        results = new ArrayList<>();
+        ACTIVE.set(this);
+        try {
+            if (!task.call()) {
+                throw new IOException(describeFailure(diagnostics));
+            }
+            return results;
+        } finally {
+            ACTIVE.remove();
+            results = null;
+        }
+    }
+
+    /**
+     * Checks whether the original run would have documented a type of the nested task.
+     */
+    private boolean isSelected(TypeElement typeElement) {
+        String qualifiedName = typeElement.getQualifiedName().toString();
+        if (includedTypes.contains(qualifiedName)) {
+            return true;
+        }
+        return !excludedTypes.contains(qualifiedName) && getAccess(typeElement) >= minimumAccess;
+    }
+
+    /**
+     * Adds the types among the given elements and their nested types that are not documented.
+     */
+    private void addExcludedTypes(List<? extends Element> elements) {
+        for (Element element : elements) {
+            if (element instanceof TypeElement) {
+                String qualifiedName = ((TypeElement) element).getQualifiedName().toString();
+                if (!includedTypes.contains(qualifiedName)) {
+                    excludedTypes.add(qualifiedName);
+                }
+                addExcludedTypes(element.getEnclosedElements());
+            }
+        }
+    }
+
+    /**
+     * Gets the access level of a type; members of interfaces are implicitly public.
+     */
+    private static int getAccess(TypeElement typeElement) {
+        Set<Modifier> modifiers = typeElement.getModifiers();
+        ElementKind enclosingKind = typeElement.getEnclosingElement().getKind();
+        if (modifiers.contains(Modifier.PUBLIC)
+                || enclosingKind == ElementKind.INTERFACE || enclosingKind == ElementKind.ANNOTATION_TYPE) {
+            return PUBLIC;
+        }
+        if (modifiers.contains(Modifier.PROTECTED)) {
+            return PROTECTED;
+        }
+        return modifiers.contains(Modifier.PRIVATE) ? PRIVATE : PACKAGE_PRIVATE;
+    }
+
+    /**
+     * Describes the first error of a failed nested run.
+     */
+    private static String describeFailure(DiagnosticCollector<JavaFileObject> diagnostics) {
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                String source = diagnostic.getSource() == null ? "" : diagnostic.getSource().getName()
+                        + ":" + diagnostic.getLineNumber() + ": ";
+                return source + diagnostic.getMessage(Locale.ROOT);
+            }
+        }
+        return "javadoc failed";
+    }
+
+    /**
+     * A type converted from a changed source file.
+     */
+    public static class ConvertedType {
+
+        private final Path sourceFile;
+        private final String packageName;
+        private final TypeInfo type;
+
+        ConvertedType(Path sourceFile, String packageName, TypeInfo type) {
+            this.sourceFile = sourceFile;
+            this.packageName = packageName;
+            this.type = type;
+        }
+
+        public Path getSourceFile() {
+            return sourceFile;
+        }
+
+        public String getPackageName() {
+            return packageName;
+        }
+
+        public TypeInfo getType() {
+            return type;
+        }
+    }
+
+    /**
+     * The doclet of the nested run, collecting the selected types for {@link #convert(Collection)}.
+     * Public for javadoc, which instantiates it.
+     */
+    public static class ChangedSourceDoclet implements Doclet {
+
+        @Override
+        public void init(Locale locale, Reporter reporter) {
+        }
+
+        @Override
+        public String getName() {
+            return "DoomDocChangedSources";
+        }
+
+        @Override
+        public Set<? extends Option> getSupportedOptions() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.latest();
+        }
+
+        @Override
+        public boolean run(DocletEnvironment environment) {
+            ChangedSourceConverter active = ACTIVE.get();
+            if (active == null) {
+                return false;
+            }
+            TypeElementConverter converter = new TypeElementConverter(environment);
+            for (Element element : environment.getIncludedElements()) {
+                if (element instanceof TypeElement && active.isSelected((TypeElement) element)) {
+                    TypeElement typeElement = (TypeElement) element;
+                    String packageName = environment.getElementUtils().getPackageOf(typeElement).getQualifiedName().toString();
+                    active.results.add(new ConvertedType(getSourceFile(environment, typeElement), packageName,
+                            converter.convert(typeElement)));
+                }
+            }
+            return true;
+        }
+    }
+}
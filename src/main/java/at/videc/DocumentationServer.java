@@ -0,0 +1,370 @@
+package at.videc;
+
+import at.videc.bomblet.PackageTree;
+import at.videc.bomblet.SearchEngine;
+import at.videc.bomblet.dto.PackageInfo;
+import at.videc.bomblet.dto.SearchIndexEntry;
+import at.videc.bomblet.dto.TypeInfo;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves the documentation from the in-memory model with the JDK's built-in HTTP server.
+ *
+ * <p>Instead of writing the model into a page, the converted {@link PackageTree} is kept in memory and
+ * the browser requests only what is viewed. The server binds to the loopback address only.</p>
+ *
+ * <p><strong>Endpoints:</strong></p>
+ * <ul>
+ *   <li>{@code /} - the shell page, linking the bundles and the model index</li>
+ *   <li>{@code /assets/doomdoc.css}, {@code /assets/doomdoc.js} - all stylesheets and all scripts, each
+ *   concatenated into one bundle</li>
+ *   <li>{@code /api/index.js} - script defining {@code model}: the package and type names for the sidebar,
+ *   the type links and the {@code endpoints} below, see {@link PackageTree#writeServedIndexJson(Writer, Map)}</li>
+ *   <li>{@code /api/package/<name>} - JSON of a package with its javadoc and the names of its types</li>
+ *   <li>{@code /api/type/<qualifiedName>} - JSON of a type with all its members</li>
+ *   <li>{@code /api/search?q=<query>} - the ranked, faceted search results as JSON, see {@link SearchEngine}</li>
+ * </ul>
+ *
+ * <p>The shell page, the bundles and the index do not change while the server runs; they are rendered once
+ * and revalidated by ETag. Package and type JSON is serialized on request. Responses are gzip-compressed
+ * for clients accepting it.</p>
+ *
+ * <p><strong>Thread Safety:</strong></p>
+ * <p>Requests are handled by a fixed pool of threads. The model is only read after the server is created
+ * and must not be changed while it runs.</p>
+ *
+ * @author DoomDoc Team
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see DoomDoclet
+ * @see MultiFileSiteWriter
+ */
+public class DocumentationServer implements Closeable {
+
+    /**
+     * Responses smaller than this are sent uncompressed.
+     */
+    private static final int MIN_COMPRESSED_SIZE = 1024;
+
+    private static final String HTML = "text/html; charset=utf-8";
+    private static final String CSS = "text/css; charset=utf-8";
+    private static final String JAVASCRIPT = "text/javascript; charset=utf-8";
+    private static final String JSON = "application/json; charset=utf-8";
+
+    private final PackageTree packageTree;
+
+    private final SearchEngine searchEngine;
+
+    /**
+     * Documented types by qualified name.
+     */
+    private final Map<String, TypeInfo> types = new HashMap<>();
+
+    /**
+     * Contents that do not change while the server runs, by path.
+     */
+    private final Map<String, StaticContent> staticContents = new HashMap<>();
+
+    private final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+
+    private HttpServer server;
+
+    private ExecutorService executor;
+
+    /**
+     * Creates a server for the given package tree and renders its static contents.
+     *
+     * <p>The search is answered from the object-per-entry search index, so the tree must be built without
+     * {@link PackageTree#setColumnarSearchIndex(boolean) columnar search index}.</p>
+     *
+     * @param packageTree the package tree with its search index and type links built
+     * @param projectName the name shown in the title bar
+     * @param stylesheets the stylesheet directory
+     * @param scripts the script directory
+     * @param typeViewCacheSize number of rendered type views the page keeps, or 0 for the default of tree.js
+     * @throws IOException if the assets cannot be read
+     */
+    public DocumentationServer(PackageTree packageTree, String projectName, Path stylesheets, Path scripts,
+                               int typeViewCacheSize) throws IOException {
+        this.packageTree = packageTree;
+        List<SearchIndexEntry> searchIndex = packageTree.getModel().getSearchIndex();
+        this.searchEngine = new SearchEngine(searchIndex != null ? searchIndex : Collections.emptyList());
+        for (PackageInfo packageInfo : packageTree.getModel().getPackages()) {
+            for (TypeInfo type : packageInfo.getTypes()) {
+                types.putIfAbsent(type.getQualifiedName(), type);
+            }
+        }
+
+        ByteArrayOutputStream shell = new ByteArrayOutputStream();
+        try (HtmlPageWriter page = new HtmlPageWriter(shell)) {
+            page.setTypeViewCacheSize(typeViewCacheSize);
+            page.writeHead();
+            page.writeStylesheetLink("assets/doomdoc.css");
+            page.writeScriptLink("assets/doomdoc.js");
+            page.writeShell(projectName);
+            page.writeModelLink("api/index.js");
+        }
+        addStaticContent("/", HTML, shell.toByteArray());
+        addStaticContent("/assets/doomdoc.css", CSS, concatenate(stylesheets));
+        addStaticContent("/assets/doomdoc.js", JAVASCRIPT, concatenate(scripts));
+
+        Map<String, String> endpoints = new LinkedHashMap<>();
+        endpoints.put("package", "api/package/");
+        endpoints.put("type", "api/type/");
+        endpoints.put("search", "api/search");
+        ByteArrayOutputStream index = new ByteArrayOutputStream();
+        try (Writer out = new OutputStreamWriter(index, StandardCharsets.UTF_8)) {
+            out.write("var model = ");
+            packageTree.writeServedIndexJson(out, endpoints);
+            out.write(";");
+        }
+        addStaticContent("/api/index.js", JAVASCRIPT, index.toByteArray());
+    }
+
+    /**
+     * Starts serving on the loopback address.
+     *
+     * @param port the port, or 0 for any free port
+     * @throws IOException if the port cannot be bound
+     * @throws IllegalStateException if the server was already started
+     */
+    public void start(int port) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("Server already started");
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/", this::handle);
+        executor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return the bound port
+     * @throws IllegalStateException if the server is not started
+     */
+    public int getPort() {
+        if (server == null) {
+            throw new IllegalStateException("Server not started");
+        }
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server, closing open connections, and waits at most a second for running requests.
+     */
+    @Override
+    public void close() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+    }
+
+    /**
+     * Dispatches a request by path.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "Method not allowed");
+                return;
+            }
+            String path = exchange.getRequestURI().getPath();
+            StaticContent content = staticContents.get(path);
+            if (content != null) {
+                sendStatic(exchange, content);
+            } else if (path.startsWith("/api/package/")) {
+                PackageInfo packageInfo = packageTree.getPackage(path.substring("/api/package/".length()));
+                if (packageInfo == null) {
+                    sendError(exchange, 404, "Package not found");
+                } else {
+                    sendJson(exchange, out -> packageTree.writePackageSummaryJson(packageInfo, out));
+                }
+            } else if (path.startsWith("/api/type/")) {
+                TypeInfo type = types.get(path.substring("/api/type/".length()));
+                if (type == null) {
+                    sendError(exchange, 404, "Type not found");
+                } else {
+                    sendJson(exchange, out -> packageTree.writeTypeJson(type, out));
+                }
+            } else if (path.equals("/api/search")) {
+                String query = getQueryParameter(exchange, "q");
+                sendJson(exchange, out -> writeSearchResults(searchEngine.search(query), out));
+            } else {
+                sendError(exchange, 404, "Not found");
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Writes faceted search results: every entry with its score, like {@code getSearchResult} in search.js.
+     */
+    private void writeSearchResults(Map<String, List<SearchEngine.Result>> results, Writer out) throws IOException {
+        JsonWriter json = gson.newJsonWriter(out);
+        json.beginObject();
+        for (Map.Entry<String, List<SearchEngine.Result>> category : results.entrySet()) {
+            json.name(category.getKey());
+            json.beginArray();
+            for (SearchEngine.Result result : category.getValue()) {
+                JsonObject entry = gson.toJsonTree(result.getEntry()).getAsJsonObject();
+                entry.addProperty("score", result.getScore());
+                gson.toJson(entry, json);
+            }
+            json.endArray();
+        }
+        json.endObject();
+        json.flush();
+    }
+
+    private void sendStatic(HttpExchange exchange, StaticContent content) throws IOException {
+        exchange.getResponseHeaders().set("ETag", content.etag);
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        if (content.etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        send(exchange, 200, content.contentType, content.bytes);
+    }
+
+    private void sendJson(HttpExchange exchange, Content content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer out = new OutputStreamWriter(bytes, StandardCharsets.UTF_8)) {
+            content.write(out);
+        }
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        send(exchange, 200, JSON, bytes.toByteArray());
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, "text/plain; charset=utf-8", message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sends a response, gzip-compressed if the client accepts it and the body is large enough.
+     */
+    private void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (body.length >= MIN_COMPRESSED_SIZE && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(status, 0);
+            try (OutputStream out = new GZIPOutputStream(exchange.getResponseBody())) {
+                out.write(body);
+            }
+        } else {
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private void addStaticContent(String path, String contentType, byte[] bytes) {
+        staticContents.put(path, new StaticContent(contentType, bytes));
+    }
+
+    /**
+     * Gets a decoded parameter of the query string, or {@code null} if it is missing.
+     */
+    private static String getQueryParameter(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String parameter : query.split("&")) {
+            int separator = parameter.indexOf('=');
+            String key = separator < 0 ? parameter : parameter.substring(0, separator);
+            if (key.equals(name)) {
+                return separator < 0 ? "" : URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Concatenates the regular files below a directory in path order.
+     */
+    private static byte[] concatenate(Path directory) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (Path path : HtmlPageWriter.listFiles(directory)) {
+            bytes.write(Files.readAllBytes(path));
+            bytes.write('\n');
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * A response that does not change while the server runs.
+     */
+    private static class StaticContent {
+
+        private final String contentType;
+        private final byte[] bytes;
+        private final String etag;
+
+        StaticContent(String contentType, byte[] bytes) {
+            this.contentType = contentType;
+            this.bytes = bytes;
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+                this.etag = "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 16) + "\"";
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+    }
+
+    /**
+     * Writes the JSON body of a response.
+     */
+    @FunctionalInterface
+    private interface Content {
+        void write(Writer out) throws IOException;
+    }
+}
@@ -0,0 +1,339 @@
+package at.videc;
+
+import jdk.javadoc.doclet.Doclet;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Holds the DoomDoc specific command line options and exposes them as {@link Doclet.Option}s.
+ *
+ * <p>The options are registered in addition to the options of the {@link jdk.javadoc.doclet.StandardDoclet},
+ * so the usual javadoc command line keeps working unchanged. All DoomDoc options are opt-in; without
+ * any of them the doclet behaves exactly like before.</p>
+ *
+ * <p><strong>Supported Options:</strong></p>
+ * <ul>
+ *   <li>{@code --threads <count>} - number of worker threads used for type conversion (default: 1, serial)</li>
+ *   <li>{@code --conversion-cache <dir>} - directory of the persistent conversion cache (default: none)</li>
+ *   <li>{@code --string-pool} - embed the model with a deduplicated string table</li>
+ *   <li>{@code --compress-model} - embed the model gzip-compressed and base64-encoded</li>
+ *   <li>{@code --columnar-search} - embed the search index as sorted columns</li>
+ *   <li>{@code --timing-report} - write the per-phase timing as JSON next to the output</li>
+ *   <li>{@code --type-view-cache <count>} - number of rendered type views the page keeps for revisits
+ *   (default: the page's built-in size)</li>
+ *   <li>{@code --multi-file} - write a shell page with content-hashed shared assets and one model shard per
+ *   package instead of a single self-contained page</li>
+ *   <li>{@code --serve <port>} - serve the documentation from memory on the given loopback port instead of
+ *   writing it</li>
+ *   <li>{@code --watch} - keep running after writing and regenerate the output whenever documented sources
+ *   change</li>
+ * </ul>
+ *
+ * @author DoomDoc Team
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see DoomDoclet#getSupportedOptions()
+ */
+public class DoomDocOptions {
+
+    /**
+     * Number of worker threads used to convert type elements. A value of 1 selects the serial pipeline.
+     */
+    private int threads = 1;
+
+    /**
+     * Directory of the persistent conversion cache, or {@code null} if every type is converted on every run.
+     */
+    private Path conversionCache;
+
+    /**
+     * Whether the embedded model uses a deduplicated string table.
+     */
+    private boolean stringPool;
+
+    /**
+     * Whether the embedded model is gzip-compressed.
+     */
+    private boolean compressModel;
+
+    /**
+     * Whether the search index is embedded in columnar form.
+     */
+    private boolean columnarSearch;
+
+    /**
+     * Whether the per-phase timing is written as a JSON report.
+     */
+    private boolean timingReport;
+
+    /**
+     * Number of rendered type views the page keeps for revisits, or 0 to keep the page's default.
+     */
+    private int typeViewCacheSize;
+
+    /**
+     * Whether the documentation is written as a shell page with shared assets and per-package model shards.
+     */
+    private boolean multiFile;
+
+    /**
+     * Port the documentation is served on, or 0 if it is written to disk.
+     */
+    private int servePort;
+
+    /**
+     * Whether the output is regenerated whenever documented sources change.
+     */
+    private boolean watch;
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public Path getConversionCache() {
+        return conversionCache;
+    }
+
+    public void setConversionCache(Path conversionCache) {
+        this.conversionCache = conversionCache;
+    }
+
+    public boolean isStringPool() {
+        return stringPool;
+    }
+
+    public void setStringPool(boolean stringPool) {
+        this.stringPool = stringPool;
+    }
+
+    public boolean isCompressModel() {
+        return compressModel;
+    }
+
+    public void setCompressModel(boolean compressModel) {
+        this.compressModel = compressModel;
+    }
+
+    public boolean isColumnarSearch() {
+        return columnarSearch;
+    }
+
+    public void setColumnarSearch(boolean columnarSearch) {
+        this.columnarSearch = columnarSearch;
+    }
+
+    public boolean isTimingReport() {
+        return timingReport;
+    }
+
+    public void setTimingReport(boolean timingReport) {
+        this.timingReport = timingReport;
+    }
+
+    public int getTypeViewCacheSize() {
+        return typeViewCacheSize;
+    }
+
+    public void setTypeViewCacheSize(int typeViewCacheSize) {
+        this.typeViewCacheSize = typeViewCacheSize;
+    }
+
+    public boolean isMultiFile() {
+        return multiFile;
+    }
+
+    public void setMultiFile(boolean multiFile) {
+        this.multiFile = multiFile;
+    }
+
+    public int getServePort() {
+        return servePort;
+    }
+
+    public void setServePort(int servePort) {
+        this.servePort = servePort;
+    }
+
+    public boolean isWatch() {
+        return watch;
+    }
+
+    public void setWatch(boolean watch) {
+        this.watch = watch;
+    }
+
+    /**
+     * Returns the DoomDoc specific options understood by this instance.
+     *
+     * @return the set of supported doclet options
+     */
+    public Set<Doclet.Option> getSupportedOptions() {
+        Set<Doclet.Option> options = new LinkedHashSet<>();
+        options.add(new DocletOption("--threads", "<count>",
+                "Number of worker threads used to convert types (default: 1, serial)") {
+            @Override
+            public boolean process(String option, List<String> arguments) {
+                Integer value = parsePositiveInt(arguments.get(0));
+                if (value == null) {
+                    return false;
+                }
+                setThreads(value);
+                return true;
+            }
+        });
+        options.add(new DocletOption("--conversion-cache", "<dir>",
+                "Directory for caching converted types between runs; unchanged sources are not converted again") {
+            @Override
+            public boolean process(String option, List<String> arguments) {
+                try {
+                    setConversionCache(Paths.get(arguments.get(0)));
+                    return true;
+                } catch (InvalidPathException e) {
+                    return false;
+                }
+            }
+        });
+        options.add(new DocletOption("--string-pool", null,
+                "Embed the model with a deduplicated string table to reduce its size") {
+            @Override
+            public boolean process(String option, List<String> arguments) {
+                setStringPool(true);
+                return true;
+            }
+        });
+        options.add(new DocletOption("--compress-model", null,
+                "Embed the model gzip-compressed and base64-encoded, inflated by the browser on load") {
+            @Override
+            public boolean process(String option, List<String> arguments) {
+                setCompressModel(true);
+                return true;
+            }
+        });
+        options.add(new DocletOption("--columnar-search", null,
+                "Embed the search index as columns grouped by category, storing values shared by the members of "
+                        + "a type once") {
+            @Override
+            public boolean process(String option, List<String> arguments) {
+                setColumnarSearch(true);
+                return true;
+            }
+        });
+        options.add(new DocletOption("--timing-report", null,
+                "Write wall time, CPU time and allocated bytes of every phase as JSON next to the output") {
+            @Override
+            public boolean process(String option, List<String> arguments) {
+                setTimingReport(true);
+                return true;
+            }
+        });
+        options.add(new DocletOption("--type-view-cache", "<count>",
+                "Number of rendered type views the page keeps to show revisited types instantly (default: 32)") {
+            @Override
+            public boolean process(String option, List<String> arguments) {
+                Integer value = parsePositiveInt(arguments.get(0));
+                if (value == null) {
+                    return false;
+                }
+                setTypeViewCacheSize(value);
+                return true;
+            }
+        });
+        options.add(new DocletOption("--multi-file", null,
+                "Write a shell page, content-hashed shared CSS/JS bundles and one model shard per package, "
+                        + "loaded on demand") {
+            @Override
+            public boolean process(String option, List<String> arguments) {
+                setMultiFile(true);
+                return true;
+            }
+        });
+        options.add(new DocletOption("--serve", "<port>",
+                "Serve the documentation from memory on http://127.0.0.1:<port>/ until stopped, "
+                        + "loading packages, types and search results on demand") {
+            @Override
+            public boolean process(String option, List<String> arguments) {
+                Integer value = parsePositiveInt(arguments.get(0));
+                if (value == null || value > 65535) {
+                    return false;
+                }
+                setServePort(value);
+                return true;
+            }
+        });
+        options.add(new DocletOption("--watch", null,
+                "Keep running and regenerate the output incrementally whenever documented sources change") {
+            @Override
+            public boolean process(String option, List<String> arguments) {
+                setWatch(true);
+                return true;
+            }
+        });
+        return options;
+    }
+
+    /**
+     * Parses a strictly positive integer option argument.
+     *
+     * @param argument the raw option argument
+     * @return the parsed value, or {@code null} if the argument is not a positive integer
+     */
+    private static Integer parsePositiveInt(String argument) {
+        try {
+            int value = Integer.parseInt(argument.trim());
+            return value > 0 ? value : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Base class for DoomDoc options. Options without a parameter description are flags and take no argument.
+     */
+    private abstract static class DocletOption implements Doclet.Option {
+
+        private final String name;
+        private final String parameters;
+        private final String description;
+
+        DocletOption(String name, String parameters, String description) {
+            this.name = name;
+            this.parameters = parameters;
+            this.description = description;
+        }
+
+        @Override
+        public int getArgumentCount() {
+            return parameters == null ? 0 : 1;
+        }
+
+        @Override
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        public Kind getKind() {
+            return Kind.STANDARD;
+        }
+
+        @Override
+        public List<String> getNames() {
+            return Collections.singletonList(name);
+        }
+
+        @Override
+        public String getParameters() {
+            return parameters == null ? "" : parameters;
+        }
+    }
+}
@@ -1,18 +1,26 @@
 package at.videc;
 
+import at.videc.bomblet.ConversionCache;
 import at.videc.bomblet.PackageTree;
+import at.videc.bomblet.ParallelTypeConverter;
+import at.videc.bomblet.PhaseTimer;
 import at.videc.bomblet.TypeElementConverter;
+import at.videc.bomblet.TypeNameCache;
 import at.videc.bomblet.dto.TypeInfo;
 import jdk.javadoc.doclet.DocletEnvironment;
 import jdk.javadoc.doclet.StandardDoclet;
 import jdk.javadoc.doclet.Reporter;
 
 import javax.lang.model.element.TypeElement;
-import java.io.BufferedWriter;
+import javax.tools.Diagnostic;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
 import java.util.stream.Collectors;
 
 /**
@@ -33,6 +41,7 @@ import java.util.stream.Collectors;
  *   <li>Extract type information via {@link TypeElementConverter}</li>
  *   <li>Organize types by package via {@link PackageTree}</li>
  *   <li>Generate search index for autocomplete</li>
+ *   <li>Resolve type references to linkable types</li>
  *   <li>Inline all resources (CSS/JS) into HTML</li>
  *   <li>Serialize model to JSON and embed in output</li>
  * </ol>
@@ -55,6 +64,27 @@ import java.util.stream.Collectors;
  */
 public class DoomDoclet extends StandardDoclet {
 
+    /**
+     * DoomDoc specific command line options, populated by javadoc before {@link #run(DocletEnvironment)}.
+     */
+    private final DoomDocOptions options = new DoomDocOptions();
+
+    /**
+     * Reporter for diagnostic messages, set by {@link #init(Locale, Reporter)}.
+     */
+    private Reporter reporter;
+
+    /**
+     * Name of the JSON timing report, written next to the output file.
+     */
+    static final String TIMING_REPORT_FILE = "output-timing.json";
+
+    /**
+     * Shard URL of every package written by the last multi-file generation, reused in watch mode for the
+     * packages that did not change.
+     */
+    private Map<String, String> packageShards = Collections.emptyMap();
+
     /**
      * Generates the complete HTML documentation from the provided DocletEnvironment.
      *
@@ -62,14 +92,23 @@ public class DoomDoclet extends StandardDoclet {
      * generation process:</p>
      *
      * <ol>
-     *   <li><strong>Resource Inlining:</strong> Reads and embeds all CSS and JavaScript files</li>
      *   <li><strong>Type Extraction:</strong> Converts all {@link TypeElement}s to {@link TypeInfo} DTOs</li>
      *   <li><strong>Tree Building:</strong> Organizes types into hierarchical package structure</li>
      *   <li><strong>Search Index:</strong> Builds searchable index of all documentation elements</li>
-     *   <li><strong>HTML Generation:</strong> Creates single-file HTML with embedded data</li>
-     *   <li><strong>File Output:</strong> Writes to {@code output.html} in project root</li>
+     *   <li><strong>HTML Generation:</strong> Streams the page with inlined CSS/JavaScript and the embedded
+     *       model via {@link HtmlPageWriter} to {@code output.html} in project root. With
+     *       {@code --multi-file} a shell page, shared bundles and per-package model shards are written
+     *       via {@link MultiFileSiteWriter} instead, and with {@code --serve <port>} the model is served
+     *       from memory by a {@link DocumentationServer} until the process is stopped</li>
+     *   <li><strong>Watch Mode:</strong> With {@code --watch} the doclet keeps running after writing, and
+     *       regenerates the output whenever documented sources change. Only the changed files are
+     *       converted again, see {@link ChangedSourceConverter}, and the search index and type links are
+     *       updated incrementally</li>
      * </ol>
      *
+     * <p>Every phase is measured by a {@link PhaseTimer}; the summary is printed as a note and, with
+     * {@code --timing-report}, written to {@code output-timing.json}.</p>
+     *
      * <p><strong>Output Format:</strong></p>
      * <p>The generated HTML contains:</p>
      * <ul>
@@ -87,95 +126,457 @@ public class DoomDoclet extends StandardDoclet {
      */
     @Override
     public boolean run(DocletEnvironment environment) {
-        StringBuilder html = new StringBuilder();
-        html.append("<!DOCTYPE html><html><head><title>Documentation</title>");
-        // Add CSS and JavaScript
-        try {
-            Files.walk(Paths.get("src/main/resources/stylesheets"))
-                    .filter(Files::isRegularFile)
-                    .forEach(path -> {
-                        try {
-                            String cssContent = new String(Files.readAllBytes(path));
-                            html.append("<style>").append(cssContent).append("</style>");
-                        } catch (IOException e) {
-                            e.printStackTrace();
-                        }
-                    });
-            Files.walk(Paths.get("src/main/resources/javascript"))
-                    .filter(Files::isRegularFile)
-                    .forEach(path -> {
-                        try {
-                            String jsContent = new String(Files.readAllBytes(path));
-                            html.append("<script>").append(jsContent).append("</script>");
-                        } catch (IOException e) {
-                            e.printStackTrace();
-                        }
-                    });
-        } catch (IOException e) {
-            e.printStackTrace();
-            return false;
-        }
-        html.append("</head><body>");
+        PhaseTimer timer = new PhaseTimer();
 
         // Build package tree from type elements
         PackageTree packageTree = new PackageTree();
-        TypeElementConverter converter = new TypeElementConverter(environment);
 
-        List<TypeElement> typeElements = environment.getIncludedElements().stream()
-                .filter(e -> e instanceof TypeElement)
-                .map(e -> (TypeElement) e)
-                .collect(Collectors.toList());
+        List<TypeElement> typeElements;
+        PhaseTimer.Phase collectionPhase = timer.start("element collection");
+        try {
+            typeElements = environment.getIncludedElements().stream()
+                    .filter(e -> e instanceof TypeElement)
+                    .map(e -> (TypeElement) e)
+                    .collect(Collectors.toList());
+        } finally {
+            collectionPhase.close();
+        }
 
-        // Collect all package names to determine project name
         Set<String> packageNames = new TreeSet<>();
-        for (TypeElement typeElement : typeElements) {
-            String packageName = environment.getElementUtils().getPackageOf(typeElement).getQualifiedName().toString();
-            packageNames.add(packageName);
-            TypeInfo typeInfo = converter.convert(typeElement);
-            packageTree.addType(packageName, typeInfo);
+        try (PhaseTimer.Phase phase = timer.start("conversion")) {
+            ConversionCache cache = null;
+            if (options.getConversionCache() != null) {
+                try {
+                    cache = new ConversionCache(options.getConversionCache(), environment);
+                } catch (IOException e) {
+                    reporter.print(Diagnostic.Kind.WARNING, "Conversion cache disabled, cannot create "
+                            + options.getConversionCache() + ": " + e.getMessage());
+                }
+            }
+
+            List<TypeInfo> typeInfos = convertTypes(environment, typeElements, cache, phase);
+            if (cache != null) {
+                reportCacheStatistics(cache);
+            }
+
+            // Merge in element order so serial and parallel runs produce identical models.
+            // Collect all package names to determine project name
+            for (int i = 0; i < typeElements.size(); i++) {
+                String packageName = environment.getElementUtils().getPackageOf(typeElements.get(i)).getQualifiedName().toString();
+                packageNames.add(packageName);
+                packageTree.addType(packageName, typeInfos.get(i));
+            }
         }
 
         // Build search index after all types are added
-        packageTree.buildSearchIndex();
+        PhaseTimer.Phase indexPhase = timer.start("search index");
+        try {
+            // The server searches the object-per-entry index
+            packageTree.setColumnarSearchIndex(options.isColumnarSearch() && options.getServePort() == 0);
+            // Watch mode indexes and resolves only the types of changed sources again
+            packageTree.setIncrementalIndex(options.isWatch() && options.getServePort() == 0);
+            packageTree.buildSearchIndex();
+        } finally {
+            indexPhase.close();
+        }
+
+        // Resolve type references so the client links signatures without searching the model
+        PhaseTimer.Phase linksPhase = timer.start("type links");
+        try {
+            packageTree.resolveTypeLinks();
+        } finally {
+            linksPhase.close();
+        }
 
         // Determine project name from root package
         String projectName = determineProjectName(packageNames);
 
-        // Title bar with search
-        html.append("<div class=\"title-bar\">");
-        html.append("<div class=\"title-bar-content\">").append(projectName).append("</div>");
-        html.append("<div class=\"title-bar-search-container\">");
-        html.append("<input type=\"text\" id=\"globalSearch\" class=\"title-bar-search\" placeholder=\"Search...\" autocomplete=\"off\">");
-        html.append("<button class=\"search-clear\" onclick=\"clearSearch()\" style=\"display: none;\">×</button>");
-        html.append("<div id=\"searchDropdown\" class=\"search-dropdown\"></div>");
-        html.append("</div>");
-        html.append("</div>");
-
-        // Container with sidebar and content
-        html.append("<div class=\"container\">");
-        html.append("<div class=\"sidebar\">");
-        html.append("<ul id=\"packageTree\"></ul></div>");
-        html.append("<div class=\"content\"><div id=\"docContent\"></div></div>");
-        html.append("</div></body></html>");
-
-        // Generate tree view and initialize search
-        html.append("<script>");
-        html.append("var model = ").append(packageTree.toCompactJson()).append(";");
-        html.append("generateTree(model);");
-        html.append("initializeSearch(model);");
-        html.append("</script>");
-
-        // Write HTML to file
-        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get("output.html"))) {
-            writer.write(html.toString());
+        // Stream the page straight into the output file
+        Path outputFile = Paths.get("output.html");
+        if (options.getServePort() > 0) {
+            if (options.isWatch()) {
+                reporter.print(Diagnostic.Kind.WARNING, "--watch has no effect with --serve");
+            }
+            return serve(packageTree, projectName, timer);
+        }
+        if (!writeOutput(packageTree, projectName, outputFile, timer, Collections.emptySet())) {
+            return false;
+        }
+        if (options.isWatch()) {
+            return watch(environment, typeElements, packageTree, projectName, outputFile);
+        }
+        return true;
+    }
+
+    /**
+     * Writes the documentation as a single page or, with {@code --multi-file}, as a multi-file site.
+     *
+     * @param packageTree the complete package tree
+     * @param projectName the name shown in the title bar
+     * @param outputFile the page
+     * @param timer the timer receiving the write phases
+     * @param changedPackages the packages changed since the last multi-file generation
+     * @return {@code true} if the output was written, {@code false} on I/O errors
+     */
+    private boolean writeOutput(PackageTree packageTree, String projectName, Path outputFile, PhaseTimer timer,
+                                Set<String> changedPackages) {
+        if (options.isMultiFile()) {
+            return writeMultiFileSite(packageTree, projectName, outputFile, timer, changedPackages);
+        }
+        return writePage(packageTree, projectName, outputFile, timer);
+    }
+
+    /**
+     * Streams the self-contained page with inlined assets and the embedded model, see {@link HtmlPageWriter}.
+     *
+     * @param packageTree the complete package tree
+     * @param projectName the name shown in the title bar
+     * @param outputFile the page
+     * @param timer the timer receiving the write phases
+     * @return {@code true} if the page was written, {@code false} on I/O errors
+     */
+    private boolean writePage(PackageTree packageTree, String projectName, Path outputFile, PhaseTimer timer) {
+        try {
+            HtmlPageWriter page = new HtmlPageWriter(Files.newOutputStream(outputFile));
+            try {
+                PhaseTimer.Phase inliningPhase = timer.start("asset inlining");
+                try {
+                    page.setPooledStrings(options.isStringPool());
+                    page.setCompressedModel(options.isCompressModel());
+                    page.setTypeViewCacheSize(options.getTypeViewCacheSize());
+                    page.writeHead();
+                    // Add CSS and JavaScript
+                    page.writeStylesheets(Paths.get("src/main/resources/stylesheets"));
+                    page.writeScripts(Paths.get("src/main/resources/javascript"));
+                    page.writeShell(projectName);
+                } finally {
+                    inliningPhase.close();
+                }
+                // Generate tree view and initialize search
+                PhaseTimer.Phase serializationPhase = timer.start("JSON serialization");
+                try {
+                    page.writeModel(packageTree);
+                } finally {
+                    serializationPhase.close();
+                }
+            } finally {
+                PhaseTimer.Phase writePhase = timer.start("file write");
+                try {
+                    page.close();
+                } finally {
+                    writePhase.close();
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+
+        reportTiming(timer, outputFile.resolveSibling(TIMING_REPORT_FILE));
+        return true;
+    }
+
+    /**
+     * Writes the documentation as a shell page with shared assets and one model shard per package,
+     * see {@link MultiFileSiteWriter}.
+     *
+     * @param packageTree the complete package tree
+     * @param projectName the name shown in the title bar
+     * @param outputFile the shell page
+     * @param timer the timer receiving the write phases
+     * @param changedPackages the packages changed since the last generation; the shards of the other
+     *                        packages of the last generation are kept
+     * @return {@code true} if the site was written, {@code false} on I/O errors
+     */
+    private boolean writeMultiFileSite(PackageTree packageTree, String projectName, Path outputFile, PhaseTimer timer,
+                                       Set<String> changedPackages) {
+        if (options.isStringPool() || options.isCompressModel()) {
+            reporter.print(Diagnostic.Kind.WARNING,
+                    "--string-pool and --compress-model have no effect with --multi-file");
+        }
+        MultiFileSiteWriter site = new MultiFileSiteWriter(outputFile);
+        site.setTypeViewCacheSize(options.getTypeViewCacheSize());
+        try {
+            String stylesheet;
+            String script;
+            PhaseTimer.Phase bundlingPhase = timer.start("asset bundling");
+            try {
+                stylesheet = site.writeStylesheetBundle(Paths.get("src/main/resources/stylesheets"));
+                script = site.writeScriptBundle(Paths.get("src/main/resources/javascript"));
+            } finally {
+                bundlingPhase.close();
+            }
+            String index;
+            PhaseTimer.Phase serializationPhase = timer.start("JSON serialization");
+            try {
+                Map<String, String> unchangedShards = new HashMap<>(packageShards);
+                unchangedShards.keySet().removeAll(changedPackages);
+                packageShards = site.writePackageShards(packageTree, unchangedShards);
+                index = site.writeIndex(packageTree, packageShards);
+            } finally {
+                serializationPhase.close();
+            }
+            PhaseTimer.Phase writePhase = timer.start("file write");
+            try {
+                site.writeShell(projectName, stylesheet, script, index);
+                site.removeStaleFiles();
+            } finally {
+                writePhase.close();
+            }
         } catch (IOException e) {
             e.printStackTrace();
             return false;
         }
 
+        reporter.print(Diagnostic.Kind.NOTE, String.format(Locale.ROOT,
+                "Multi-file site: %d package shards in %s", packageTree.getPackageCount(), site.getAssetDirectory()));
+        reportTiming(timer, outputFile.resolveSibling(TIMING_REPORT_FILE));
         return true;
     }
 
+    /**
+     * Serves the documentation from memory with a {@link DocumentationServer} on the loopback address and
+     * blocks until the process is stopped.
+     *
+     * @param packageTree the complete package tree
+     * @param projectName the name shown in the title bar
+     * @param timer the timer of this run, reported once the server is started
+     * @return {@code false} if the server cannot be started; never returns otherwise
+     */
+    private boolean serve(PackageTree packageTree, String projectName, PhaseTimer timer) {
+        DocumentationServer server;
+        PhaseTimer.Phase bundlingPhase = timer.start("asset bundling");
+        try {
+            server = new DocumentationServer(packageTree, projectName, Paths.get("src/main/resources/stylesheets"),
+                    Paths.get("src/main/resources/javascript"), options.getTypeViewCacheSize());
+            server.start(options.getServePort());
+        } catch (IOException e) {
+            reporter.print(Diagnostic.Kind.ERROR, "Cannot serve documentation on port "
+                    + options.getServePort() + ": " + e.getMessage());
+            return false;
+        } finally {
+            bundlingPhase.close();
+        }
+        reporter.print(Diagnostic.Kind.NOTE, timer.formatSummary());
+        reporter.print(Diagnostic.Kind.NOTE, "Serving documentation at http://127.0.0.1:" + server.getPort()
+                + "/ (press Ctrl+C to stop)");
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        try {
+            new CountDownLatch(1).await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server.close();
+        return true;
+    }
+
+    /**
+     * Watches the directories of the documented sources and regenerates the output after every batch of
+     * changes, see {@link SourceWatcher}. Blocks until the process is stopped.
+     *
+     * @param environment the environment of the initial run
+     * @param typeElements the documented types of the initial run
+     * @param packageTree the package tree of the initial run, updated in place
+     * @param projectName the name shown in the title bar
+     * @param outputFile the page
+     * @return {@code false} if the sources cannot be watched; never returns otherwise
+     */
+    private boolean watch(DocletEnvironment environment, List<TypeElement> typeElements, PackageTree packageTree,
+                          String projectName, Path outputFile) {
+        // Package of every documented type by qualified name, for each source file
+        Map<Path, Map<String, String>> sourceTypes = new HashMap<>();
+        for (TypeElement typeElement : typeElements) {
+            Path sourceFile = ChangedSourceConverter.getSourceFile(environment, typeElement);
+            if (sourceFile != null) {
+                sourceTypes.computeIfAbsent(sourceFile, file -> new HashMap<>()).put(typeElement.getQualifiedName().toString(),
+                        environment.getElementUtils().getPackageOf(typeElement).getQualifiedName().toString());
+            }
+        }
+        Set<Path> directories = sourceTypes.keySet().stream()
+                .map(Path::getParent)
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        ChangedSourceConverter converter = new ChangedSourceConverter(environment);
+        try (SourceWatcher watcher = new SourceWatcher(directories, SourceWatcher.DEFAULT_QUIET_MILLIS)) {
+            reporter.print(Diagnostic.Kind.NOTE, "Watching " + directories.size()
+                    + " source directories for changes (press Ctrl+C to stop)");
+            while (true) {
+                Set<Path> changes = watcher.awaitChanges();
+                if (watcher.isOverflow()) {
+                    // Changes were lost, document every watched source again
+                    reporter.print(Diagnostic.Kind.WARNING,
+                            "Too many source changes at once, documenting all watched sources again");
+                    changes.addAll(sourceTypes.keySet());
+                    changes.addAll(watcher.listSourceFiles());
+                }
+                regenerate(changes, converter, sourceTypes, packageTree, projectName, outputFile);
+            }
+        } catch (IOException e) {
+            reporter.print(Diagnostic.Kind.ERROR, "Cannot watch sources: " + e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        }
+    }
+
+    /**
+     * Converts the types of changed source files again, replaces or removes them in the package tree and
+     * rewrites the output. If the changed files do not compile, the output is left unchanged.
+     *
+     * @param changes the created, modified and deleted source files
+     * @param converter the converter for changed files
+     * @param sourceTypes the package of every type by qualified name, for each source file; updated in place
+     * @param packageTree the package tree, updated in place
+     * @param projectName the name shown in the title bar
+     * @param outputFile the page
+     */
+    private void regenerate(Set<Path> changes, ChangedSourceConverter converter,
+                            Map<Path, Map<String, String>> sourceTypes, PackageTree packageTree, String projectName,
+                            Path outputFile) {
+        long start = System.nanoTime();
+        PhaseTimer timer = new PhaseTimer();
+        List<ChangedSourceConverter.ConvertedType> convertedTypes;
+        PhaseTimer.Phase conversionPhase = timer.start("conversion");
+        try {
+            convertedTypes = converter.convert(changes.stream()
+                    .filter(Files::isRegularFile)
+                    .collect(Collectors.toList()));
+        } catch (IOException e) {
+            reporter.print(Diagnostic.Kind.WARNING, "Documentation not updated: " + e.getMessage());
+            return;
+        } finally {
+            conversionPhase.close();
+        }
+
+        // Replace changed types in place, then remove the types their files no longer declare
+        Map<Path, Map<String, String>> changedTypes = new HashMap<>();
+        Set<String> convertedNames = new HashSet<>();
+        Set<String> changedPackages = new HashSet<>();
+        for (ChangedSourceConverter.ConvertedType converted : convertedTypes) {
+            String qualifiedName = converted.getType().getQualifiedName();
+            packageTree.replaceType(converted.getPackageName(), converted.getType());
+            changedTypes.computeIfAbsent(converted.getSourceFile(), file -> new HashMap<>())
+                    .put(qualifiedName, converted.getPackageName());
+            convertedNames.add(qualifiedName);
+            changedPackages.add(converted.getPackageName());
+        }
+        int removed = 0;
+        for (Path file : changes) {
+            for (Map.Entry<String, String> type : sourceTypes.getOrDefault(file, Collections.emptyMap()).entrySet()) {
+                if (!convertedNames.contains(type.getKey()) && packageTree.removeType(type.getKey()) != null) {
+                    changedPackages.add(type.getValue());
+                    removed++;
+                }
+            }
+            Map<String, String> types = changedTypes.get(file);
+            if (types == null) {
+                sourceTypes.remove(file);
+            } else {
+                sourceTypes.put(file, types);
+            }
+        }
+
+        PhaseTimer.Phase indexPhase = timer.start("search index");
+        try {
+            packageTree.buildSearchIndex();
+        } finally {
+            indexPhase.close();
+        }
+        PhaseTimer.Phase linksPhase = timer.start("type links");
+        try {
+            packageTree.resolveTypeLinks();
+        } finally {
+            linksPhase.close();
+        }
+        if (writeOutput(packageTree, projectName, outputFile, timer, changedPackages)) {
+            reporter.print(Diagnostic.Kind.NOTE, String.format(Locale.ROOT,
+                    "Regenerated %d types and removed %d from %d changed files in %.0f ms",
+                    convertedTypes.size(), removed, changes.size(), (System.nanoTime() - start) / 1e6));
+        }
+    }
+
+    /**
+     * Converts all type elements to DTOs, either serially or on a worker pool.
+     *
+     * <p>With the default of one thread a single {@link TypeElementConverter} is used. With
+     * {@code --threads <count>} the elements are fanned out to a {@link ParallelTypeConverter};
+     * its results come back in element order, so the merged model does not depend on the mode.
+     * If a {@link ConversionCache} is given, unchanged types are taken from the cache instead.
+     * The hit statistics of the {@link TypeNameCache} are reported afterwards.</p>
+     *
+     * @param environment the doclet environment
+     * @param typeElements the type elements to convert
+     * @param cache the conversion cache, or {@code null} to convert every type
+     * @param phase the conversion phase, credited with the CPU time and allocations of worker threads
+     * @return the converted types in the order of {@code typeElements}
+     */
+    private List<TypeInfo> convertTypes(DocletEnvironment environment, List<TypeElement> typeElements,
+                                        ConversionCache cache, PhaseTimer.Phase phase) {
+        int threads = Math.min(options.getThreads(), Math.max(1, typeElements.size()));
+        if (threads <= 1) {
+            TypeElementConverter converter = new TypeElementConverter(environment);
+            List<TypeInfo> typeInfos = new ArrayList<>(typeElements.size());
+            for (TypeElement typeElement : typeElements) {
+                typeInfos.add(cache != null ? cache.convert(typeElement, converter) : converter.convert(typeElement));
+            }
+            reportTypeNameStatistics(converter.getTypeNameCache());
+            return typeInfos;
+        }
+
+        try (ParallelTypeConverter converter = new ParallelTypeConverter(environment, threads, cache)) {
+            List<TypeInfo> typeInfos = converter.convertAll(typeElements);
+            phase.addUsage(converter.getWorkerCpuNanos(), converter.getWorkerAllocatedBytes());
+            reportTypeNameStatistics(converter.getTypeNameCache());
+            return typeInfos;
+        }
+    }
+
+    /**
+     * Reports how often type names were reused instead of rendered or kept twice.
+     *
+     * @param typeNames the type name cache used for the conversion
+     */
+    private void reportTypeNameStatistics(TypeNameCache typeNames) {
+        reporter.print(Diagnostic.Kind.NOTE, String.format(Locale.ROOT,
+                "Type names: %d lookups, %.1f%% hits, %d duplicates canonicalized, %d distinct",
+                typeNames.getLookups(), typeNames.getHitRate() * 100,
+                typeNames.getCanonicalHits(), typeNames.getDistinctNames()));
+    }
+
+    /**
+     * Reports the hit and miss counts of the conversion cache and the estimated conversion time saved.
+     *
+     * @param cache the conversion cache used for this run
+     */
+    private void reportCacheStatistics(ConversionCache cache) {
+        reporter.print(Diagnostic.Kind.NOTE, String.format(Locale.ROOT,
+                "Conversion cache: %d hits, %d misses, %.1f ms saved",
+                cache.getHits(), cache.getMisses(), cache.getSavedNanos() / 1e6));
+        if (cache.getStoreFailures() > 0) {
+            reporter.print(Diagnostic.Kind.WARNING,
+                    "Conversion cache: " + cache.getStoreFailures() + " entries could not be written");
+        }
+    }
+
+    /**
+     * Prints the per-phase timing and, with {@code --timing-report}, writes it as JSON.
+     *
+     * @param timer the timer holding the phases of this run
+     * @param reportFile the JSON report file
+     */
+    private void reportTiming(PhaseTimer timer, Path reportFile) {
+        reporter.print(Diagnostic.Kind.NOTE, timer.formatSummary());
+        if (!options.isTimingReport()) {
+            return;
+        }
+        try (Writer out = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8)) {
+            timer.writeJson(out);
+        } catch (IOException e) {
+            reporter.print(Diagnostic.Kind.WARNING, "Cannot write timing report " + reportFile + ": " + e.getMessage());
+        }
+    }
+
     /**
      * Determines an appropriate project name from the available package names.
      *
@@ -227,7 +628,7 @@ public class DoomDoclet extends StandardDoclet {
      * It sets up the locale for message formatting and the reporter for diagnostic output.</p>
      *
      * <p><strong>Note:</strong> This implementation delegates to the superclass for standard
-     * initialization. Custom initialization logic can be added here if needed.</p>
+     * initialization and keeps the reporter for DoomDoc's own diagnostics.</p>
      *
      * @param locale the locale to use for formatting messages and output
      * @param reporter the reporter for emitting diagnostic messages (warnings, errors, notices)
@@ -236,5 +637,19 @@ public class DoomDoclet extends StandardDoclet {
     @Override
     public void init(Locale locale, Reporter reporter) {
         super.init(locale, reporter);
+        this.reporter = reporter;
+    }
+
+    /**
+     * Returns the options of the {@link StandardDoclet} extended by the DoomDoc specific options.
+     *
+     * @return all options understood by this doclet
+     * @see DoomDocOptions
+     */
+    @Override
+    public Set<Option> getSupportedOptions() {
+        Set<Option> supportedOptions = new LinkedHashSet<>(super.getSupportedOptions());
+        supportedOptions.addAll(options.getSupportedOptions());
+        return supportedOptions;
     }
 }
\ No newline at end of file
@@ -0,0 +1,334 @@
+package at.videc;
+
+import at.videc.bomblet.PackageTree;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams the single-file HTML page section by section into an output stream.
+ *
+ * <p>Instead of assembling the whole document in memory, every section is written straight to
+ * the underlying stream as soon as it is produced. Assets are copied from disk in small chunks and
+ * the documentation model is serialized directly into the page, so the peak memory of a run is
+ * bounded by the {@link at.videc.bomblet.dto.DocumentationModel} rather than by copies of the
+ * final document.</p>
+ *
+ * <p><strong>Page Layout:</strong></p>
+ * <ol>
+ *   <li>{@link #writeHead()} - doctype and title</li>
+ *   <li>{@link #writeStylesheets(Path)} / {@link #writeScripts(Path)} - inlined assets</li>
+ *   <li>{@link #writeShell(String)} - title bar, search box, sidebar and content containers</li>
+ *   <li>{@link #writeModel(PackageTree)} - embedded model (plain, string-pooled and/or compressed) and bootstrap code</li>
+ * </ol>
+ *
+ * <p>The shell page of a multi-file site links its assets with {@link #writeStylesheetLink(String)} and
+ * {@link #writeScriptLink(String)} instead of inlining them, and loads its model index with
+ * {@link #writeModelLink(String)}, see {@link MultiFileSiteWriter}.</p>
+ *
+ * <p>The page is encoded as UTF-8. Sections must be written in the order above.</p>
+ *
+ * @author DoomDoc Team
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see DoomDoclet
+ * @see PackageTree#writeCompactJson(Writer)
+ */
+public class HtmlPageWriter implements Closeable {
+
+    /**
+     * Buffer size of the gzip stream used for compressed models.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Character writer on top of the output stream.
+     */
+    private final Writer writer;
+
+    /**
+     * Whether the model is embedded with a string table, see {@link PackageTree#writePooledJson(Writer)}.
+     */
+    private boolean pooledStrings;
+
+    /**
+     * Whether the model is embedded gzip-compressed and base64-encoded.
+     */
+    private boolean compressedModel;
+
+    /**
+     * Number of rendered type views the page keeps for revisits, or 0 for the default of tree.js.
+     */
+    private int typeViewCacheSize;
+
+    /**
+     * Creates a page writer emitting UTF-8 encoded HTML into the given stream.
+     *
+     * @param out the stream receiving the page; closed by {@link #close()}
+     */
+    public HtmlPageWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    public boolean isPooledStrings() {
+        return pooledStrings;
+    }
+
+    public void setPooledStrings(boolean pooledStrings) {
+        this.pooledStrings = pooledStrings;
+    }
+
+    public boolean isCompressedModel() {
+        return compressedModel;
+    }
+
+    public void setCompressedModel(boolean compressedModel) {
+        this.compressedModel = compressedModel;
+    }
+
+    public int getTypeViewCacheSize() {
+        return typeViewCacheSize;
+    }
+
+    public void setTypeViewCacheSize(int typeViewCacheSize) {
+        this.typeViewCacheSize = typeViewCacheSize;
+    }
+
+    /**
+     * Writes the document start up to and including the title.
+     *
+     * @throws IOException if writing fails
+     */
+    public void writeHead() throws IOException {
+        writer.write("<!DOCTYPE html><html><head><title>Documentation</title>");
+    }
+
+    /**
+     * Inlines every stylesheet found below the given directory as a {@code <style>} element.
+     *
+     * @param directory the stylesheet directory
+     * @throws IOException if the directory cannot be listed or writing fails
+     */
+    public void writeStylesheets(Path directory) throws IOException {
+        for (Path path : listFiles(directory)) {
+            writer.write("<style>");
+            copy(path);
+            writer.write("</style>");
+        }
+    }
+
+    /**
+     * Inlines every script found below the given directory as a {@code <script>} element.
+     *
+     * @param directory the script directory
+     * @throws IOException if the directory cannot be listed or writing fails
+     */
+    public void writeScripts(Path directory) throws IOException {
+        for (Path path : listFiles(directory)) {
+            writer.write("<script>");
+            copy(path);
+            writer.write("</script>");
+        }
+    }
+
+    /**
+     * Links an external stylesheet.
+     *
+     * @param href the stylesheet URL, relative to the page
+     * @throws IOException if writing fails
+     */
+    public void writeStylesheetLink(String href) throws IOException {
+        writer.write("<link rel=\"stylesheet\" href=\"" + href + "\">");
+    }
+
+    /**
+     * Links an external script.
+     *
+     * @param src the script URL, relative to the page
+     * @throws IOException if writing fails
+     */
+    public void writeScriptLink(String src) throws IOException {
+        writer.write("<script src=\"" + src + "\"></script>");
+    }
+
+    /**
+     * Closes the head and writes the static page shell: title bar with search, sidebar and content area.
+     *
+     * @param projectName the name shown in the title bar
+     * @throws IOException if writing fails
+     */
+    public void writeShell(String projectName) throws IOException {
+        writer.write("</head><body>");
+
+        // Title bar with search
+        writer.write("<div class=\"title-bar\">");
+        writer.write("<div class=\"title-bar-content\">");
+        writer.write(projectName);
+        writer.write("</div>");
+        writer.write("<div class=\"title-bar-search-container\">");
+        writer.write("<input type=\"text\" id=\"globalSearch\" class=\"title-bar-search\" placeholder=\"Search...\" autocomplete=\"off\">");
+        writer.write("<button class=\"search-clear\" onclick=\"clearSearch()\" style=\"display: none;\">×</button>");
+        writer.write("<div id=\"searchDropdown\" class=\"search-dropdown\"></div>");
+        writer.write("</div>");
+        writer.write("</div>");
+
+        // Container with sidebar and content
+        writer.write("<div class=\"container\">");
+        writer.write("<div class=\"sidebar\">");
+        writer.write("<ul id=\"packageTree\"></ul></div>");
+        writer.write("<div class=\"content\"><div id=\"docContent\"></div></div>");
+        writer.write("</div></body></html>");
+    }
+
+    /**
+     * Embeds the documentation model and the bootstrap code that builds the tree and the search.
+     *
+     * <p>With {@link #setPooledStrings(boolean) pooled strings} the model is written with its string table;
+     * {@code generateTree} and {@code initializeSearch} resolve it before use.</p>
+     *
+     * <p>With a {@link #setCompressedModel(boolean) compressed model} the JSON is streamed through gzip and
+     * base64 into a string literal, and the bootstrap code inflates it with {@code loadCompressedModel}
+     * before building the tree and the search.</p>
+     *
+     * <p>With a {@link #setTypeViewCacheSize(int) type view cache size} the bootstrap code first sets the number
+     * of rendered type views the page keeps, see {@code setTypeViewCacheSize} in tree.js.</p>
+     *
+     * @param packageTree the package tree whose model is embedded
+     * @throws IOException if writing fails
+     */
+    public void writeModel(PackageTree packageTree) throws IOException {
+        writer.write("<script>");
+        if (typeViewCacheSize > 0) {
+            writer.write("setTypeViewCacheSize(" + typeViewCacheSize + ");");
+        }
+        if (compressedModel) {
+            writer.write("loadCompressedModel(\"");
+            writeCompressedModel(packageTree);
+            writer.write("\").then(function(model) {");
+            writer.write("generateTree(model);");
+            writer.write("initializeSearch(model);");
+            writer.write("});");
+        } else {
+            writer.write("var model = ");
+            writeModelJson(packageTree, writer);
+            writer.write(";");
+            writer.write("generateTree(model);");
+            writer.write("initializeSearch(model);");
+        }
+        writer.write("</script>");
+    }
+
+    /**
+     * Loads an external model index defining {@code model} and writes the bootstrap code that builds the tree
+     * and the search from it. Used instead of {@link #writeModel(PackageTree)} by multi-file sites.
+     *
+     * @param src the URL of the model index script, relative to the page
+     * @throws IOException if writing fails
+     * @see PackageTree#writeIndexJson(Writer, java.util.Map)
+     */
+    public void writeModelLink(String src) throws IOException {
+        writeScriptLink(src);
+        writer.write("<script>");
+        if (typeViewCacheSize > 0) {
+            writer.write("setTypeViewCacheSize(" + typeViewCacheSize + ");");
+        }
+        writer.write("generateTree(model);");
+        writer.write("initializeSearch(model);");
+        writer.write("</script>");
+    }
+
+    /**
+     * Flushes and closes the page and the underlying stream.
+     *
+     * @throws IOException if flushing or closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * Serializes the model in the configured JSON encoding.
+     */
+    private void writeModelJson(PackageTree packageTree, Writer out) throws IOException {
+        if (pooledStrings) {
+            packageTree.writePooledJson(out);
+        } else {
+            packageTree.writeCompactJson(out);
+        }
+    }
+
+    /**
+     * Streams the model JSON through gzip and base64 into the page. Base64 output only contains
+     * characters that are safe inside a JavaScript string literal.
+     */
+    private void writeCompressedModel(PackageTree packageTree) throws IOException {
+        OutputStream base64 = Base64.getEncoder().wrap(new PageOutputStream());
+        try (Writer json = new OutputStreamWriter(new GZIPOutputStream(base64, BUFFER_SIZE), StandardCharsets.UTF_8)) {
+            writeModelJson(packageTree, json);
+        }
+    }
+
+    /**
+     * Lists the regular files below a resource directory in path order. The order of
+     * {@link Files#walk(Path, java.nio.file.FileVisitOption...)} depends on the file system, so
+     * concatenating the files in walk order could change the output and its hash between machines.
+     *
+     * @param directory the directory to list
+     * @return the regular files below the directory, sorted
+     * @throws IOException if the directory cannot be walked
+     */
+    static List<Path> listFiles(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Copies a UTF-8 text file into the page without loading it completely.
+     */
+    private void copy(Path path) throws IOException {
+        try (Reader reader = new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8)) {
+            reader.transferTo(writer);
+        }
+    }
+
+    /**
+     * Writes ASCII bytes as characters into the page. Closing it leaves the page open.
+     */
+    private class PageOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            writer.write(b & 0xFF);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = (char) (bytes[offset + i] & 0xFF);
+            }
+            writer.write(chars);
+        }
+
+        @Override
+        public void close() {
+            // The page writer is closed by HtmlPageWriter#close()
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package at.videc;
+
+import at.videc.bomblet.PackageTree;
+import at.videc.bomblet.dto.PackageInfo;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes the documentation as a small shell page with shared, content-hashed assets and one model
+ * shard per package.
+ *
+ * <p>The single-file page embeds every asset and the complete model, so the browser parses all of it
+ * before anything is shown and nothing is reused between generations. A multi-file site splits the
+ * page instead:</p>
+ *
+ * <ul>
+ *   <li><strong>Shell page</strong> ({@code output.html}): the page layout, links to the assets and
+ *   the bootstrap code, see {@link #writeShell(String, String, String, String)}.</li>
+ *   <li><strong>Asset bundles</strong>: all stylesheets in one CSS file and all scripts in one JavaScript
+ *   file, see {@link #writeStylesheetBundle(Path)} and {@link #writeScriptBundle(Path)}.</li>
+ *   <li><strong>Package shards</strong>: one script per package holding the complete package, see
+ *   {@link #writePackageShards(PackageTree)}. The browser loads a shard when the package or one of its
+ *   types is opened.</li>
+ *   <li><strong>Model index</strong>: the package and type names for the sidebar, the search index, the
+ *   type links and the shard file of every package, see {@link #writeIndex(PackageTree, Map)}. It is
+ *   loaded with the page, so the global search works from the start.</li>
+ * </ul>
+ *
+ * <p>Every file except the shell page is written to the {@code <page>-files} directory next to the page
+ * and named after a hash of its content, e.g. {@code doomdoc.3f2a9c01b7de.js}. A file only changes its
+ * name when its content changes, so browsers and proxies can cache the files indefinitely, and shards of
+ * unchanged packages stay cached across generations. Shards and the index are scripts rather than JSON
+ * files, so the site also works when opened from {@code file://} URLs where {@code fetch} is not
+ * available. {@link #removeStaleFiles()} deletes the files of earlier generations.</p>
+ *
+ * <p>The model is written as plain compact JSON; string pooling and compression do not apply.</p>
+ *
+ * @author DoomDoc Team
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see DoomDoclet
+ * @see HtmlPageWriter
+ */
+public class MultiFileSiteWriter {
+
+    /**
+     * Number of hex digits of the content hash in file names.
+     */
+    static final int HASH_LENGTH = 12;
+
+    /**
+     * Name of the subdirectory of the asset directory holding the package shards.
+     */
+    static final String SHARD_DIRECTORY = "packages";
+
+    /**
+     * Shard file name prefix of the unnamed package.
+     */
+    private static final String UNNAMED_PACKAGE = "default";
+
+    /**
+     * The shell page.
+     */
+    private final Path pageFile;
+
+    /**
+     * Directory of the hashed files, next to the page.
+     */
+    private final Path assetDirectory;
+
+    /**
+     * Files written or kept by this instance, not deleted by {@link #removeStaleFiles()}.
+     */
+    private final Set<Path> writtenFiles = new HashSet<>();
+
+    /**
+     * Number of rendered type views the page keeps for revisits, or 0 for the default of tree.js.
+     */
+    private int typeViewCacheSize;
+
+    /**
+     * Creates a writer for a site whose shell page is the given file.
+     *
+     * @param pageFile the shell page, e.g. {@code output.html}; its assets go to {@code output-files}
+     */
+    public MultiFileSiteWriter(Path pageFile) {
+        this.pageFile = pageFile;
+        String fileName = pageFile.getFileName().toString();
+        int extension = fileName.lastIndexOf('.');
+        String baseName = extension > 0 ? fileName.substring(0, extension) : fileName;
+        this.assetDirectory = pageFile.resolveSibling(baseName + "-files");
+    }
+
+    public Path getAssetDirectory() {
+        return assetDirectory;
+    }
+
+    public int getTypeViewCacheSize() {
+        return typeViewCacheSize;
+    }
+
+    public void setTypeViewCacheSize(int typeViewCacheSize) {
+        this.typeViewCacheSize = typeViewCacheSize;
+    }
+
+    /**
+     * Concatenates every stylesheet found below the given directory into one hashed CSS file.
+     *
+     * @param directory the stylesheet directory
+     * @return the URL of the bundle, relative to the page
+     * @throws IOException if the directory cannot be listed or writing fails
+     */
+    public String writeStylesheetBundle(Path directory) throws IOException {
+        return writeBundle(directory, "doomdoc", ".css");
+    }
+
+    /**
+     * Concatenates every script found below the given directory into one hashed JavaScript file.
+     *
+     * @param directory the script directory
+     * @return the URL of the bundle, relative to the page
+     * @throws IOException if the directory cannot be listed or writing fails
+     */
+    public String writeScriptBundle(Path directory) throws IOException {
+        return writeBundle(directory, "doomdoc", ".js");
+    }
+
+    /**
+     * Writes one shard per package: a script passing the complete package to {@code packageShardLoaded}
+     * (model.js).
+     *
+     * @param packageTree the package tree whose packages are written
+     * @return the URL of each shard by package name, relative to the page, in model order
+     * @throws IOException if writing fails
+     */
+    public Map<String, String> writePackageShards(PackageTree packageTree) throws IOException {
+        return writePackageShards(packageTree, Collections.emptyMap());
+    }
+
+    /**
+     * Writes one shard per package like {@link #writePackageShards(PackageTree)}, but keeps the given shards
+     * of unchanged packages instead of serializing them again. A kept shard is written anyway if its file
+     * no longer exists.
+     *
+     * @param packageTree the package tree whose packages are written
+     * @param unchangedShards the shard URL of every unchanged package, as returned by an earlier call
+     * @return the URL of each shard by package name, relative to the page, in model order
+     * @throws IOException if writing fails
+     */
+    public Map<String, String> writePackageShards(PackageTree packageTree, Map<String, String> unchangedShards)
+            throws IOException {
+        Path shardDirectory = assetDirectory.resolve(SHARD_DIRECTORY);
+        Map<String, String> shards = new LinkedHashMap<>();
+        for (PackageInfo packageInfo : packageTree.getModel().getPackages()) {
+            String name = packageInfo.getName();
+            String unchanged = unchangedShards.get(name);
+            if (unchanged != null) {
+                Path shard = pageFile.resolveSibling(unchanged);
+                if (Files.isRegularFile(shard)) {
+                    writtenFiles.add(shard);
+                    shards.put(name, unchanged);
+                    continue;
+                }
+            }
+            String prefix = name == null || name.isEmpty() ? UNNAMED_PACKAGE : name;
+            Path shard = writeHashed(shardDirectory, prefix, ".js", out -> {
+                out.write("packageShardLoaded(");
+                out.write(quote(name == null ? "" : name));
+                out.write(",");
+                packageTree.writePackageJson(packageInfo, out);
+                out.write(");");
+            });
+            shards.put(name, relativize(shard));
+        }
+        return shards;
+    }
+
+    /**
+     * Writes the model index: a script defining {@code model} without the package contents.
+     *
+     * @param packageTree the package tree whose index is written
+     * @param shards the shard URL of each package, see {@link #writePackageShards(PackageTree)}
+     * @return the URL of the index, relative to the page
+     * @throws IOException if writing fails
+     * @see PackageTree#writeIndexJson(Writer, Map)
+     */
+    public String writeIndex(PackageTree packageTree, Map<String, String> shards) throws IOException {
+        Path index = writeHashed(assetDirectory, "index", ".js", out -> {
+            out.write("var model = ");
+            packageTree.writeIndexJson(out, shards);
+            out.write(";");
+        });
+        return relativize(index);
+    }
+
+    /**
+     * Writes the shell page linking the bundles and the model index.
+     *
+     * @param projectName the name shown in the title bar
+     * @param stylesheet the URL of the stylesheet bundle
+     * @param script the URL of the script bundle
+     * @param index the URL of the model index
+     * @throws IOException if writing fails
+     */
+    public void writeShell(String projectName, String stylesheet, String script, String index) throws IOException {
+        try (HtmlPageWriter page = new HtmlPageWriter(Files.newOutputStream(pageFile))) {
+            page.setTypeViewCacheSize(typeViewCacheSize);
+            page.writeHead();
+            page.writeStylesheetLink(stylesheet);
+            page.writeScriptLink(script);
+            page.writeShell(projectName);
+            page.writeModelLink(index);
+        }
+    }
+
+    /**
+     * Deletes every file in the asset directory that was not written or kept by this instance, i.e. the
+     * bundles, shards and indexes of earlier generations.
+     *
+     * @return the number of deleted files
+     * @throws IOException if the directory cannot be listed or a file cannot be deleted
+     */
+    public int removeStaleFiles() throws IOException {
+        if (!Files.isDirectory(assetDirectory)) {
+            return 0;
+        }
+        List<Path> staleFiles;
+        try (Stream<Path> paths = Files.walk(assetDirectory)) {
+            staleFiles = paths.filter(Files::isRegularFile)
+                    .filter(path -> !writtenFiles.contains(path))
+                    .collect(Collectors.toList());
+        }
+        for (Path path : staleFiles) {
+            Files.delete(path);
+        }
+        return staleFiles.size();
+    }
+
+    /**
+     * Concatenates the regular files below a directory, in path order, into one hashed file.
+     */
+    private String writeBundle(Path directory, String prefix, String suffix) throws IOException {
+        List<Path> files = HtmlPageWriter.listFiles(directory);
+        Path bundle = writeHashed(assetDirectory, prefix, suffix, out -> {
+            for (Path path : files) {
+                try (Reader reader = new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8)) {
+                    reader.transferTo(out);
+                }
+                out.write("\n");
+            }
+        });
+        return relativize(bundle);
+    }
+
+    /**
+     * Streams content into a temporary file while hashing it, then moves the file to
+     * {@code <prefix>.<hash><suffix>}.
+     */
+    private Path writeHashed(Path directory, String prefix, String suffix, Content content) throws IOException {
+        Files.createDirectories(directory);
+        MessageDigest digest = newDigest();
+        Path temporary = Files.createTempFile(directory, prefix, ".tmp");
+        try {
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                    new DigestOutputStream(Files.newOutputStream(temporary), digest), StandardCharsets.UTF_8))) {
+                content.write(out);
+            }
+            Path target = directory.resolve(prefix + "." + toHex(digest.digest(), HASH_LENGTH) + suffix);
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            writtenFiles.add(target);
+            return target;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Gets the URL of a written file relative to the page, with forward slashes.
+     */
+    private String relativize(Path file) {
+        Path base = pageFile.toAbsolutePath().getParent();
+        List<String> segments = new ArrayList<>();
+        for (Path segment : base.relativize(file.toAbsolutePath())) {
+            segments.add(segment.toString());
+        }
+        return String.join("/", segments);
+    }
+
+    /**
+     * Quotes a package name as a JavaScript string literal. Package names are Java identifiers joined
+     * by dots and never contain quotes or backslashes.
+     */
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Formats the first digits of a hash as lower case hex.
+     */
+    private static String toHex(byte[] hash, int digits) {
+        StringBuilder hex = new StringBuilder(digits);
+        for (int i = 0; i < digits; i++) {
+            int b = hash[i / 2];
+            hex.append(Character.forDigit(i % 2 == 0 ? (b >> 4) & 0xF : b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Writes the content of a hashed file.
+     */
+    @FunctionalInterface
+    private interface Content {
+        void write(Writer out) throws IOException;
+    }
+}
@@ -0,0 +1,156 @@
+package at.videc;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches source directories for created, modified and deleted Java files and reports them in batches.
+ *
+ * <p>Editors and build tools rarely touch a single file once: saving writes a temporary file and renames
+ * it, a branch switch or a refactoring changes many files within milliseconds. {@link #awaitChanges()}
+ * therefore waits for the first change and then keeps collecting until no further change arrives within
+ * the quiet period, so a burst of changes is documented once.</p>
+ *
+ * <p>If changes arrive faster than the operating system can queue them, events are lost. The batch
+ * then reports an {@link #isOverflow() overflow}, and the caller has to treat every file of
+ * {@link #listSourceFiles()} as changed.</p>
+ *
+ * <p>Only the given directories are watched, not their subdirectories; sources in new directories are
+ * not noticed until the doclet is started again.</p>
+ *
+ * @author DoomDoc Team
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see DoomDoclet
+ */
+public class SourceWatcher implements Closeable {
+
+    /**
+     * Default time without changes that ends a batch, in milliseconds.
+     */
+    public static final long DEFAULT_QUIET_MILLIS = 200;
+
+    private final WatchService watchService;
+
+    /**
+     * The watched directory of every registered key.
+     */
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+
+    /**
+     * Time without changes that ends a batch, in milliseconds.
+     */
+    private final long quietMillis;
+
+    /**
+     * Whether events of the last batch were lost.
+     */
+    private boolean overflow;
+
+    /**
+     * Creates a watcher for the given directories.
+     *
+     * @param sourceDirectories the directories containing the documented sources
+     * @param quietMillis the time without changes that ends a batch, in milliseconds
+     * @throws IOException if a directory cannot be watched
+     */
+    public SourceWatcher(Collection<Path> sourceDirectories, long quietMillis) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.quietMillis = quietMillis;
+        try {
+            for (Path directory : sourceDirectories) {
+                WatchKey key = directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                directories.put(key, directory.toAbsolutePath().normalize());
+            }
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Blocks until Java files changed or events were lost, and no further change arrived within the quiet
+     * period.
+     *
+     * @return the absolute paths of the created, modified and deleted Java files, sorted; incomplete if
+     *         {@link #isOverflow()} is {@code true} afterwards
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public Set<Path> awaitChanges() throws InterruptedException {
+        Set<Path> changes = new TreeSet<>();
+        overflow = false;
+        while (changes.isEmpty() && !overflow) {
+            collect(watchService.take(), changes);
+            WatchKey key;
+            while ((key = watchService.poll(quietMillis, TimeUnit.MILLISECONDS)) != null) {
+                collect(key, changes);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Checks whether events of the batch returned by the last {@link #awaitChanges()} were lost.
+     *
+     * @return {@code true} if changed files may be missing from the last batch
+     */
+    public boolean isOverflow() {
+        return overflow;
+    }
+
+    /**
+     * Lists the Java files currently present in the watched directories.
+     *
+     * @return the absolute paths of the Java files, sorted
+     * @throws IOException if a directory cannot be listed
+     */
+    public Set<Path> listSourceFiles() throws IOException {
+        Set<Path> files = new TreeSet<>();
+        for (Path directory : directories.values()) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.java")) {
+                for (Path file : stream) {
+                    files.add(file);
+                }
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Adds the Java files of the pending events of a key and re-arms the key.
+     */
+    private void collect(WatchKey key, Set<Path> changes) {
+        Path directory = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+            } else if (directory != null && event.context() instanceof Path) {
+                Path file = directory.resolve((Path) event.context());
+                if (file.getFileName().toString().endsWith(".java")) {
+                    changes.add(file);
+                }
+            }
+        }
+        key.reset();
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
@@ -0,0 +1,404 @@
+package at.videc.bomblet;
+
+import at.videc.bomblet.dto.*;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.ToNumberPolicy;
+import com.sun.source.tree.BlockTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.ImportTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.DocTrees;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreePathScanner;
+import jdk.javadoc.doclet.DocletEnvironment;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persistent, on-disk cache of converted {@link TypeInfo} DTOs.
+ *
+ * <p>Each type is stored in its own JSON file below the cache directory, together with a key made of
+ * the {@link TypeElementConverter#VERSION converter version}, a SHA-256 hash of the source of the
+ * type's compilation unit and a hash of the values of the constants of other classes the unit uses in
+ * constant initializers and annotations, e.g. {@code static final int MAX = Limits.DEFAULT;}. On the
+ * next run the cached DTO is reused as long as the key still matches; otherwise the type is converted
+ * again and the entry is replaced. An unchanged source tree is therefore documented without running
+ * {@link TypeElementConverter#convert(TypeElement)} at all.</p>
+ *
+ * <p><strong>Typical Usage:</strong></p>
+ * <pre>{@code
+ * ConversionCache cache = new ConversionCache(Paths.get("build/doomdoc-cache"), environment);
+ * TypeInfo typeInfo = cache.convert(typeElement, converter);
+ * }</pre>
+ *
+ * <p><strong>Limitations:</strong></p>
+ * <p>Apart from constant values, the key only covers the type's own compilation unit. Output that
+ * depends on other files in other ways, such as a supertype renamed in its own file, is refreshed once
+ * the type's own file changes or the cache directory is cleared.</p>
+ *
+ * <p><strong>Thread Safety:</strong></p>
+ * <p>This class is thread-safe and may be shared by the workers of a {@link ParallelTypeConverter}.
+ * Entries are written to a temporary file and moved into place, so readers never see partial entries.</p>
+ *
+ * @author DoomDoc Team
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see TypeElementConverter
+ * @see at.videc.DoomDoclet
+ */
+public class ConversionCache {
+
+    /**
+     * Directory holding one JSON file per cached type.
+     */
+    private final Path directory;
+
+    /**
+     * The doclet environment used to locate the compilation unit of a type.
+     */
+    private final DocletEnvironment environment;
+
+    /**
+     * Content hashes of compilation units, computed once per run and shared by all types of a unit.
+     */
+    private final ConcurrentMap<JavaFileObject, String> sourceHashes = new ConcurrentHashMap<>();
+
+    /**
+     * Hashes of the constants of other compilation units a unit uses, computed once per run.
+     */
+    private final ConcurrentMap<JavaFileObject, String> constantHashes = new ConcurrentHashMap<>();
+
+    /**
+     * Gson used for writing entries.
+     */
+    private final Gson writeGson;
+
+    /**
+     * Gson used for reading entries, restoring the concrete {@link TypeInfo} subclass from its kind.
+     * Untyped numbers (annotation values) are restored as {@code Long} or {@code Double}, which Gson writes
+     * back with the same literal as the converted {@code Integer}, {@code Float} etc.
+     */
+    private final Gson readGson;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong savedNanos = new AtomicLong();
+    private final AtomicLong storeFailures = new AtomicLong();
+
+    /**
+     * Creates a cache backed by the given directory, creating it if needed.
+     *
+     * @param directory the cache directory
+     * @param environment the doclet environment of the current run
+     * @throws IOException if the directory cannot be created
+     */
+    public ConversionCache(Path directory, DocletEnvironment environment) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.environment = environment;
+        this.writeGson = new GsonBuilder()
+                .disableHtmlEscaping()
+                .create();
+        this.readGson = new GsonBuilder()
+                .registerTypeAdapter(TypeInfo.class, (JsonDeserializer<TypeInfo>) (json, type, context) ->
+                        context.deserialize(json, typeInfoClass(json)))
+                .setObjectToNumberStrategy(ToNumberPolicy.LONG_OR_DOUBLE)
+                .create();
+    }
+
+    /**
+     * Returns the cached DTO for the given type if its key still matches, or converts the type with
+     * the given converter and stores the result.
+     *
+     * @param typeElement the type element to convert
+     * @param converter the converter used on a cache miss
+     * @return the converted type
+     */
+    public TypeInfo convert(TypeElement typeElement, TypeElementConverter converter) {
+        String key = computeKey(typeElement, converter.getModelLock());
+        Path entryFile = directory.resolve(typeElement.getQualifiedName() + ".json");
+
+        if (key != null) {
+            long start = System.nanoTime();
+            CacheEntry entry = load(entryFile);
+            if (entry != null && key.equals(entry.key) && entry.type != null) {
+                hits.incrementAndGet();
+                savedNanos.addAndGet(entry.conversionNanos - (System.nanoTime() - start));
+                return entry.type;
+            }
+        }
+
+        misses.incrementAndGet();
+        long start = System.nanoTime();
+        TypeInfo typeInfo = converter.convert(typeElement);
+        long conversionNanos = System.nanoTime() - start;
+
+        if (key != null) {
+            store(entryFile, key, conversionNanos, typeInfo);
+        }
+        return typeInfo;
+    }
+
+    /**
+     * Gets the number of types served from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of types that had to be converted.
+     *
+     * @return the miss count
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the estimated conversion time saved by cache hits: the recorded conversion time of each hit
+     * minus the time spent loading it.
+     *
+     * @return the saved time in nanoseconds
+     */
+    public long getSavedNanos() {
+        return savedNanos.get();
+    }
+
+    /**
+     * Gets the number of entries that could not be written.
+     *
+     * @return the store failure count
+     */
+    public long getStoreFailures() {
+        return storeFailures.get();
+    }
+
+    /**
+     * Computes the cache key of a type from the converter version, its compilation unit content and the
+     * constants of other units the compilation unit uses.
+     *
+     * @param modelLock the lock of the converter, guarding the javac trees and elements inspected here
+     * @return the key, or {@code null} if the source of the type is not available
+     */
+    private String computeKey(TypeElement typeElement, Object modelLock) {
+        CompilationUnitTree unit;
+        String constantHash;
+        synchronized (modelLock) {
+            TreePath path = environment.getDocTrees().getPath(typeElement);
+            if (path == null) {
+                return null;
+            }
+            unit = path.getCompilationUnit();
+            constantHash = constantHashes.computeIfAbsent(unit.getSourceFile(), sourceFile -> hashExternalConstants(unit));
+        }
+        String sourceHash = sourceHashes.computeIfAbsent(unit.getSourceFile(), ConversionCache::hashContent);
+        return sourceHash == null ? null : TypeElementConverter.VERSION + ":" + sourceHash + ":" + constantHash;
+    }
+
+    /**
+     * Hashes the names and values of the constants declared in other compilation units that the given unit
+     * uses where javac evaluates them: in constant initializers and annotations. Method bodies and other
+     * initializers do not affect the converted types and are skipped.
+     *
+     * @return the hex encoded SHA-256 hash of the sorted constants
+     */
+    private String hashExternalConstants(CompilationUnitTree unit) {
+        DocTrees trees = environment.getDocTrees();
+        Set<String> constants = new TreeSet<>();
+        new TreePathScanner<Void, Void>() {
+            @Override
+            public Void visitImport(ImportTree tree, Void unused) {
+                return null;
+            }
+
+            @Override
+            public Void visitBlock(BlockTree tree, Void unused) {
+                return null;
+            }
+
+            @Override
+            public Void visitVariable(VariableTree tree, Void unused) {
+                scan(tree.getModifiers(), null);
+                Element element = trees.getElement(getCurrentPath());
+                // Evaluating the constant attributes its initializer, so its names resolve below
+                if (element instanceof VariableElement && ((VariableElement) element).getConstantValue() != null) {
+                    scan(tree.getInitializer(), null);
+                }
+                return null;
+            }
+
+            @Override
+            public Void visitIdentifier(IdentifierTree tree, Void unused) {
+                addExternalConstant(trees.getElement(getCurrentPath()));
+                return null;
+            }
+
+            @Override
+            public Void visitMemberSelect(MemberSelectTree tree, Void unused) {
+                addExternalConstant(trees.getElement(getCurrentPath()));
+                return super.visitMemberSelect(tree, unused);
+            }
+
+            private void addExternalConstant(Element element) {
+                if (element == null || element.getKind() != ElementKind.FIELD) {
+                    return;
+                }
+                Object value = ((VariableElement) element).getConstantValue();
+                if (value == null) {
+                    return;
+                }
+                TreePath declaration = trees.getPath(element);
+                if (declaration == null || declaration.getCompilationUnit() != unit) {
+                    constants.add(((TypeElement) element.getEnclosingElement()).getQualifiedName() + "."
+                            + element.getSimpleName() + "=" + value);
+                }
+            }
+        }.scan(unit, null);
+        return hash(String.join("\n", constants));
+    }
+
+    /**
+     * Hashes the content of a source file.
+     *
+     * @return the hex encoded SHA-256 hash, or {@code null} if the file cannot be read
+     */
+    private static String hashContent(JavaFileObject sourceFile) {
+        try {
+            return hash(sourceFile.getCharContent(true).toString());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Hashes a string.
+     *
+     * @return the hex encoded SHA-256 hash of its UTF-8 encoding
+     */
+    private static String hash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(content.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Reads a cache entry.
+     *
+     * @return the entry, or {@code null} if it does not exist or cannot be read
+     */
+    private CacheEntry load(Path entryFile) {
+        if (!Files.isRegularFile(entryFile)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(entryFile, StandardCharsets.UTF_8)) {
+            return readGson.fromJson(reader, CacheEntry.class);
+        } catch (IOException | JsonParseException e) {
+            // Unreadable or corrupt entries are treated as misses and overwritten
+            return null;
+        }
+    }
+
+    /**
+     * Writes a cache entry atomically.
+     */
+    private void store(Path entryFile, String key, long conversionNanos, TypeInfo typeInfo) {
+        CacheEntry entry = new CacheEntry();
+        entry.key = key;
+        entry.conversionNanos = conversionNanos;
+        entry.type = typeInfo;
+
+        Path tempFile = null;
+        try {
+            tempFile = Files.createTempFile(directory, "entry", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                writeGson.toJson(entry, writer);
+            }
+            Files.move(tempFile, entryFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            storeFailures.incrementAndGet();
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException ignored) {
+                    // Best effort cleanup
+                }
+            }
+        }
+    }
+
+    /**
+     * Maps the {@code kind} of a serialized type to its DTO class.
+     */
+    private static Class<? extends TypeInfo> typeInfoClass(JsonElement json) {
+        JsonElement kind = json.isJsonObject() ? ((JsonObject) json).get("kind") : null;
+        String value = kind == null ? "" : kind.getAsString();
+        switch (value) {
+            case "class":
+                return ClassInfo.class;
+            case "interface":
+                return InterfaceInfo.class;
+            case "enum":
+                return EnumInfo.class;
+            case "annotation":
+                return AnnotationInfo.class;
+            default:
+                throw new JsonParseException("Unsupported type kind: " + value);
+        }
+    }
+
+    /**
+     * On-disk representation of a cached type.
+     */
+    private static class CacheEntry {
+
+        /**
+         * Converter version, compilation unit hash and external constant hash the type was converted from.
+         */
+        private String key;
+
+        /**
+         * Time the original conversion took, used to estimate the time saved by hits.
+         */
+        private long conversionNanos;
+
+        /**
+         * The converted type.
+         */
+        private TypeInfo type;
+    }
+}
@@ -0,0 +1,202 @@
+package at.videc.bomblet;
+
+import com.sun.source.doctree.AttributeTree;
+import com.sun.source.doctree.CommentTree;
+import com.sun.source.doctree.DocTree;
+import com.sun.source.doctree.EndElementTree;
+import com.sun.source.doctree.EntityTree;
+import com.sun.source.doctree.ErroneousTree;
+import com.sun.source.doctree.LinkTree;
+import com.sun.source.doctree.LiteralTree;
+import com.sun.source.doctree.ReferenceTree;
+import com.sun.source.doctree.StartElementTree;
+import com.sun.source.doctree.TextTree;
+import com.sun.source.util.SimpleDocTreeVisitor;
+
+import java.util.List;
+
+/**
+ * Renders the inline content of doc comments to the text stored in {@link at.videc.bomblet.dto.JavaDocComment}.
+ *
+ * <p>HTML is preserved as written, {@code {@link}} and {@code {@linkplain}} are replaced by their
+ * label or, without a label, by their reference, and {@code {@code}} and {@code {@literal}} by their
+ * body. Text, entities, HTML elements, comments and references are written directly; only other,
+ * rare inline tags such as {@code {@value}} fall back to {@link DocTree#toString()}. Unlike
+ * {@code toString()}, text is written unchanged, without escaping non-ASCII characters as
+ * Unicode escapes.</p>
+ *
+ * <p>All content is rendered into one buffer that is reused for every call, so rendering a comment
+ * allocates little more than the resulting string.</p>
+ *
+ * <p><strong>Thread Safety:</strong></p>
+ * <p>This class is <strong>not thread-safe</strong>. Each {@link TypeElementConverter} owns its own
+ * instance.</p>
+ *
+ * @author DoomDoc Team
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see TypeElementConverter
+ */
+public class DocTreeRenderer extends SimpleDocTreeVisitor<Void, Void> {
+
+    /**
+     * Buffer shared by all calls of {@link #render(List)}.
+     */
+    private final StringBuilder buffer = new StringBuilder(256);
+
+    /**
+     * Renders a list of doc trees, trimming leading and trailing whitespace like {@link String#trim()}.
+     *
+     * @param trees the trees to render
+     * @return the rendered text, empty if there is no content
+     */
+    public String render(List<? extends DocTree> trees) {
+        buffer.setLength(0);
+        append(trees);
+        trim(0);
+        return buffer.toString();
+    }
+
+    /**
+     * Renders each tree into the buffer.
+     */
+    private void append(List<? extends DocTree> trees) {
+        for (DocTree tree : trees) {
+            if (tree != null) {
+                tree.accept(this, null);
+            }
+        }
+    }
+
+    /**
+     * Trims whitespace from the part of the buffer starting at the given index, in place.
+     */
+    private void trim(int start) {
+        int end = buffer.length();
+        while (end > start && buffer.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        buffer.setLength(end);
+
+        int first = start;
+        while (first < end && buffer.charAt(first) <= ' ') {
+            first++;
+        }
+        if (first > start) {
+            buffer.delete(start, first);
+        }
+    }
+
+    @Override
+    public Void visitText(TextTree node, Void p) {
+        buffer.append(node.getBody());
+        return null;
+    }
+
+    @Override
+    public Void visitLink(LinkTree node, Void p) {
+        List<? extends DocTree> label = node.getLabel();
+        if (label != null && !label.isEmpty()) {
+            int start = buffer.length();
+            append(label);
+            trim(start);
+        } else {
+            buffer.append(node.getReference().getSignature());
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitLiteral(LiteralTree node, Void p) {
+        buffer.append(node.getBody().getBody());
+        return null;
+    }
+
+    @Override
+    public Void visitReference(ReferenceTree node, Void p) {
+        buffer.append(node.getSignature());
+        return null;
+    }
+
+    @Override
+    public Void visitEntity(EntityTree node, Void p) {
+        buffer.append('&').append(node.getName()).append(';');
+        return null;
+    }
+
+    @Override
+    public Void visitStartElement(StartElementTree node, Void p) {
+        buffer.append('<').append(node.getName());
+        List<? extends DocTree> attributes = node.getAttributes();
+        for (DocTree attribute : attributes) {
+            buffer.append(' ');
+            attribute.accept(this, null);
+        }
+        if (node.isSelfClosing()) {
+            // Keep an unquoted value apart from the closing slash, e.g. <img src=a.png />
+            DocTree last = attributes.isEmpty() ? null : attributes.get(attributes.size() - 1);
+            if (last instanceof AttributeTree
+                    && ((AttributeTree) last).getValueKind() == AttributeTree.ValueKind.UNQUOTED) {
+                buffer.append(' ');
+            }
+            buffer.append('/');
+        }
+        buffer.append('>');
+        return null;
+    }
+
+    @Override
+    public Void visitAttribute(AttributeTree node, Void p) {
+        buffer.append(node.getName());
+        char quote;
+        switch (node.getValueKind()) {
+            case EMPTY:
+                return null;
+            case SINGLE:
+                quote = '\'';
+                break;
+            case DOUBLE:
+                quote = '"';
+                break;
+            default:
+                quote = 0;
+                break;
+        }
+        buffer.append('=');
+        if (quote != 0) {
+            buffer.append(quote);
+        }
+        append(node.getValue());
+        if (quote != 0) {
+            buffer.append(quote);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitEndElement(EndElementTree node, Void p) {
+        buffer.append("</").append(node.getName()).append('>');
+        return null;
+    }
+
+    @Override
+    public Void visitComment(CommentTree node, Void p) {
+        buffer.append(node.getBody());
+        return null;
+    }
+
+    @Override
+    public Void visitErroneous(ErroneousTree node, Void p) {
+        buffer.append(node.getBody());
+        return null;
+    }
+
+    /**
+     * Falls back to the javac pretty printer for all other inline tags.
+     */
+    @Override
+    protected Void defaultAction(DocTree node, Void p) {
+        buffer.append(node.toString());
+        return null;
+    }
+}
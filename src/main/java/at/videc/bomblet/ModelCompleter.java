@@ -0,0 +1,200 @@
+package at.videc.bomblet;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.IntersectionType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.type.UnionType;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.SimpleTypeVisitor9;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Completes the javac model state a {@link TypeElementConverter} reads, so that converters running in
+ * parallel only read state that is already initialized.
+ *
+ * <p>Javac initializes its symbols lazily. The first call of e.g. {@code getModifiers()},
+ * {@code getEnclosedElements()}, {@code getSuperclass()} or {@code getInterfaces()} on a type completes
+ * it, which may read a class file and fills fields and scopes of shared compiler state without any
+ * synchronization. {@link ExecutableElement#getParameters()} creates the parameters of class file methods
+ * on first use, and {@link TypeMirror#toString()} completes every type it mentions. Two workers doing
+ * this at the same time may see half-initialized symbols.</p>
+ *
+ * <p>{@link #complete(TypeElement)} therefore performs these calls on one thread before the work is
+ * fanned out:</p>
+ * <ul>
+ *   <li>the modifiers, annotations, type parameters, superclass, interfaces and enclosed elements of
+ *       the type;</li>
+ *   <li>the modifiers, annotations, types, parameters, thrown types, type parameters, annotation
+ *       default values and constant values of its members;</li>
+ *   <li>every type mentioned by these, through type arguments, bounds, array components, wildcards
+ *       and enclosing types, and every type and enum constant named by annotation values.</li>
+ * </ul>
+ *
+ * <p>Afterwards the calls above only read completed state and may be made concurrently. Parsing doc
+ * comments ({@code DocTrees.getDocCommentTree}) and looking up or scanning trees are not covered; they
+ * stay under the model lock of the converters.</p>
+ *
+ * <p>Instances are not thread-safe.</p>
+ *
+ * @author DoomDoc Team
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see ParallelTypeConverter
+ */
+class ModelCompleter {
+
+    /**
+     * Elements completed so far, so shared types and recursive bounds are visited once.
+     */
+    private final Set<Element> completed = new HashSet<>();
+
+    /**
+     * Completes the types mentioned by a type mirror.
+     */
+    private final SimpleTypeVisitor9<Void, Void> typeCompleter = new SimpleTypeVisitor9<Void, Void>() {
+
+        @Override
+        public Void visitDeclared(DeclaredType type, Void unused) {
+            if (completed.add(type.asElement())) {
+                // Reading the flags completes the symbol
+                type.asElement().getModifiers();
+            }
+            complete(type.getEnclosingType());
+            type.getTypeArguments().forEach(ModelCompleter.this::complete);
+            return null;
+        }
+
+        @Override
+        public Void visitArray(ArrayType type, Void unused) {
+            complete(type.getComponentType());
+            return null;
+        }
+
+        @Override
+        public Void visitWildcard(WildcardType type, Void unused) {
+            complete(type.getExtendsBound());
+            complete(type.getSuperBound());
+            return null;
+        }
+
+        @Override
+        public Void visitTypeVariable(TypeVariable type, Void unused) {
+            if (completed.add(type.asElement())) {
+                complete(type.getUpperBound());
+                complete(type.getLowerBound());
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitIntersection(IntersectionType type, Void unused) {
+            type.getBounds().forEach(ModelCompleter.this::complete);
+            return null;
+        }
+
+        @Override
+        public Void visitUnion(UnionType type, Void unused) {
+            type.getAlternatives().forEach(ModelCompleter.this::complete);
+            return null;
+        }
+    };
+
+    /**
+     * Completes a type element and everything its conversion reads.
+     *
+     * @param typeElement the type element about to be converted
+     */
+    void complete(TypeElement typeElement) {
+        completed.add(typeElement);
+        completeDeclaration(typeElement);
+        complete(typeElement.getSuperclass());
+        typeElement.getInterfaces().forEach(this::complete);
+        completeTypeParameters(typeElement.getTypeParameters());
+
+        for (Element member : typeElement.getEnclosedElements()) {
+            if (member instanceof ExecutableElement) {
+                ExecutableElement executable = (ExecutableElement) member;
+                completeDeclaration(executable);
+                complete(executable.getReturnType());
+                for (VariableElement parameter : executable.getParameters()) {
+                    completeDeclaration(parameter);
+                    complete(parameter.asType());
+                }
+                executable.getThrownTypes().forEach(this::complete);
+                completeTypeParameters(executable.getTypeParameters());
+                AnnotationValue defaultValue = executable.getDefaultValue();
+                if (defaultValue != null) {
+                    completeValue(defaultValue.getValue());
+                }
+            } else if (member instanceof VariableElement) {
+                VariableElement variable = (VariableElement) member;
+                completeDeclaration(variable);
+                complete(variable.asType());
+                variable.getConstantValue();
+            }
+        }
+    }
+
+    /**
+     * Completes the modifiers and annotations of a declaration.
+     */
+    private void completeDeclaration(Element element) {
+        element.getModifiers();
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            completeAnnotation(annotation);
+        }
+    }
+
+    private void completeTypeParameters(List<? extends TypeParameterElement> typeParameters) {
+        for (TypeParameterElement typeParameter : typeParameters) {
+            typeParameter.getBounds().forEach(this::complete);
+        }
+    }
+
+    private void completeAnnotation(AnnotationMirror annotation) {
+        complete(annotation.getAnnotationType());
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : annotation.getElementValues().entrySet()) {
+            completeValue(entry.getValue().getValue());
+        }
+    }
+
+    /**
+     * Completes the types named by an annotation value, mirroring
+     * {@code TypeElementConverter.convertAnnotationValue}.
+     */
+    private void completeValue(Object value) {
+        if (value instanceof List) {
+            for (Object element : (List<?>) value) {
+                completeValue(element);
+            }
+        } else if (value instanceof AnnotationValue) {
+            completeValue(((AnnotationValue) value).getValue());
+        } else if (value instanceof VariableElement) {
+            complete(((VariableElement) value).getEnclosingElement().asType());
+        } else if (value instanceof TypeMirror) {
+            complete((TypeMirror) value);
+        } else if (value instanceof AnnotationMirror) {
+            completeAnnotation((AnnotationMirror) value);
+        }
+    }
+
+    private void complete(TypeMirror type) {
+        if (type != null && type.getKind() != TypeKind.NONE) {
+            type.accept(typeCompleter, null);
+        }
+    }
+}
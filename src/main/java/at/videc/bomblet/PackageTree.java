@@ -3,9 +3,27 @@ package at.videc.bomblet;
 import at.videc.bomblet.dto.*;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonWriter;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Organizes types into a hierarchical package structure and provides JSON serialization.
@@ -14,7 +32,8 @@ import java.util.List;
  * It wraps a {@link DocumentationModel} and provides convenient methods for:</p>
  *
  * <ul>
- *   <li><strong>Package Management:</strong> Creating and organizing package hierarchies</li>
+ *   <li><strong>Package Management:</strong> Creating and organizing package hierarchies through a hashed,
+ *       thread-safe package index</li>
  *   <li><strong>Type Registration:</strong> Adding classes, interfaces, enums, and annotations</li>
  *   <li><strong>Search Indexing:</strong> Building searchable index of all elements</li>
  *   <li><strong>JSON Serialization:</strong> Converting to JSON for client-side rendering</li>
@@ -25,14 +44,17 @@ import java.util.List;
  * PackageTree tree = new PackageTree();
  * tree.addType("com.example", typeInfo);
  * tree.buildSearchIndex();
- * String json = tree.toCompactJson();
+ * tree.resolveTypeLinks();
+ * tree.writeCompactJson(writer);
  * }</pre>
  *
  * <p><strong>Serialization Formats:</strong></p>
- * <p>The class provides three JSON serialization options:</p>
+ * <p>The class provides five JSON serialization options:</p>
  * <ul>
  *   <li>{@link #toJson()} - Pretty-printed JSON for debugging</li>
- *   <li>{@link #toCompactJson()} - Compact JSON for production (recommended)</li>
+ *   <li>{@link #writeCompactJson(Writer)} - Compact JSON streamed into a writer (recommended)</li>
+ *   <li>{@link #writePooledJson(Writer)} - Compact JSON with a deduplicated string table</li>
+ *   <li>{@link #toCompactJson()} - Compact JSON as a string</li>
  *   <li>{@link #toLegacyJson()} - Legacy format for backward compatibility</li>
  * </ul>
  *
@@ -50,27 +72,101 @@ import java.util.List;
  */
 public class PackageTree {
 
+    /**
+     * Trigrams contained in more than this fraction of all search index entries are not posted.
+     */
+    static final double STOP_GRAM_FRACTION = 0.1;
+
+    /**
+     * Upper bound of the part of a search boost that reflects the popularity of the owning type.
+     */
+    static final int MAX_POPULARITY_BOOST = 60;
+
+    /**
+     * Upper bound of the part of a search boost that rewards short names.
+     */
+    static final int MAX_BREVITY_BOOST = 39;
+
+    /**
+     * Storage order of search categories in the columnar search index. Type categories come first,
+     * the member part starts with {@code method}. Other categories follow in alphabetical order.
+     */
+    static final List<String> SEARCH_CATEGORIES = List.of("class", "interface", "enum", "annotation", "method", "field");
+
+    /**
+     * Order of entries in the columnar search index: by category, then by lower-cased name.
+     */
+    private static final Comparator<SearchIndexEntry> COLUMNAR_ORDER =
+            Comparator.comparingInt((SearchIndexEntry entry) -> categoryRank(entry.getCategory()))
+                    .thenComparing(entry -> String.valueOf(entry.getCategory()))
+                    .thenComparing(entry -> lowerCase(entry.getName()));
+
     /**
      * The underlying documentation model containing all packages and types.
      */
     private final DocumentationModel model;
 
+    /**
+     * Hash index over the packages of the model, keyed by package name.
+     * The ordered package list of the model remains the source of truth for serialization.
+     */
+    private final ConcurrentMap<String, PackageInfo> packageIndex = new ConcurrentHashMap<>();
+
+    /**
+     * Guards structural changes of the model's package list.
+     */
+    private final Object packagesLock = new Object();
+
     /**
      * Gson instance configured with pretty printing and HTML escaping disabled.
      * Used for {@link #toJson()} method.
      */
     private final Gson gson;
 
+    /**
+     * Gson instance configured without pretty printing and with HTML escaping disabled.
+     * Shared by all compact serialization methods.
+     */
+    private final Gson compactGson;
+
+    /**
+     * Whether {@link #buildSearchIndex()} produces the columnar encoding.
+     */
+    private boolean columnarSearchIndex;
+
+    /**
+     * Whether search entries and references are kept per type and reused for unchanged types.
+     */
+    private boolean incrementalIndex;
+
+    /**
+     * Search entries, trigrams and references of every indexed type, by type instance. Only used with
+     * {@link #setIncrementalIndex(boolean) incremental index}.
+     */
+    private Map<TypeInfo, IndexedType> indexedTypes = new IdentityHashMap<>();
+
+    /**
+     * Package, simple and qualified name of every type the cached references were resolved for.
+     */
+    private Set<String> indexedNames = Collections.emptySet();
+
+    /**
+     * Resolver for the documented types in {@link #indexedNames}.
+     */
+    private TypeLinkResolver indexedResolver;
+
+    /**
+     * Links resolved by {@link #buildSearchIndex()} together with the reference counts, reused by
+     * {@link #resolveTypeLinks()} until a package or type is added, replaced or removed.
+     */
+    private volatile Map<String, String> resolvedLinks;
+
     /**
      * Creates a new PackageTree with an empty documentation model.
      * Initializes Gson with pretty printing and disabled HTML escaping.
      */
     public PackageTree() {
-        this.model = new DocumentationModel();
-        this.gson = new GsonBuilder()
-                .setPrettyPrinting()
-                .disableHtmlEscaping()
-                .create();
+        this(new DocumentationModel());
     }
 
     /**
@@ -80,10 +176,18 @@ public class PackageTree {
      */
     public PackageTree(DocumentationModel model) {
         this.model = model;
+        for (PackageInfo packageInfo : model.getPackages()) {
+            if (packageInfo.getName() != null) {
+                packageIndex.putIfAbsent(packageInfo.getName(), packageInfo);
+            }
+        }
         this.gson = new GsonBuilder()
                 .setPrettyPrinting()
                 .disableHtmlEscaping()
                 .create();
+        this.compactGson = new GsonBuilder()
+                .disableHtmlEscaping()
+                .create();
     }
 
     /**
@@ -95,24 +199,130 @@ public class PackageTree {
         return model;
     }
 
+    public boolean isColumnarSearchIndex() {
+        return columnarSearchIndex;
+    }
+
+    /**
+     * Selects the encoding produced by {@link #buildSearchIndex()}: a list of {@link SearchIndexEntry}
+     * objects (the default) or {@link SearchIndexColumns}.
+     *
+     * @param columnarSearchIndex {@code true} for the columnar encoding
+     */
+    public void setColumnarSearchIndex(boolean columnarSearchIndex) {
+        this.columnarSearchIndex = columnarSearchIndex;
+    }
+
+    public boolean isIncrementalIndex() {
+        return incrementalIndex;
+    }
+
+    /**
+     * Keeps the search entries, their trigrams and the resolved references of every type between calls of
+     * {@link #buildSearchIndex()} and {@link #resolveTypeLinks()}, so rebuilding after a few types were
+     * replaced with {@link #replaceType(String, TypeInfo)} or removed with {@link #removeType(String)} only
+     * indexes and resolves those types. Types are recognized by instance: a type must not be modified
+     * in place once indexed, but replaced.
+     *
+     * <p>The references of a type depend on which types are documented. If types are added, removed or
+     * renamed, all references are resolved again; the search entries are still reused.</p>
+     *
+     * @param incrementalIndex {@code true} to reuse the index of unchanged types
+     */
+    public void setIncrementalIndex(boolean incrementalIndex) {
+        this.incrementalIndex = incrementalIndex;
+        if (!incrementalIndex) {
+            indexedTypes = new IdentityHashMap<>();
+            indexedNames = Collections.emptySet();
+            indexedResolver = null;
+        }
+    }
+
     /**
-     * Adds a package to the tree.
+     * Adds a package to the tree. If a package with the same name is already registered,
+     * types added by name keep going to the first one.
+     *
+     * <p>This method is thread-safe.</p>
      *
      * @param packageInfo the package information to add
      */
     public void addPackage(PackageInfo packageInfo) {
-        model.getPackages().add(packageInfo);
+        resolvedLinks = null;
+        synchronized (packagesLock) {
+            model.getPackages().add(packageInfo);
+        }
+        if (packageInfo.getName() != null) {
+            packageIndex.putIfAbsent(packageInfo.getName(), packageInfo);
+        }
     }
 
     /**
      * Adds a type to a specific package. If the package doesn't exist, it will be created.
      *
+     * <p>This method is thread-safe: the package lookup is a hash lookup, package creation is
+     * atomic per package name, and types are appended under a lock per package, so threads adding
+     * to different packages do not contend. When called concurrently, the order of packages and of
+     * types within a package follows the order in which the calls complete; callers that need a
+     * deterministic model add types from one thread in a fixed order.</p>
+     *
      * @param packageName the fully qualified package name
      * @param typeInfo the type information to add
      */
     public void addType(String packageName, TypeInfo typeInfo) {
+        resolvedLinks = null;
         PackageInfo packageInfo = findOrCreatePackage(packageName);
-        packageInfo.getTypes().add(typeInfo);
+        synchronized (packageInfo) {
+            packageInfo.getTypes().add(typeInfo);
+        }
+    }
+
+    /**
+     * Replaces the type with the same qualified name in a package, keeping its position, or adds the
+     * type if the package has no such type.
+     *
+     * <p>This method is not thread-safe.</p>
+     *
+     * @param packageName the fully qualified package name
+     * @param typeInfo the new type information
+     * @return the replaced type, or {@code null} if the type was added
+     */
+    public TypeInfo replaceType(String packageName, TypeInfo typeInfo) {
+        resolvedLinks = null;
+        PackageInfo packageInfo = findOrCreatePackage(packageName);
+        List<TypeInfo> types = packageInfo.getTypes();
+        for (int i = 0; i < types.size(); i++) {
+            if (Objects.equals(types.get(i).getQualifiedName(), typeInfo.getQualifiedName())) {
+                return types.set(i, typeInfo);
+            }
+        }
+        types.add(typeInfo);
+        return null;
+    }
+
+    /**
+     * Removes a type by qualified name. A package left without types and without javadoc is removed too.
+     *
+     * <p>This method is not thread-safe.</p>
+     *
+     * @param qualifiedName the qualified name of the type
+     * @return the removed type, or {@code null} if the tree has no such type
+     */
+    public TypeInfo removeType(String qualifiedName) {
+        resolvedLinks = null;
+        for (PackageInfo packageInfo : model.getPackages()) {
+            List<TypeInfo> types = packageInfo.getTypes();
+            for (int i = 0; i < types.size(); i++) {
+                if (Objects.equals(types.get(i).getQualifiedName(), qualifiedName)) {
+                    TypeInfo removed = types.remove(i);
+                    if (types.isEmpty() && packageInfo.getJavadoc() == null) {
+                        model.getPackages().remove(packageInfo);
+                        packageIndex.remove(packageInfo.getName(), packageInfo);
+                    }
+                    return removed;
+                }
+            }
+        }
+        return null;
     }
 
     /**
@@ -122,19 +332,36 @@ public class PackageTree {
      * @return the package info for the given name
      */
     private PackageInfo findOrCreatePackage(String packageName) {
-        return model.getPackages().stream()
-                .filter(p -> p.getName().equals(packageName))
-                .findFirst()
-                .orElseGet(() -> {
-                    PackageInfo newPackage = new PackageInfo();
-                    newPackage.setName(packageName);
-                    model.getPackages().add(newPackage);
-                    return newPackage;
-                });
+        PackageInfo packageInfo = packageIndex.get(packageName);
+        if (packageInfo != null) {
+            return packageInfo;
+        }
+        return packageIndex.computeIfAbsent(packageName, name -> {
+            PackageInfo newPackage = new PackageInfo();
+            newPackage.setName(name);
+            synchronized (packagesLock) {
+                model.getPackages().add(newPackage);
+            }
+            return newPackage;
+        });
     }
 
     /**
-     * Gets all packages in the tree.
+     * Gets a package by its fully qualified name.
+     *
+     * @param packageName the fully qualified package name
+     * @return the package, or {@code null} if the tree has no such package
+     */
+    public PackageInfo getPackage(String packageName) {
+        return packageIndex.get(packageName);
+    }
+
+    /**
+     * Gets all packages in the tree, in the order they were added.
+     *
+     * <p>The returned list is the live list of the model. It must not be read while other threads
+     * are still adding types, and packages must be registered through {@link #addPackage(PackageInfo)}
+     * or {@link #addType(String, TypeInfo)} rather than by modifying the list directly.</p>
      *
      * @return list of all packages
      */
@@ -158,12 +385,268 @@ public class PackageTree {
      * @return compact JSON string representation of the package tree
      */
     public String toCompactJson() {
-        Gson compactGson = new GsonBuilder()
-                .disableHtmlEscaping()
-                .create();
         return compactGson.toJson(model);
     }
 
+    /**
+     * Writes the package tree as compact JSON (without pretty printing) directly into the given writer.
+     *
+     * <p>The model is streamed through a single {@link JsonWriter}: the packages are serialized one at a
+     * time, followed by the search index entries, so the serialized model never exists as one
+     * {@link String}. The output is identical to {@link #toCompactJson()}.</p>
+     *
+     * <p>The writer is flushed but not closed.</p>
+     *
+     * @param out the writer receiving the JSON
+     * @throws IOException if writing fails
+     */
+    public void writeCompactJson(Writer out) throws IOException {
+        JsonWriter json = compactGson.newJsonWriter(out);
+        try {
+            json.beginObject();
+            writeModelMembers(json);
+            json.endObject();
+            json.flush();
+        } catch (JsonIOException e) {
+            throw new IOException("Failed to serialize documentation model", e.getCause());
+        }
+    }
+
+    /**
+     * Writes the package tree as compact JSON in which short strings are replaced by indexes into a
+     * deduplicated string table.
+     *
+     * <p>The model has the same structure as with {@link #writeCompactJson(Writer)}, but every string value
+     * of up to {@value StringPoolingJsonWriter#MAX_POOLED_LENGTH} characters is written as an index into the
+     * additional top-level {@code strings} array. Names, types, modifiers and package names that repeat
+     * throughout the model are therefore stored once. Untyped annotation and constant values are not
+     * pooled. The client restores the plain model with {@code resolveStringTable(model)}.</p>
+     *
+     * <p>The writer is flushed but not closed.</p>
+     *
+     * @param out the writer receiving the JSON
+     * @throws IOException if writing fails
+     */
+    public void writePooledJson(Writer out) throws IOException {
+        StringPoolingJsonWriter json = new StringPoolingJsonWriter(out);
+        try {
+            json.beginObject();
+            writeModelMembers(json);
+            json.writeStringTable();
+            json.endObject();
+            json.flush();
+        } catch (JsonIOException e) {
+            throw new IOException("Failed to serialize documentation model", e.getCause());
+        }
+    }
+
+    /**
+     * Writes a single package with all its types as compact JSON, like one element of the
+     * {@code packages} array of {@link #writeCompactJson(Writer)}.
+     *
+     * <p>The writer is flushed but not closed.</p>
+     *
+     * @param packageInfo the package to write
+     * @param out the writer receiving the JSON
+     * @throws IOException if writing fails
+     */
+    public void writePackageJson(PackageInfo packageInfo, Writer out) throws IOException {
+        JsonWriter json = compactGson.newJsonWriter(out);
+        try {
+            compactGson.toJson(packageInfo, PackageInfo.class, json);
+            json.flush();
+        } catch (JsonIOException e) {
+            throw new IOException("Failed to serialize package " + packageInfo.getName(), e.getCause());
+        }
+    }
+
+    /**
+     * Writes the model without the package contents as compact JSON: the index of a multi-file page.
+     *
+     * <p>Every package is reduced to its name and its types, and every type to its {@code name},
+     * {@code qualifiedName} and {@code kind}, which is all the sidebar needs. The search index and
+     * the type links are written in full. The additional top-level {@code shards} object maps each
+     * package name to the file holding the complete package, see {@link #writePackageJson(PackageInfo, Writer)};
+     * the client loads it when the package or one of its types is opened.</p>
+     *
+     * <p>The writer is flushed but not closed.</p>
+     *
+     * @param out the writer receiving the JSON
+     * @param shards the shard file of each package, relative to the page
+     * @throws IOException if writing fails
+     */
+    public void writeIndexJson(Writer out, Map<String, String> shards) throws IOException {
+        writeIndexJson(out, true, "shards", shards);
+    }
+
+    /**
+     * Writes the index of a model whose contents are served on request as compact JSON.
+     *
+     * <p>Like {@link #writeIndexJson(Writer, Map)}, but without the search index, which is queried on the
+     * server, and with the additional top-level {@code endpoints} object mapping the kinds of content
+     * ({@code package}, {@code type}, {@code search}) to the URLs serving them.</p>
+     *
+     * <p>The writer is flushed but not closed.</p>
+     *
+     * @param out the writer receiving the JSON
+     * @param endpoints the URL of each kind of content, relative to the page
+     * @throws IOException if writing fails
+     */
+    public void writeServedIndexJson(Writer out, Map<String, String> endpoints) throws IOException {
+        writeIndexJson(out, false, "endpoints", endpoints);
+    }
+
+    /**
+     * Writes a package without its type contents as compact JSON: its name, its javadoc and the
+     * {@code name}, {@code qualifiedName} and {@code kind} of each type.
+     *
+     * <p>The writer is flushed but not closed.</p>
+     *
+     * @param packageInfo the package to write
+     * @param out the writer receiving the JSON
+     * @throws IOException if writing fails
+     */
+    public void writePackageSummaryJson(PackageInfo packageInfo, Writer out) throws IOException {
+        JsonWriter json = compactGson.newJsonWriter(out);
+        try {
+            writePackageSummary(json, packageInfo, true);
+            json.flush();
+        } catch (JsonIOException e) {
+            throw new IOException("Failed to serialize package " + packageInfo.getName(), e.getCause());
+        }
+    }
+
+    /**
+     * Writes a single type with all its members as compact JSON, like one element of the {@code types}
+     * array of a package.
+     *
+     * <p>The writer is flushed but not closed.</p>
+     *
+     * @param type the type to write
+     * @param out the writer receiving the JSON
+     * @throws IOException if writing fails
+     */
+    public void writeTypeJson(TypeInfo type, Writer out) throws IOException {
+        JsonWriter json = compactGson.newJsonWriter(out);
+        try {
+            compactGson.toJson(type, type.getClass(), json);
+            json.flush();
+        } catch (JsonIOException e) {
+            throw new IOException("Failed to serialize type " + type.getQualifiedName(), e.getCause());
+        }
+    }
+
+    /**
+     * Writes the package and type names of the model, optionally the search index, the type links
+     * and the given links to the package contents.
+     */
+    private void writeIndexJson(Writer out, boolean searchIndex, String linksName, Map<String, String> links)
+            throws IOException {
+        JsonWriter json = compactGson.newJsonWriter(out);
+        try {
+            json.beginObject();
+            if (model.getPackages() != null) {
+                json.name("packages");
+                json.beginArray();
+                for (PackageInfo packageInfo : model.getPackages()) {
+                    writePackageSummary(json, packageInfo, false);
+                }
+                json.endArray();
+            }
+            if (searchIndex) {
+                writeSearchMembers(json);
+            } else {
+                writeTypeLinks(json);
+            }
+            json.name(linksName);
+            json.beginObject();
+            for (Map.Entry<String, String> link : links.entrySet()) {
+                json.name(link.getKey()).value(link.getValue());
+            }
+            json.endObject();
+            json.endObject();
+            json.flush();
+        } catch (JsonIOException e) {
+            throw new IOException("Failed to serialize documentation index", e.getCause());
+        }
+    }
+
+    /**
+     * Writes a package with the names of its types, and with its javadoc if requested.
+     */
+    private void writePackageSummary(JsonWriter json, PackageInfo packageInfo, boolean javadoc) throws IOException {
+        json.beginObject();
+        json.name("name").value(packageInfo.getName());
+        if (javadoc && packageInfo.getJavadoc() != null) {
+            json.name("javadoc");
+            compactGson.toJson(packageInfo.getJavadoc(), JavaDocComment.class, json);
+        }
+        json.name("types");
+        json.beginArray();
+        for (TypeInfo type : packageInfo.getTypes()) {
+            json.beginObject();
+            json.name("kind").value(type.getKind());
+            json.name("name").value(type.getName());
+            json.name("qualifiedName").value(type.getQualifiedName());
+            json.endObject();
+        }
+        json.endArray();
+        json.endObject();
+    }
+
+    /**
+     * Writes the packages, the search index and the type links of the model as members of the
+     * current object, one element at a time.
+     */
+    private void writeModelMembers(JsonWriter json) throws IOException {
+        if (model.getPackages() != null) {
+            json.name("packages");
+            json.beginArray();
+            for (PackageInfo packageInfo : model.getPackages()) {
+                compactGson.toJson(packageInfo, PackageInfo.class, json);
+            }
+            json.endArray();
+        }
+        writeSearchMembers(json);
+    }
+
+    /**
+     * Writes the search index and the type links of the model as members of the current object.
+     */
+    private void writeSearchMembers(JsonWriter json) throws IOException {
+        if (model.getSearchIndex() != null) {
+            json.name("searchIndex");
+            json.beginArray();
+            for (SearchIndexEntry entry : model.getSearchIndex()) {
+                compactGson.toJson(entry, SearchIndexEntry.class, json);
+            }
+            json.endArray();
+        }
+        if (model.getSearchColumns() != null) {
+            json.name("searchColumns");
+            compactGson.toJson(model.getSearchColumns(), SearchIndexColumns.class, json);
+        }
+        if (model.getSearchTrigrams() != null) {
+            json.name("searchTrigrams");
+            compactGson.toJson(model.getSearchTrigrams(), SearchTrigramIndex.class, json);
+        }
+        writeTypeLinks(json);
+    }
+
+    /**
+     * Writes the type links of the model as a member of the current object.
+     */
+    private void writeTypeLinks(JsonWriter json) throws IOException {
+        if (model.getTypeLinks() != null) {
+            json.name("typeLinks");
+            json.beginObject();
+            for (Map.Entry<String, String> link : model.getTypeLinks().entrySet()) {
+                json.name(link.getKey()).value(link.getValue());
+            }
+            json.endObject();
+        }
+    }
+
     /**
      * Converts the package tree to a legacy format compatible with the old generateTree() JavaScript function.
      * The legacy format is a simple map: {"packageName": ["className1", "className2"]}.
@@ -181,9 +664,6 @@ public class PackageTree {
             legacyMap.put(packageInfo.getName(), classNames);
         }
 
-        Gson compactGson = new GsonBuilder()
-                .disableHtmlEscaping()
-                .create();
         return compactGson.toJson(legacyMap);
     }
 
@@ -235,6 +715,7 @@ public class PackageTree {
      *   <li>Package name for context</li>
      *   <li>Parent type name (for methods and fields)</li>
      *   <li>Signature (for methods) or type (for fields)</li>
+     *   <li>Boost, the static part of the search ranking (see {@link #searchBoost(String, int)})</li>
      * </ul>
      *
      * <p><strong>Usage:</strong></p>
@@ -253,49 +734,344 @@ public class PackageTree {
     public void buildSearchIndex() {
         List<SearchIndexEntry> index = new ArrayList<>();
 
+        // Popularity of every type: how often the documented API refers to it
+        Map<String, Integer> referenceCounts;
+        if (incrementalIndex) {
+            referenceCounts = updateIndexedTypes();
+        } else {
+            TypeLinkResolver resolver = new TypeLinkResolver(model.getPackages());
+            Map<String, String> links = resolver.resolve(model.getPackages());
+            referenceCounts = resolver.getReferenceCounts();
+            resolvedLinks = links;
+        }
+
+        // Trigrams of the entries of unchanged types are not extracted again
+        Map<SearchIndexEntry, String[]> trigrams = incrementalIndex ? new IdentityHashMap<>() : null;
         for (PackageInfo pkg : model.getPackages()) {
             for (TypeInfo type : pkg.getTypes()) {
-                // Add type entry
-                index.add(createTypeEntry(type, pkg.getName()));
-
-                // Add method and field entries for classes
-                if (type instanceof ClassInfo) {
-                    ClassInfo classInfo = (ClassInfo) type;
-                    for (MethodInfo method : classInfo.getMethods()) {
-                        index.add(createMethodEntry(method, type, pkg.getName()));
-                    }
-                    for (FieldInfo field : classInfo.getFields()) {
-                        index.add(createFieldEntry(field, type, pkg.getName()));
+                List<SearchIndexEntry> entries;
+                if (incrementalIndex) {
+                    IndexedType indexed = indexedTypes.get(type);
+                    entries = indexed.entries;
+                    for (int i = 0; i < entries.size(); i++) {
+                        trigrams.put(entries.get(i), indexed.trigrams.get(i));
                     }
+                } else {
+                    entries = createSearchEntries(type, pkg.getName());
                 }
-                // Add method entries for interfaces
-                else if (type instanceof InterfaceInfo) {
-                    InterfaceInfo interfaceInfo = (InterfaceInfo) type;
-                    for (MethodInfo method : interfaceInfo.getMethods()) {
-                        index.add(createMethodEntry(method, type, pkg.getName()));
-                    }
+
+                // Members share the popularity of their type
+                int references = referenceCounts.getOrDefault(type.getQualifiedName(), 0);
+                for (SearchIndexEntry entry : entries) {
+                    entry.setBoost(searchBoost(entry.getName(), references));
+                    index.add(entry);
                 }
-                // Add method and field entries for enums
-                else if (type instanceof EnumInfo) {
-                    EnumInfo enumInfo = (EnumInfo) type;
-                    for (MethodInfo method : enumInfo.getMethods()) {
-                        index.add(createMethodEntry(method, type, pkg.getName()));
-                    }
-                    for (FieldInfo field : enumInfo.getFields()) {
-                        index.add(createFieldEntry(field, type, pkg.getName()));
-                    }
+            }
+        }
+
+        if (columnarSearchIndex) {
+            index.sort(COLUMNAR_ORDER);
+            model.setSearchIndex(null);
+            model.setSearchColumns(buildSearchColumns(index));
+        } else {
+            model.setSearchIndex(index);
+            model.setSearchColumns(null);
+        }
+        model.setSearchTrigrams(buildTrigramIndex(index, trigrams));
+    }
+
+    /**
+     * Creates the search entries of a type and its members, without boost.
+     */
+    private List<SearchIndexEntry> createSearchEntries(TypeInfo type, String packageName) {
+        List<SearchIndexEntry> entries = new ArrayList<>();
+
+        // Add type entry
+        entries.add(createTypeEntry(type, packageName));
+
+        // Add method and field entries for classes
+        if (type instanceof ClassInfo) {
+            ClassInfo classInfo = (ClassInfo) type;
+            for (MethodInfo method : classInfo.getMethods()) {
+                entries.add(createMethodEntry(method, type, packageName));
+            }
+            for (FieldInfo field : classInfo.getFields()) {
+                entries.add(createFieldEntry(field, type, packageName));
+            }
+        }
+        // Add method entries for interfaces
+        else if (type instanceof InterfaceInfo) {
+            InterfaceInfo interfaceInfo = (InterfaceInfo) type;
+            for (MethodInfo method : interfaceInfo.getMethods()) {
+                entries.add(createMethodEntry(method, type, packageName));
+            }
+        }
+        // Add method and field entries for enums
+        else if (type instanceof EnumInfo) {
+            EnumInfo enumInfo = (EnumInfo) type;
+            for (MethodInfo method : enumInfo.getMethods()) {
+                entries.add(createMethodEntry(method, type, packageName));
+            }
+            for (FieldInfo field : enumInfo.getFields()) {
+                entries.add(createFieldEntry(field, type, packageName));
+            }
+        }
+        // Add element entries for annotations
+        else if (type instanceof AnnotationInfo) {
+            AnnotationInfo annotationInfo = (AnnotationInfo) type;
+            for (AnnotationElementInfo element : annotationInfo.getElements()) {
+                entries.add(createAnnotationElementEntry(element, type, packageName));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Brings the per-type index up to date: indexes and resolves the types that are new since the last
+     * call and drops the removed ones. If the documented names changed, all references are resolved again.
+     *
+     * @return the reference counts of the whole model, like {@link TypeLinkResolver#getReferenceCounts()}
+     */
+    private Map<String, Integer> updateIndexedTypes() {
+        Set<String> names = new HashSet<>();
+        for (PackageInfo pkg : model.getPackages()) {
+            for (TypeInfo type : pkg.getTypes()) {
+                names.add(pkg.getName() + '\n' + type.getName() + '\n' + type.getQualifiedName());
+            }
+        }
+        boolean namesChanged = !names.equals(indexedNames);
+        if (namesChanged) {
+            indexedNames = names;
+            indexedResolver = new TypeLinkResolver(model.getPackages());
+        }
+
+        Map<TypeInfo, IndexedType> updated = new IdentityHashMap<>();
+        Map<String, Integer> referenceCounts = new HashMap<>();
+        for (PackageInfo pkg : model.getPackages()) {
+            indexedResolver.resolvePackage(pkg).getCounts().forEach((name, count) -> referenceCounts.merge(name, count, Integer::sum));
+            for (TypeInfo type : pkg.getTypes()) {
+                IndexedType indexed = indexedTypes.get(type);
+                if (indexed == null) {
+                    List<SearchIndexEntry> entries = createSearchEntries(type, pkg.getName());
+                    indexed = new IndexedType(entries, getTrigrams(entries), indexedResolver.resolveType(type));
+                } else if (namesChanged) {
+                    indexed = new IndexedType(indexed.entries, indexed.trigrams, indexedResolver.resolveType(type));
                 }
-                // Add element entries for annotations
-                else if (type instanceof AnnotationInfo) {
-                    AnnotationInfo annotationInfo = (AnnotationInfo) type;
-                    for (AnnotationElementInfo element : annotationInfo.getElements()) {
-                        index.add(createAnnotationElementEntry(element, type, pkg.getName()));
-                    }
+                updated.put(type, indexed);
+                indexed.references.getCounts().forEach((name, count) -> referenceCounts.merge(name, count, Integer::sum));
+            }
+        }
+        indexedTypes = updated;
+        return referenceCounts;
+    }
+
+    /**
+     * Computes the static part of the search ranking of an entry, so the client only adds it to the
+     * score of the match. Popular types and short names rank first: the popularity part grows with
+     * the logarithm of the references to the owning type, up to {@link #MAX_POPULARITY_BOOST}; the
+     * brevity part is {@link #MAX_BREVITY_BOOST} minus the name length, at least 0.
+     *
+     * @param name the name of the entry
+     * @param references the number of references to the type owning the entry
+     * @return the boost, between 0 and {@code MAX_POPULARITY_BOOST + MAX_BREVITY_BOOST}
+     */
+    static int searchBoost(String name, int references) {
+        int popularity = (int) Math.min(MAX_POPULARITY_BOOST, Math.round(10 * Math.log(1 + references) / Math.log(2)));
+        int brevity = Math.max(0, MAX_BREVITY_BOOST - (name == null ? 0 : name.length()));
+        return popularity + brevity;
+    }
+
+    /**
+     * Resolves the type references of all types to the documented types they link to.
+     *
+     * <p>Must be called after all types have been added to the tree. The result is stored as the
+     * model's type links, which the client uses to render clickable signatures without searching
+     * the model. See {@link TypeLinkResolver} for the resolution rules.</p>
+     *
+     * <p>The links resolved by a preceding {@link #buildSearchIndex()} are reused, so the references are
+     * only resolved once as long as the types were not changed through this tree in between.</p>
+     */
+    public void resolveTypeLinks() {
+        List<PackageInfo> packages = model.getPackages();
+        if (!incrementalIndex) {
+            Map<String, String> links = resolvedLinks;
+            model.setTypeLinks(links != null ? links : new TypeLinkResolver(packages).resolve(packages));
+            return;
+        }
+
+        updateIndexedTypes();
+        Map<String, String> links = new TreeMap<>();
+        for (PackageInfo pkg : packages) {
+            links.putAll(indexedResolver.resolvePackage(pkg).getLinks());
+            for (TypeInfo type : pkg.getTypes()) {
+                links.putAll(indexedTypes.get(type).references.getLinks());
+            }
+        }
+        model.setTypeLinks(links);
+    }
+
+    /**
+     * Converts search index entries sorted by {@link #COLUMNAR_ORDER} into the columnar encoding.
+     *
+     * <p>Member entries are recognized by their position after the start of the {@code method}
+     * category; their owner is derived from the qualified name, which {@code buildSearchIndex}
+     * composes from the owner's qualified name and the member name.</p>
+     *
+     * @param index the sorted entries
+     * @return the columnar search index
+     * @see SearchIndexColumns
+     */
+    private static SearchIndexColumns buildSearchColumns(List<SearchIndexEntry> index) {
+        SearchIndexColumns columns = new SearchIndexColumns();
+
+        // Categories with their ranges, known categories always present
+        columns.getCategories().addAll(SEARCH_CATEGORIES);
+        for (SearchIndexEntry entry : index) {
+            if (!columns.getCategories().contains(entry.getCategory())) {
+                columns.getCategories().add(entry.getCategory());
+            }
+        }
+        int position = 0;
+        for (String category : columns.getCategories()) {
+            columns.getCategoryOffsets().add(position);
+            while (position < index.size() && Objects.equals(index.get(position).getCategory(), category)) {
+                position++;
+            }
+        }
+        columns.getCategoryOffsets().add(index.size());
+        int memberStart = columns.getCategoryOffsets().get(SEARCH_CATEGORIES.indexOf("method"));
+
+        Map<List<String>, Integer> owners = new HashMap<>();
+        Map<String, Integer> packages = new HashMap<>();
+        for (int i = 0; i < index.size(); i++) {
+            SearchIndexEntry entry = index.get(i);
+            String ownerName;
+            String ownerQualifiedName;
+            if (i < memberStart) {
+                ownerName = entry.getName();
+                ownerQualifiedName = entry.getQualifiedName();
+            } else {
+                ownerName = entry.getTypeName();
+                String qualifiedName = entry.getQualifiedName();
+                ownerQualifiedName = qualifiedName.substring(0, qualifiedName.length() - entry.getName().length() - 1);
+                columns.getReturnTypes().add(entry.getReturnType());
+                if ("method".equals(entry.getCategory())) {
+                    String signature = entry.getSignature();
+                    columns.getParameters().add(signature.substring(entry.getName().length() + 1, signature.length() - 1));
                 }
             }
+
+            Integer owner = owners.get(Arrays.asList(entry.getPackageName(), ownerQualifiedName, ownerName));
+            if (owner == null) {
+                owner = columns.getOwnerNames().size();
+                owners.put(Arrays.asList(entry.getPackageName(), ownerQualifiedName, ownerName), owner);
+                columns.getOwnerNames().add(ownerName);
+                columns.getOwnerQualifiedNames().add(ownerQualifiedName);
+                columns.getOwnerPackages().add(packages.computeIfAbsent(entry.getPackageName(), name -> {
+                    columns.getPackages().add(name);
+                    return columns.getPackages().size() - 1;
+                }));
+            }
+            columns.getNames().add(entry.getName());
+            columns.getOwners().add(owner);
+            columns.getBoosts().add(entry.getBoost());
+        }
+        return columns;
+    }
+
+    /**
+     * Gets the storage rank of a search category, see {@link #SEARCH_CATEGORIES}.
+     */
+    private static int categoryRank(String category) {
+        int rank = SEARCH_CATEGORIES.indexOf(category);
+        return rank >= 0 ? rank : SEARCH_CATEGORIES.size();
+    }
+
+    private static String lowerCase(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Builds the trigram posting index over the given search index entries.
+     *
+     * <p>Trigrams are taken from the lower-cased name, qualified name and signature of every entry,
+     * the fields the client matches queries against. Trigrams found in more than
+     * {@link #STOP_GRAM_FRACTION} of all entries become stop grams.</p>
+     *
+     * @param index the search index entries
+     * @return the trigram index, positions referring to {@code index}
+     * @see SearchTrigramIndex
+     */
+    private static SearchTrigramIndex buildTrigramIndex(List<SearchIndexEntry> index,
+                                                        Map<SearchIndexEntry, String[]> cachedTrigrams) {
+        Map<String, List<Integer>> positions = new HashMap<>();
+        Set<String> entryTrigrams = new HashSet<>();
+        for (int i = 0; i < index.size(); i++) {
+            SearchIndexEntry entry = index.get(i);
+            Collection<String> trigrams;
+            if (cachedTrigrams != null) {
+                trigrams = Arrays.asList(cachedTrigrams.get(entry));
+            } else {
+                entryTrigrams.clear();
+                addTrigrams(entry, entryTrigrams);
+                trigrams = entryTrigrams;
+            }
+            for (String trigram : trigrams) {
+                positions.computeIfAbsent(trigram, key -> new ArrayList<>()).add(i);
+            }
+        }
+
+        SearchTrigramIndex trigramIndex = new SearchTrigramIndex();
+        int stopGramThreshold = (int) (index.size() * STOP_GRAM_FRACTION);
+        for (Map.Entry<String, List<Integer>> posting : new TreeMap<>(positions).entrySet()) {
+            List<Integer> list = posting.getValue();
+            if (list.size() > stopGramThreshold && stopGramThreshold > 0) {
+                trigramIndex.getStopGrams().add(posting.getKey());
+                continue;
+            }
+            // Positions were added in ascending order, store the gaps
+            for (int i = list.size() - 1; i > 0; i--) {
+                list.set(i, list.get(i) - list.get(i - 1));
+            }
+            trigramIndex.getPostings().put(posting.getKey(), list);
+        }
+        return trigramIndex;
+    }
+
+    /**
+     * Adds the trigrams of the name, qualified name and signature of an entry to the given set.
+     */
+    private static void addTrigrams(SearchIndexEntry entry, Set<String> trigrams) {
+        addTrigrams(entry.getName(), trigrams);
+        addTrigrams(entry.getQualifiedName(), trigrams);
+        addTrigrams(entry.getSignature(), trigrams);
+    }
+
+    /**
+     * Gets the distinct trigrams of the name, qualified name and signature of every entry.
+     */
+    private static List<String[]> getTrigrams(List<SearchIndexEntry> entries) {
+        List<String[]> trigrams = new ArrayList<>(entries.size());
+        Set<String> entryTrigrams = new HashSet<>();
+        for (SearchIndexEntry entry : entries) {
+            entryTrigrams.clear();
+            addTrigrams(entry, entryTrigrams);
+            trigrams.add(entryTrigrams.toArray(new String[0]));
         }
+        return trigrams;
+    }
 
-        model.setSearchIndex(index);
+    /**
+     * Adds all trigrams of the lower-cased text to the given set.
+     */
+    private static void addTrigrams(String text, Set<String> trigrams) {
+        if (text == null || text.length() < 3) {
+            return;
+        }
+        String lower = lowerCase(text);
+        for (int i = 0; i + 3 <= lower.length(); i++) {
+            trigrams.add(lower.substring(i, i + 3));
+        }
     }
 
     /**
@@ -383,4 +1159,21 @@ public class PackageTree {
         entry.setReturnType(element.getType()); // AnnotationElementInfo uses getType() not getReturnType()
         return entry;
     }
+
+    /**
+     * The search entries, their trigrams and the resolved references of a type, kept with
+     * {@link #setIncrementalIndex(boolean)}.
+     */
+    private static class IndexedType {
+
+        private final List<SearchIndexEntry> entries;
+        private final List<String[]> trigrams;
+        private final TypeLinkResolver.References references;
+
+        IndexedType(List<SearchIndexEntry> entries, List<String[]> trigrams, TypeLinkResolver.References references) {
+            this.entries = entries;
+            this.trigrams = trigrams;
+            this.references = references;
+        }
+    }
 }
@@ -0,0 +1,234 @@
+package at.videc.bomblet;
+
+import at.videc.bomblet.dto.TypeInfo;
+import jdk.javadoc.doclet.DocletEnvironment;
+
+import javax.lang.model.element.TypeElement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Converts type elements on a pool of worker threads, each owning its own {@link TypeElementConverter}.
+ *
+ * <p>The results are returned in exactly the order of the input elements, independent of the order in
+ * which the workers finish. Callers that merge the results into a {@link PackageTree} in that order
+ * therefore produce the same model, and the same serialized output, as the serial pipeline.</p>
+ *
+ * <p><strong>Typical Usage:</strong></p>
+ * <pre>{@code
+ * try (ParallelTypeConverter converter = new ParallelTypeConverter(environment, 4)) {
+ *     List<TypeInfo> types = converter.convertAll(typeElements);
+ * }
+ * }</pre>
+ *
+ * <p><strong>Thread Safety:</strong></p>
+ * <p>Javac completes its symbols lazily and without synchronization. Before the elements are handed to
+ * the workers, the calling thread therefore completes every declaration and type their conversion reads
+ * with a {@link ModelCompleter}, so the workers only read completed element and type state. The
+ * per-worker converters additionally share one model lock for the parts that are not completed up front
+ * (doc comment parsing, constant evaluation, tree lookups of the {@link ConversionCache}), which are
+ * accessed by one worker at a time. Everything else, most notably rendering type names and doc comments
+ * and building the DTO graph, runs concurrently. Type names are rendered through one
+ * {@link TypeNameCache} shared by all workers.</p>
+ *
+ * @author DoomDoc Team
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see TypeElementConverter
+ * @see at.videc.DoomDoclet
+ */
+public class ParallelTypeConverter implements AutoCloseable {
+
+    /**
+     * Lock shared by all worker converters, see {@link TypeElementConverter#TypeElementConverter(DocletEnvironment, Object)}.
+     */
+    private final Object modelLock = new Object();
+
+    /**
+     * Type name cache shared by all worker converters.
+     */
+    private final TypeNameCache typeNames = new TypeNameCache();
+
+    /**
+     * One converter per worker thread.
+     */
+    private final ThreadLocal<TypeElementConverter> converters;
+
+    /**
+     * Optional persistent cache consulted before converting an element, may be {@code null}.
+     */
+    private final ConversionCache cache;
+
+    /**
+     * The worker pool.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * CPU time spent by the workers in conversions.
+     */
+    private final LongAdder workerCpuNanos = new LongAdder();
+
+    /**
+     * Bytes allocated by the workers in conversions.
+     */
+    private final LongAdder workerAllocatedBytes = new LongAdder();
+
+    /**
+     * Whether the JVM failed to measure the CPU time or allocations of a worker.
+     */
+    private volatile boolean workerUsageUnknown;
+
+    /**
+     * Creates a parallel converter backed by the given number of worker threads.
+     *
+     * @param environment the doclet environment for accessing program structure
+     * @param threads the number of worker threads, must be positive
+     * @throws IllegalArgumentException if threads is not positive
+     */
+    public ParallelTypeConverter(DocletEnvironment environment, int threads) {
+        this(environment, threads, null);
+    }
+
+    /**
+     * Creates a parallel converter backed by the given number of worker threads that reuses
+     * results from the given conversion cache.
+     *
+     * @param environment the doclet environment for accessing program structure
+     * @param threads the number of worker threads, must be positive
+     * @param cache the conversion cache shared by all workers, or {@code null} to always convert
+     * @throws IllegalArgumentException if threads is not positive
+     */
+    public ParallelTypeConverter(DocletEnvironment environment, int threads, ConversionCache cache) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.cache = cache;
+        this.converters = ThreadLocal.withInitial(() -> new TypeElementConverter(environment, modelLock, typeNames));
+        this.executor = Executors.newFixedThreadPool(threads, new WorkerThreadFactory());
+    }
+
+    /**
+     * Converts all given type elements and returns the DTOs in input order.
+     *
+     * @param typeElements the type elements to convert
+     * @return the converted types, {@code result.get(i)} belonging to {@code typeElements.get(i)}
+     * @throws IllegalArgumentException if an element kind is not supported by the converter
+     * @throws IllegalStateException if the conversion is interrupted
+     */
+    public List<TypeInfo> convertAll(List<TypeElement> typeElements) {
+        // Submitting the tasks publishes the completed model to the workers
+        ModelCompleter completer = new ModelCompleter();
+        for (TypeElement typeElement : typeElements) {
+            completer.complete(typeElement);
+        }
+
+        List<Future<TypeInfo>> futures = new ArrayList<>(typeElements.size());
+        for (TypeElement typeElement : typeElements) {
+            futures.add(executor.submit(() -> convert(typeElement)));
+        }
+
+        List<TypeInfo> result = new ArrayList<>(typeElements.size());
+        try {
+            for (Future<TypeInfo> future : futures) {
+                result.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Type conversion interrupted", e);
+        } catch (ExecutionException e) {
+            // Surface converter failures exactly like the serial pipeline would
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Type conversion failed", cause);
+        } finally {
+            for (Future<TypeInfo> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Converts a single element with the converter of the current worker, going through the cache if present.
+     */
+    private TypeInfo convert(TypeElement typeElement) {
+        long cpuStart = PhaseTimer.currentThreadCpuNanos();
+        long allocatedStart = PhaseTimer.currentThreadAllocatedBytes();
+        try {
+            TypeElementConverter converter = converters.get();
+            return cache != null ? cache.convert(typeElement, converter) : converter.convert(typeElement);
+        } finally {
+            long cpuEnd = PhaseTimer.currentThreadCpuNanos();
+            long allocatedEnd = PhaseTimer.currentThreadAllocatedBytes();
+            if (cpuStart < 0 || allocatedStart < 0) {
+                workerUsageUnknown = true;
+            } else {
+                workerCpuNanos.add(cpuEnd - cpuStart);
+                workerAllocatedBytes.add(allocatedEnd - allocatedStart);
+            }
+        }
+    }
+
+    /**
+     * Gets the CPU time the workers spent converting elements so far.
+     *
+     * @return the CPU time in nanoseconds, or {@code -1} if the JVM cannot measure it
+     */
+    public long getWorkerCpuNanos() {
+        return workerUsageUnknown ? -1 : workerCpuNanos.sum();
+    }
+
+    /**
+     * Gets the bytes the workers allocated while converting elements so far.
+     *
+     * @return the allocated bytes, or {@code -1} if the JVM cannot measure them
+     */
+    public long getWorkerAllocatedBytes() {
+        return workerUsageUnknown ? -1 : workerAllocatedBytes.sum();
+    }
+
+    /**
+     * Gets the type name cache shared by the workers, e.g. for its hit statistics.
+     *
+     * @return the type name cache
+     */
+    public TypeNameCache getTypeNameCache() {
+        return typeNames;
+    }
+
+    /**
+     * Shuts down the worker pool.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Creates daemon worker threads so a failed run never keeps the javadoc JVM alive.
+     */
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "doomdoc-converter-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
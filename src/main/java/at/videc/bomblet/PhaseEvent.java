@@ -0,0 +1,42 @@
+package at.videc.bomblet;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder event spanning one phase of a doclet run, emitted by {@link PhaseTimer}.
+ *
+ * @author DoomDoc Team
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see PhaseTimer.Phase
+ * @see TypeConversionEvent
+ */
+@Name(PhaseEvent.NAME)
+@Label("DoomDoc Phase")
+@Category("DoomDoc")
+@Description("A phase of the DoomDoc documentation pipeline")
+@StackTrace(false)
+final class PhaseEvent extends Event {
+
+    static final String NAME = "at.videc.doomdoc.Phase";
+
+    @Label("Phase")
+    String phase;
+
+    @Label("CPU Time")
+    @Description("CPU time of the phase, including worker threads; -1 if not measured")
+    @Timespan(Timespan.NANOSECONDS)
+    long cpuTime;
+
+    @Label("Allocated")
+    @Description("Bytes allocated in the phase, including worker threads; -1 if not measured")
+    @DataAmount
+    long allocated;
+}
@@ -0,0 +1,218 @@
+package at.videc.bomblet;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measures wall time, CPU time and allocated bytes of the consecutive phases of a doclet run.
+ *
+ * <p>CPU time and allocated bytes are read from the thread-level MX beans for the thread that
+ * opens and closes a phase. Work done on other threads, for example by the workers of a
+ * {@link ParallelTypeConverter}, is added with {@link Phase#addUsage(long, long)}. Values the JVM
+ * cannot measure are reported as {@code -1}.</p>
+ *
+ * <p>Every phase is also emitted as a {@link PhaseEvent} when Java Flight Recorder is recording.</p>
+ *
+ * <p><strong>Typical Usage:</strong></p>
+ * <pre>{@code
+ * PhaseTimer timer = new PhaseTimer();
+ * PhaseTimer.Phase phase = timer.start("conversion");
+ * try {
+ *     ...
+ * } finally {
+ *     phase.close();
+ * }
+ * reporter.print(Diagnostic.Kind.NOTE, timer.formatSummary());
+ * }</pre>
+ *
+ * <p>Phases must be started and closed on the same thread, one at a time.</p>
+ *
+ * @author DoomDoc Team
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see at.videc.DoomDoclet
+ */
+public class PhaseTimer {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final List<Phase> phases = new ArrayList<>();
+
+    /**
+     * Starts a new phase on the current thread.
+     *
+     * @param name the phase name
+     * @return the running phase, to be closed when the phase ends
+     */
+    public Phase start(String name) {
+        Phase phase = new Phase(name);
+        phases.add(phase);
+        return phase;
+    }
+
+    /**
+     * Gets all phases started so far, in start order.
+     *
+     * @return the phases
+     */
+    public List<Phase> getPhases() {
+        return Collections.unmodifiableList(phases);
+    }
+
+    /**
+     * Formats the phases as a table for the doclet reporter.
+     *
+     * @return the multi-line summary
+     */
+    public String formatSummary() {
+        StringBuilder summary = new StringBuilder("Timing (wall / CPU / allocated):");
+        long wall = 0;
+        long cpu = 0;
+        long allocated = 0;
+        for (Phase phase : phases) {
+            appendRow(summary, phase.getName(), phase.getWallNanos(), phase.getCpuNanos(), phase.getAllocatedBytes());
+            wall += phase.getWallNanos();
+            cpu = sum(cpu, phase.getCpuNanos());
+            allocated = sum(allocated, phase.getAllocatedBytes());
+        }
+        appendRow(summary, "total", wall, cpu, allocated);
+        return summary.toString();
+    }
+
+    /**
+     * Writes the phases as a JSON report.
+     *
+     * @param out the writer receiving the report; not closed
+     * @throws IOException if writing fails
+     */
+    public void writeJson(Writer out) throws IOException {
+        JsonWriter json = new JsonWriter(out);
+        json.setIndent("  ");
+        json.beginObject();
+        json.name("phases").beginArray();
+        for (Phase phase : phases) {
+            json.beginObject();
+            json.name("name").value(phase.getName());
+            json.name("wallNanos").value(phase.getWallNanos());
+            json.name("cpuNanos").value(phase.getCpuNanos());
+            json.name("allocatedBytes").value(phase.getAllocatedBytes());
+            json.endObject();
+        }
+        json.endArray();
+        json.endObject();
+        json.flush();
+    }
+
+    /**
+     * Gets the CPU time of the current thread.
+     *
+     * @return the CPU time in nanoseconds, or {@code -1} if not supported
+     */
+    public static long currentThreadCpuNanos() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    /**
+     * Gets the bytes allocated by the current thread so far.
+     *
+     * @return the allocated bytes, or {@code -1} if not supported
+     */
+    public static long currentThreadAllocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    private static void appendRow(StringBuilder summary, String name, long wallNanos, long cpuNanos, long allocatedBytes) {
+        summary.append(String.format(Locale.ROOT, "%n  %-20s %10.1f ms %10s %12s", name, wallNanos / 1e6,
+                cpuNanos < 0 ? "n/a" : String.format(Locale.ROOT, "%.1f ms", cpuNanos / 1e6),
+                allocatedBytes < 0 ? "n/a" : String.format(Locale.ROOT, "%.1f MB", allocatedBytes / 1e6)));
+    }
+
+    private static long sum(long total, long value) {
+        return total < 0 || value < 0 ? -1 : total + value;
+    }
+
+    private static long difference(long end, long start) {
+        return end < 0 || start < 0 ? -1 : end - start;
+    }
+
+    /**
+     * A measured phase. Values are final once the phase is closed.
+     */
+    public static final class Phase implements AutoCloseable {
+
+        private final String name;
+        private final PhaseEvent event = new PhaseEvent();
+        private final long wallStart = System.nanoTime();
+        private final long cpuStart = currentThreadCpuNanos();
+        private final long allocatedStart = currentThreadAllocatedBytes();
+
+        private long wallNanos;
+        private long cpuNanos;
+        private long allocatedBytes;
+        private long extraCpuNanos;
+        private long extraAllocatedBytes;
+
+        private Phase(String name) {
+            this.name = name;
+            event.begin();
+        }
+
+        /**
+         * Adds resources used for this phase on other threads.
+         *
+         * @param cpuNanos CPU time in nanoseconds, {@code -1} if unknown
+         * @param allocatedBytes allocated bytes, {@code -1} if unknown
+         */
+        public void addUsage(long cpuNanos, long allocatedBytes) {
+            extraCpuNanos = sum(extraCpuNanos, cpuNanos);
+            extraAllocatedBytes = sum(extraAllocatedBytes, allocatedBytes);
+        }
+
+        /**
+         * Ends the phase.
+         */
+        @Override
+        public void close() {
+            wallNanos = System.nanoTime() - wallStart;
+            cpuNanos = sum(difference(currentThreadCpuNanos(), cpuStart), extraCpuNanos);
+            allocatedBytes = sum(difference(currentThreadAllocatedBytes(), allocatedStart), extraAllocatedBytes);
+            event.end();
+            if (event.shouldCommit()) {
+                event.phase = name;
+                event.cpuTime = cpuNanos;
+                event.allocated = allocatedBytes;
+                event.commit();
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getWallNanos() {
+            return wallNanos;
+        }
+
+        public long getCpuNanos() {
+            return cpuNanos;
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+    }
+}
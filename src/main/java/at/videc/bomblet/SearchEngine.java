@@ -0,0 +1,341 @@
+package at.videc.bomblet;
+
+import at.videc.bomblet.dto.SearchIndexEntry;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ranks the entries of a search index for a query on the server, with the same ranking as
+ * {@code filterSearchIndex} in search.js.
+ *
+ * <p>A result scores the base score of its match kind plus the entry's boost, times the weight of its
+ * category. Match kinds, all case-insensitive:</p>
+ * <ul>
+ *   <li><strong>exact</strong> (1000): the name equals the query</li>
+ *   <li><strong>prefix</strong> (800): the name starts with the query</li>
+ *   <li><strong>word</strong> (600): the query starts a word of the name or matches the initials of its words</li>
+ *   <li><strong>substring</strong> (400): the name contains the query</li>
+ *   <li><strong>fuzzy</strong> (200 + up to 99): the name contains the query characters in order, starting at a
+ *       word; more points the fewer characters lie in between</li>
+ *   <li><strong>other</strong> (100): only the qualified name or signature contains the query; searched only for
+ *       categories with fewer name matches than results shown</li>
+ * </ul>
+ *
+ * <p>Both implementations must agree, otherwise the served documentation ranks differently than the
+ * single-file page. The only difference is in the last tier: the server ranks every qualified name and
+ * signature match, as the client does when its trigram index narrows the query down, while the client
+ * takes the first ones in index order for queries the trigram index cannot narrow down.</p>
+ *
+ * <p><strong>Thread Safety:</strong></p>
+ * <p>This class is immutable after construction and may be queried by several threads.</p>
+ *
+ * @author DoomDoc Team
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see PackageTree#buildSearchIndex()
+ */
+public class SearchEngine {
+
+    /**
+     * Maximum number of results per category.
+     */
+    public static final int RESULTS_PER_CATEGORY = 5;
+
+    private static final int SCORE_EXACT = 1000;
+    private static final int SCORE_PREFIX = 800;
+    private static final int SCORE_WORD = 600;
+    private static final int SCORE_SUBSTRING = 400;
+    private static final int SCORE_FUZZY = 200;
+    private static final int SCORE_OTHER = 100;
+
+    /**
+     * Result category of each entry category, in the order of the faceted results.
+     */
+    private static final Map<String, String> CATEGORY_KEYS = new LinkedHashMap<>();
+
+    /**
+     * Weight of each result category.
+     */
+    private static final Map<String, Double> WEIGHTS = new LinkedHashMap<>();
+
+    static {
+        CATEGORY_KEYS.put("class", "classes");
+        CATEGORY_KEYS.put("interface", "interfaces");
+        CATEGORY_KEYS.put("enum", "enums");
+        CATEGORY_KEYS.put("annotation", "annotations");
+        CATEGORY_KEYS.put("method", "methods");
+        CATEGORY_KEYS.put("field", "fields");
+        WEIGHTS.put("classes", 1.2);
+        WEIGHTS.put("interfaces", 1.2);
+        WEIGHTS.put("enums", 1.1);
+        WEIGHTS.put("annotations", 1.0);
+        WEIGHTS.put("methods", 1.0);
+        WEIGHTS.put("fields", 0.9);
+    }
+
+    private final List<SearchIndexEntry> entries;
+
+    /**
+     * Result category of each entry, or {@code null} for unknown categories.
+     */
+    private final String[] categoryKeys;
+
+    private final String[] namesLower;
+
+    /**
+     * Characters of each lower-cased name, see {@link #getCharMask(String)}.
+     */
+    private final int[] nameMasks;
+
+    /**
+     * Creates a search engine over the given entries.
+     *
+     * @param entries the search index entries; not copied and must not change afterwards
+     */
+    public SearchEngine(List<SearchIndexEntry> entries) {
+        this.entries = entries;
+        int count = entries.size();
+        this.categoryKeys = new String[count];
+        this.namesLower = new String[count];
+        this.nameMasks = new int[count];
+        for (int i = 0; i < count; i++) {
+            SearchIndexEntry entry = entries.get(i);
+            categoryKeys[i] = CATEGORY_KEYS.get(entry.getCategory());
+            namesLower[i] = entry.getName() == null ? "" : entry.getName().toLowerCase(Locale.ROOT);
+            nameMasks[i] = getCharMask(namesLower[i]);
+        }
+    }
+
+    /**
+     * Ranks the entries for a query.
+     *
+     * @param query the search query
+     * @return the best results of every category in descending score, ties in index order, keyed by
+     *         {@code classes}, {@code interfaces}, {@code enums}, {@code annotations}, {@code methods}
+     *         and {@code fields}
+     */
+    public Map<String, List<Result>> search(String query) {
+        Map<String, List<Result>> results = new LinkedHashMap<>();
+        for (String key : CATEGORY_KEYS.values()) {
+            results.put(key, new ArrayList<>(RESULTS_PER_CATEGORY));
+        }
+        if (query == null || query.isEmpty()) {
+            return results;
+        }
+
+        String queryLower = query.toLowerCase(Locale.ROOT);
+        int queryMask = getCharMask(queryLower);
+
+        // Rank by name
+        for (int i = 0; i < entries.size(); i++) {
+            String key = categoryKeys[i];
+            if (key == null || (nameMasks[i] & queryMask) != queryMask) {
+                continue;
+            }
+            int score = scoreName(entries.get(i).getName(), namesLower[i], queryLower);
+            if (score > 0) {
+                addRankedResult(results.get(key), i, (score + entries.get(i).getBoost()) * WEIGHTS.get(key));
+            }
+        }
+
+        // Fill categories with few name matches by matches in the qualified name or signature,
+        // which always rank below name matches
+        Set<String> open = new HashSet<>();
+        for (Map.Entry<String, List<Result>> category : results.entrySet()) {
+            if (category.getValue().size() < RESULTS_PER_CATEGORY) {
+                open.add(category.getKey());
+            }
+        }
+        for (int i = 0; i < entries.size() && !open.isEmpty(); i++) {
+            String key = categoryKeys[i];
+            if (key == null || !open.contains(key)) {
+                continue;
+            }
+            SearchIndexEntry entry = entries.get(i);
+            if (scoreName(entry.getName(), namesLower[i], queryLower) == 0 && otherMatches(entry, queryLower)) {
+                addRankedResult(results.get(key), i, (SCORE_OTHER + entry.getBoost()) * WEIGHTS.get(key));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Scores the match of a name against the query, without boost and category weight.
+     *
+     * @return the base score of the match kind, 0 if the name does not match
+     */
+    static int scoreName(String name, String nameLower, String queryLower) {
+        int position = nameLower.indexOf(queryLower);
+        if (position == 0) {
+            return nameLower.length() == queryLower.length() ? SCORE_EXACT : SCORE_PREFIX;
+        }
+        if (position > 0) {
+            for (; position > 0; position = nameLower.indexOf(queryLower, position + 1)) {
+                if (isWordStart(name, nameLower, position)) {
+                    return SCORE_WORD;
+                }
+            }
+            return SCORE_SUBSTRING;
+        }
+        return scoreFuzzyName(name, nameLower, queryLower);
+    }
+
+    /**
+     * Scores a name that does not contain the query as a word or fuzzy match.
+     */
+    private static int scoreFuzzyName(String name, String nameLower, String queryLower) {
+        // Reject names that do not contain the query characters in order
+        int j = 0;
+        for (int i = 0; i < nameLower.length() && j < queryLower.length(); i++) {
+            if (nameLower.charAt(i) == queryLower.charAt(j)) {
+                j++;
+            }
+        }
+        if (j < queryLower.length()) {
+            return 0;
+        }
+        if (isAcronym(name, nameLower, queryLower)) {
+            return SCORE_WORD;
+        }
+
+        // Tightest match starting at a word, matching the remaining characters as early as possible
+        char first = queryLower.charAt(0);
+        int bestGaps = -1;
+        for (int start = 0; start < nameLower.length(); start++) {
+            if (nameLower.charAt(start) != first || !isWordStart(name, nameLower, start)) {
+                continue;
+            }
+            int end = start;
+            int q = 1;
+            for (int p = start + 1; p < nameLower.length() && q < queryLower.length(); p++) {
+                if (nameLower.charAt(p) == queryLower.charAt(q)) {
+                    end = p;
+                    q++;
+                }
+            }
+            if (q < queryLower.length()) {
+                break; // Later starts match even fewer characters
+            }
+            int gaps = end - start + 1 - queryLower.length();
+            if (bestGaps < 0 || gaps < bestGaps) {
+                bestGaps = gaps;
+            }
+        }
+        if (bestGaps < 0) {
+            return 0;
+        }
+        return SCORE_FUZZY + Math.max(0, 99 - 10 * bestGaps);
+    }
+
+    /**
+     * Checks whether a word of a name starts at a position: at the start of the name, after
+     * '_', '$' or '.', at a capital letter after a lower-case letter or digit, and at the last
+     * capital of an acronym followed by a lower-case letter (the S of HTTPServer).
+     */
+    private static boolean isWordStart(String name, String nameLower, int position) {
+        if (position == 0) {
+            return true;
+        }
+        if (name.length() != nameLower.length()) {
+            return false; // Lower-casing changed the length, positions do not correspond
+        }
+        char previous = name.charAt(position - 1);
+        if (previous == '_' || previous == '$' || previous == '.') {
+            return true;
+        }
+        if (name.charAt(position) == nameLower.charAt(position)) {
+            return false;
+        }
+        if (previous == nameLower.charAt(position - 1)) {
+            return true;
+        }
+        int next = position + 1;
+        return next < name.length() && name.charAt(next) != Character.toUpperCase(name.charAt(next));
+    }
+
+    /**
+     * Checks whether the query matches the initials of the words of a name in order.
+     */
+    private static boolean isAcronym(String name, String nameLower, String queryLower) {
+        int j = 0;
+        for (int i = 0; i < nameLower.length() && j < queryLower.length(); i++) {
+            if (nameLower.charAt(i) == queryLower.charAt(j) && isWordStart(name, nameLower, i)) {
+                j++;
+            }
+        }
+        return j == queryLower.length();
+    }
+
+    /**
+     * Checks whether the qualified name or signature of an entry contains the query.
+     */
+    private static boolean otherMatches(SearchIndexEntry entry, String queryLower) {
+        return entry.getQualifiedName() != null && entry.getQualifiedName().toLowerCase(Locale.ROOT).contains(queryLower)
+                || entry.getSignature() != null && entry.getSignature().toLowerCase(Locale.ROOT).contains(queryLower);
+    }
+
+    /**
+     * Inserts a scored position into a list of at most {@link #RESULTS_PER_CATEGORY} results in descending
+     * score. A result scoring the same as one in the list is placed after it.
+     */
+    private void addRankedResult(List<Result> list, int position, double score) {
+        if (list.size() == RESULTS_PER_CATEGORY) {
+            if (list.get(RESULTS_PER_CATEGORY - 1).getScore() >= score) {
+                return;
+            }
+            list.remove(RESULTS_PER_CATEGORY - 1);
+        }
+        int i = list.size();
+        while (i > 0 && list.get(i - 1).getScore() < score) {
+            i--;
+        }
+        list.add(i, new Result(entries.get(position), score));
+    }
+
+    /**
+     * Sets a bit for every letter, one for digits and one for all other characters of a lower-cased text.
+     * A name can only match a query if its mask contains the query's mask.
+     */
+    private static int getCharMask(String textLower) {
+        int mask = 0;
+        for (int i = 0; i < textLower.length(); i++) {
+            char c = textLower.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                mask |= 1 << (c - 'a');
+            } else if (c >= '0' && c <= '9') {
+                mask |= 1 << 26;
+            } else {
+                mask |= 1 << 27;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * A ranked search index entry.
+     */
+    public static class Result {
+
+        private final SearchIndexEntry entry;
+        private final double score;
+
+        Result(SearchIndexEntry entry, double score) {
+            this.entry = entry;
+            this.score = score;
+        }
+
+        public SearchIndexEntry getEntry() {
+            return entry;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package at.videc.bomblet;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link JsonWriter} that replaces string values by indexes into a deduplicated string table.
+ *
+ * <p>Every string value of at most {@link #MAX_POOLED_LENGTH} characters is added to the table on its
+ * first occurrence and written as its table index; longer strings, which are mostly unique JavaDoc
+ * text, are written inline. The table itself is appended by {@link #writeStringTable()} as the
+ * {@code strings} member of the enclosing object. Readers therefore resolve every number in the model
+ * to {@code strings[number]} and keep every string as it is.</p>
+ *
+ * <p>The subtrees of {@link #UNPOOLED_FIELDS} hold untyped annotation and constant values or the
+ * numeric search postings, columns and boosts; they are written unchanged.</p>
+ *
+ * <p>Instances are not thread-safe.</p>
+ *
+ * @author DoomDoc Team
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see PackageTree#writePooledJson(Writer)
+ */
+class StringPoolingJsonWriter extends JsonWriter {
+
+    /**
+     * Strings longer than this are written inline.
+     */
+    static final int MAX_POOLED_LENGTH = 64;
+
+    /**
+     * Members whose values are written without pooling. Must match {@code UNPOOLED_MODEL_FIELDS} in tree.js.
+     */
+    static final Set<String> UNPOOLED_FIELDS = Set.of("values", "defaultValue", "constantValue", "searchTrigrams",
+            "categoryOffsets", "owners", "ownerPackages", "boost", "boosts");
+
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+
+    /**
+     * Current nesting depth of objects and arrays.
+     */
+    private int depth;
+
+    /**
+     * Depth at which the current unpooled subtree was opened, or -1 outside of unpooled subtrees.
+     */
+    private int unpooledDepth = -1;
+
+    /**
+     * Whether the value following the last name belongs to an unpooled member.
+     */
+    private boolean unpooledValuePending;
+
+    StringPoolingJsonWriter(Writer out) {
+        super(out);
+        setSerializeNulls(false);
+    }
+
+    /**
+     * Writes the string table as the {@code strings} member of the current object.
+     *
+     * @throws IOException if writing fails
+     */
+    void writeStringTable() throws IOException {
+        super.name("strings");
+        super.beginArray();
+        for (String string : strings) {
+            super.value(string);
+        }
+        super.endArray();
+    }
+
+    @Override
+    public JsonWriter name(String name) throws IOException {
+        unpooledValuePending = unpooledDepth < 0 && UNPOOLED_FIELDS.contains(name);
+        return super.name(name);
+    }
+
+    @Override
+    public JsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        boolean pooled = unpooledDepth < 0 && !unpooledValuePending && value.length() <= MAX_POOLED_LENGTH;
+        unpooledValuePending = false;
+        if (!pooled) {
+            return super.value(value);
+        }
+        Integer index = indexes.get(value);
+        if (index == null) {
+            index = strings.size();
+            indexes.put(value, index);
+            strings.add(value);
+        }
+        return super.value(index.longValue());
+    }
+
+    @Override
+    public JsonWriter beginObject() throws IOException {
+        enterContainer();
+        return super.beginObject();
+    }
+
+    @Override
+    public JsonWriter beginArray() throws IOException {
+        enterContainer();
+        return super.beginArray();
+    }
+
+    @Override
+    public JsonWriter endObject() throws IOException {
+        super.endObject();
+        leaveContainer();
+        return this;
+    }
+
+    @Override
+    public JsonWriter endArray() throws IOException {
+        super.endArray();
+        leaveContainer();
+        return this;
+    }
+
+    @Override
+    public JsonWriter nullValue() throws IOException {
+        unpooledValuePending = false;
+        return super.nullValue();
+    }
+
+    @Override
+    public JsonWriter value(boolean value) throws IOException {
+        unpooledValuePending = false;
+        return super.value(value);
+    }
+
+    @Override
+    public JsonWriter value(Boolean value) throws IOException {
+        unpooledValuePending = false;
+        return super.value(value);
+    }
+
+    @Override
+    public JsonWriter value(double value) throws IOException {
+        unpooledValuePending = false;
+        return super.value(value);
+    }
+
+    @Override
+    public JsonWriter value(long value) throws IOException {
+        unpooledValuePending = false;
+        return super.value(value);
+    }
+
+    @Override
+    public JsonWriter value(Number value) throws IOException {
+        unpooledValuePending = false;
+        return super.value(value);
+    }
+
+    private void enterContainer() {
+        if (unpooledValuePending) {
+            unpooledDepth = depth;
+            unpooledValuePending = false;
+        }
+        depth++;
+    }
+
+    private void leaveContainer() {
+        depth--;
+        if (depth == unpooledDepth) {
+            unpooledDepth = -1;
+        }
+    }
+}
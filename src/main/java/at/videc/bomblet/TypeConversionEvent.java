@@ -0,0 +1,137 @@
+package at.videc.bomblet;
+
+import at.videc.bomblet.dto.AnnotationElementInfo;
+import at.videc.bomblet.dto.AnnotationInfo;
+import at.videc.bomblet.dto.ClassInfo;
+import at.videc.bomblet.dto.ConstructorInfo;
+import at.videc.bomblet.dto.EnumConstantInfo;
+import at.videc.bomblet.dto.EnumInfo;
+import at.videc.bomblet.dto.FieldInfo;
+import at.videc.bomblet.dto.InterfaceInfo;
+import at.videc.bomblet.dto.JavaDocComment;
+import at.videc.bomblet.dto.JavaDocTag;
+import at.videc.bomblet.dto.MethodInfo;
+import at.videc.bomblet.dto.TypeInfo;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.List;
+
+/**
+ * Java Flight Recorder event spanning one {@link TypeElementConverter#convert} call.
+ *
+ * <p>The fields are filled from the converted DTO, and only if the event is committed, so a
+ * conversion outside of a recording only pays for {@link #begin()} and {@link #shouldCommit()}.</p>
+ *
+ * @author DoomDoc Team
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see TypeElementConverter#convert(javax.lang.model.element.TypeElement)
+ * @see PhaseEvent
+ */
+@Name(TypeConversionEvent.NAME)
+@Label("DoomDoc Type Conversion")
+@Category("DoomDoc")
+@Description("Conversion of one type element into its documentation DTO")
+@StackTrace(false)
+final class TypeConversionEvent extends Event {
+
+    static final String NAME = "at.videc.doomdoc.TypeConversion";
+
+    @Label("Type")
+    String typeName;
+
+    @Label("Kind")
+    String kind;
+
+    @Label("Fields")
+    @Description("Fields and enum constants")
+    int fields;
+
+    @Label("Methods")
+    @Description("Methods, constructors and annotation elements")
+    int methods;
+
+    @Label("Inner Types")
+    int innerTypes;
+
+    @Label("Javadoc Characters")
+    @Description("Characters of the converted doc comments of the type and its members")
+    int javadocSize;
+
+    /**
+     * Fills the event from a converted type.
+     *
+     * @param typeInfo the conversion result
+     */
+    void describe(TypeInfo typeInfo) {
+        typeName = typeInfo.getQualifiedName();
+        kind = typeInfo.getKind();
+        innerTypes = typeInfo.getInnerTypes().size();
+        javadocSize = size(typeInfo.getJavadoc());
+        if (typeInfo instanceof ClassInfo) {
+            ClassInfo classInfo = (ClassInfo) typeInfo;
+            countFields(classInfo.getFields());
+            countConstructors(classInfo.getConstructors());
+            countMethods(classInfo.getMethods());
+        } else if (typeInfo instanceof InterfaceInfo) {
+            InterfaceInfo interfaceInfo = (InterfaceInfo) typeInfo;
+            countFields(interfaceInfo.getFields());
+            countMethods(interfaceInfo.getMethods());
+        } else if (typeInfo instanceof EnumInfo) {
+            EnumInfo enumInfo = (EnumInfo) typeInfo;
+            for (EnumConstantInfo constant : enumInfo.getConstants()) {
+                fields++;
+                javadocSize += size(constant.getJavadoc());
+            }
+            countFields(enumInfo.getFields());
+            countConstructors(enumInfo.getConstructors());
+            countMethods(enumInfo.getMethods());
+        } else if (typeInfo instanceof AnnotationInfo) {
+            for (AnnotationElementInfo element : ((AnnotationInfo) typeInfo).getElements()) {
+                methods++;
+                javadocSize += size(element.getJavadoc());
+            }
+        }
+    }
+
+    private void countFields(List<FieldInfo> members) {
+        for (FieldInfo field : members) {
+            fields++;
+            javadocSize += size(field.getJavadoc());
+        }
+    }
+
+    private void countConstructors(List<ConstructorInfo> members) {
+        for (ConstructorInfo constructor : members) {
+            methods++;
+            javadocSize += size(constructor.getJavadoc());
+        }
+    }
+
+    private void countMethods(List<MethodInfo> members) {
+        for (MethodInfo method : members) {
+            methods++;
+            javadocSize += size(method.getJavadoc());
+        }
+    }
+
+    private static int size(JavaDocComment javadoc) {
+        if (javadoc == null) {
+            return 0;
+        }
+        int size = length(javadoc.getDescription());
+        for (JavaDocTag tag : javadoc.getTags()) {
+            size += length(tag.getDescription()) + length(tag.getContent());
+        }
+        return size;
+    }
+
+    private static int length(String text) {
+        return text == null ? 0 : text.length();
+    }
+}
@@ -8,10 +8,12 @@ import com.sun.source.util.DocTrees;
 import javax.lang.model.element.*;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.type.TypeVariable;
+import javax.lang.model.util.ElementKindVisitor9;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -35,7 +37,13 @@ import java.util.stream.Collectors;
  * rendering.</p>
  *
  * <p><strong>Thread Safety:</strong></p>
- * <p>This class is <strong>not thread-safe</strong>. Each thread should use its own instance.</p>
+ * <p>This class is <strong>not thread-safe</strong>. Each thread should use its own instance.
+ * The javac model behind the {@link DocletEnvironment} lazily completes symbols, parses doc comments
+ * and evaluates constant values on first access, which is not safe to do concurrently either. Instances
+ * that are used in parallel must therefore only be given types whose symbols were completed up front,
+ * and must share a common <em>model lock</em> for doc comments and constants, see
+ * {@link #TypeElementConverter(DocletEnvironment, Object)} and {@link ParallelTypeConverter}. They may
+ * also share one thread-safe {@link TypeNameCache}.</p>
  *
  * @author DoomDoc Team
  * @version 1.0.0
@@ -49,12 +57,35 @@ import java.util.stream.Collectors;
  */
 public class TypeElementConverter {
 
+    /**
+     * Version of the DTOs produced by this converter. Persisted conversion results, see
+     * {@link ConversionCache}, are only reused if they were produced by the same version, so it
+     * must be changed whenever a change to the converter alters its output.
+     */
+    public static final String VERSION = "2";
+
     /**
      * The doclet environment providing access to program structure and utilities.
      * Used for extracting JavaDoc comments and resolving type references.
      */
     private final DocletEnvironment environment;
 
+    /**
+     * Guards lazily initialized state of the javac model (doc comment parsing, constant evaluation).
+     * Shared between all converters working on the same environment.
+     */
+    private final Object modelLock;
+
+    /**
+     * Renders and canonicalizes type names. May be shared between converters.
+     */
+    private final TypeNameCache typeNames;
+
+    /**
+     * Renders doc comment content into a buffer reused for all comments of this converter.
+     */
+    private final DocTreeRenderer docRenderer = new DocTreeRenderer();
+
     /**
      * Constructs a converter with the specified doclet environment.
      *
@@ -62,7 +93,53 @@ public class TypeElementConverter {
      * @throws NullPointerException if environment is null
      */
     public TypeElementConverter(DocletEnvironment environment) {
+        this(environment, new Object());
+    }
+
+    /**
+     * Constructs a converter that synchronizes its javac model access on the given lock.
+     * All converters used concurrently on the same environment must share the same lock.
+     *
+     * @param environment the doclet environment for accessing program structure
+     * @param modelLock the lock guarding lazily initialized javac model state
+     * @throws NullPointerException if environment or modelLock is null
+     */
+    public TypeElementConverter(DocletEnvironment environment, Object modelLock) {
+        this(environment, modelLock, new TypeNameCache());
+    }
+
+    /**
+     * Constructs a converter that synchronizes its javac model access on the given lock and renders
+     * type names through the given cache. The cache may be shared with other converters.
+     *
+     * @param environment the doclet environment for accessing program structure
+     * @param modelLock the lock guarding lazily initialized javac model state
+     * @param typeNames the type name cache
+     * @throws NullPointerException if environment, modelLock or typeNames is null
+     */
+    public TypeElementConverter(DocletEnvironment environment, Object modelLock, TypeNameCache typeNames) {
         this.environment = environment;
+        this.modelLock = Objects.requireNonNull(modelLock, "modelLock");
+        this.typeNames = Objects.requireNonNull(typeNames, "typeNames");
+    }
+
+    /**
+     * Gets the cache this converter renders type names with, e.g. for its hit statistics.
+     *
+     * @return the type name cache
+     */
+    public TypeNameCache getTypeNameCache() {
+        return typeNames;
+    }
+
+    /**
+     * Gets the lock this converter guards javac model access with, for callers inspecting the model on
+     * its behalf, see {@link ConversionCache}.
+     *
+     * @return the model lock
+     */
+    Object getModelLock() {
+        return modelLock;
     }
 
     /**
@@ -89,6 +166,8 @@ public class TypeElementConverter {
      *   <li>Applied annotations with values</li>
      * </ol>
      *
+     * <p>Every call is recorded as a {@link TypeConversionEvent} when Java Flight Recorder is recording.</p>
+     *
      * @param typeElement the type element to convert (class, interface, enum, or annotation)
      * @return a {@link TypeInfo} DTO representing the type
      * @throws IllegalArgumentException if the element kind is not supported
@@ -99,6 +178,21 @@ public class TypeElementConverter {
      * @see #convertToAnnotationInfo(TypeElement)
      */
     public TypeInfo convert(TypeElement typeElement) {
+        TypeConversionEvent event = new TypeConversionEvent();
+        event.begin();
+        TypeInfo typeInfo = convertElement(typeElement);
+        event.end();
+        if (event.shouldCommit()) {
+            event.describe(typeInfo);
+            event.commit();
+        }
+        return typeInfo;
+    }
+
+    /**
+     * Dispatches the conversion by element kind.
+     */
+    private TypeInfo convertElement(TypeElement typeElement) {
         ElementKind kind = typeElement.getKind();
 
         switch (kind) {
@@ -125,24 +219,21 @@ public class TypeElementConverter {
         // Superclass
         TypeMirror superclass = typeElement.getSuperclass();
         if (superclass != null) {
-            classInfo.setSuperClass(superclass.toString());
+            classInfo.setSuperClass(typeNames.getName(superclass));
         }
 
         // Interfaces
         List<String> interfaces = new ArrayList<>();
         for (TypeMirror iface : typeElement.getInterfaces()) {
-            interfaces.add(iface.toString());
+            interfaces.add(typeNames.getName(iface));
         }
         classInfo.setInterfaces(interfaces);
 
-        // Extract fields
-        classInfo.setFields(extractFields(typeElement));
-
-        // Extract constructors
-        classInfo.setConstructors(extractConstructors(typeElement));
-
-        // Extract methods
-        classInfo.setMethods(extractMethods(typeElement));
+        // Extract fields, constructors and methods
+        MemberCollector members = collectMembers(typeElement);
+        classInfo.setFields(members.fields);
+        classInfo.setConstructors(members.constructors);
+        classInfo.setMethods(members.methods);
 
         return classInfo;
     }
@@ -157,15 +248,14 @@ public class TypeElementConverter {
         // Super interfaces
         List<String> superInterfaces = new ArrayList<>();
         for (TypeMirror iface : typeElement.getInterfaces()) {
-            superInterfaces.add(iface.toString());
+            superInterfaces.add(typeNames.getName(iface));
         }
         interfaceInfo.setSuperInterfaces(superInterfaces);
 
-        // Extract fields (constants in interfaces)
-        interfaceInfo.setFields(extractFields(typeElement));
-
-        // Extract methods
-        interfaceInfo.setMethods(extractMethods(typeElement));
+        // Extract fields (constants in interfaces) and methods
+        MemberCollector members = collectMembers(typeElement);
+        interfaceInfo.setFields(members.fields);
+        interfaceInfo.setMethods(members.methods);
 
         return interfaceInfo;
     }
@@ -180,21 +270,16 @@ public class TypeElementConverter {
         // Interfaces
         List<String> interfaces = new ArrayList<>();
         for (TypeMirror iface : typeElement.getInterfaces()) {
-            interfaces.add(iface.toString());
+            interfaces.add(typeNames.getName(iface));
         }
         enumInfo.setInterfaces(interfaces);
 
-        // Extract enum constants
-        enumInfo.setConstants(extractEnumConstants(typeElement));
-
-        // Extract fields
-        enumInfo.setFields(extractFields(typeElement));
-
-        // Extract constructors
-        enumInfo.setConstructors(extractConstructors(typeElement));
-
-        // Extract methods
-        enumInfo.setMethods(extractMethods(typeElement));
+        // Extract enum constants, fields, constructors and methods
+        MemberCollector members = collectMembers(typeElement);
+        enumInfo.setConstants(members.enumConstants);
+        enumInfo.setFields(members.fields);
+        enumInfo.setConstructors(members.constructors);
+        enumInfo.setMethods(members.methods);
 
         return enumInfo;
     }
@@ -207,7 +292,7 @@ public class TypeElementConverter {
         fillCommonTypeInfo(annotationInfo, typeElement);
 
         // Extract annotation elements
-        annotationInfo.setElements(extractAnnotationElements(typeElement));
+        annotationInfo.setElements(collectMembers(typeElement).annotationElements);
 
         return annotationInfo;
     }
@@ -242,147 +327,117 @@ public class TypeElementConverter {
     }
 
     /**
-     * Extracts fields from a type element.
+     * Partitions the members of a type element into converted fields, constructors, methods,
+     * enum constants and annotation elements in a single pass over its enclosed elements.
      */
-    private List<FieldInfo> extractFields(TypeElement typeElement) {
-        List<FieldInfo> fields = new ArrayList<>();
-
+    private MemberCollector collectMembers(TypeElement typeElement) {
+        MemberCollector members = new MemberCollector(typeElement);
         for (Element enclosedElement : typeElement.getEnclosedElements()) {
-            if (enclosedElement.getKind() == ElementKind.FIELD) {
-                VariableElement fieldElement = (VariableElement) enclosedElement;
-                FieldInfo fieldInfo = new FieldInfo();
-
-                fieldInfo.setName(fieldElement.getSimpleName().toString());
-                fieldInfo.setType(fieldElement.asType().toString());
-                fieldInfo.setModifiers(extractModifiers(fieldElement));
-                fieldInfo.setAnnotations(extractAnnotations(fieldElement));
-
-                // Extract JavaDoc
-                fieldInfo.setJavadoc(extractJavaDoc(fieldElement));
-
-                // Constant value (for static final fields)
-                Object constantValue = fieldElement.getConstantValue();
-                if (constantValue != null) {
-                    fieldInfo.setConstantValue(constantValue.toString());
-                }
-
-                fields.add(fieldInfo);
-            }
+            enclosedElement.accept(members, null);
         }
-
-        return fields;
+        return members;
     }
 
     /**
-     * Extracts constructors from a type element.
+     * Converts a field element.
      */
-    private List<ConstructorInfo> extractConstructors(TypeElement typeElement) {
-        List<ConstructorInfo> constructors = new ArrayList<>();
-
-        for (Element enclosedElement : typeElement.getEnclosedElements()) {
-            if (enclosedElement.getKind() == ElementKind.CONSTRUCTOR) {
-                ExecutableElement constructorElement = (ExecutableElement) enclosedElement;
-                ConstructorInfo constructorInfo = new ConstructorInfo();
+    private FieldInfo convertField(VariableElement fieldElement) {
+        FieldInfo fieldInfo = new FieldInfo();
 
-                constructorInfo.setName(typeElement.getSimpleName().toString());
-                constructorInfo.setModifiers(extractModifiers(constructorElement));
-                constructorInfo.setAnnotations(extractAnnotations(constructorElement));
-                constructorInfo.setParameters(extractParameters(constructorElement));
-                constructorInfo.setExceptions(extractExceptions(constructorElement));
-                constructorInfo.setTypeParameters(extractTypeParameters(constructorElement.getTypeParameters()));
+        fieldInfo.setName(fieldElement.getSimpleName().toString());
+        fieldInfo.setType(typeNames.getName(fieldElement.asType()));
+        fieldInfo.setModifiers(extractModifiers(fieldElement));
+        fieldInfo.setAnnotations(extractAnnotations(fieldElement));
 
-                // Extract JavaDoc
-                constructorInfo.setJavadoc(extractJavaDoc(constructorElement));
+        // Extract JavaDoc
+        fieldInfo.setJavadoc(extractJavaDoc(fieldElement));
 
-                constructors.add(constructorInfo);
-            }
+        // Constant value (for static final fields), evaluated lazily by javac
+        Object constantValue;
+        synchronized (modelLock) {
+            constantValue = fieldElement.getConstantValue();
+        }
+        if (constantValue != null) {
+            fieldInfo.setConstantValue(constantValue.toString());
         }
 
-        return constructors;
+        return fieldInfo;
     }
 
     /**
-     * Extracts methods from a type element.
+     * Converts a constructor element. Constructors are named after their type.
      */
-    private List<MethodInfo> extractMethods(TypeElement typeElement) {
-        List<MethodInfo> methods = new ArrayList<>();
+    private ConstructorInfo convertConstructor(ExecutableElement constructorElement, String typeName) {
+        ConstructorInfo constructorInfo = new ConstructorInfo();
 
-        for (Element enclosedElement : typeElement.getEnclosedElements()) {
-            if (enclosedElement.getKind() == ElementKind.METHOD) {
-                ExecutableElement methodElement = (ExecutableElement) enclosedElement;
-                MethodInfo methodInfo = new MethodInfo();
-
-                methodInfo.setName(methodElement.getSimpleName().toString());
-                methodInfo.setReturnType(methodElement.getReturnType().toString());
-                methodInfo.setModifiers(extractModifiers(methodElement));
-                methodInfo.setAnnotations(extractAnnotations(methodElement));
-                methodInfo.setParameters(extractParameters(methodElement));
-                methodInfo.setExceptions(extractExceptions(methodElement));
-                methodInfo.setTypeParameters(extractTypeParameters(methodElement.getTypeParameters()));
-                methodInfo.setDefault(methodElement.isDefault());
-
-                // Extract JavaDoc
-                methodInfo.setJavadoc(extractJavaDoc(methodElement));
-
-                methods.add(methodInfo);
-            }
-        }
+        constructorInfo.setName(typeName);
+        constructorInfo.setModifiers(extractModifiers(constructorElement));
+        constructorInfo.setAnnotations(extractAnnotations(constructorElement));
+        constructorInfo.setParameters(extractParameters(constructorElement));
+        constructorInfo.setExceptions(extractExceptions(constructorElement));
+        constructorInfo.setTypeParameters(extractTypeParameters(constructorElement.getTypeParameters()));
 
-        return methods;
+        // Extract JavaDoc
+        constructorInfo.setJavadoc(extractJavaDoc(constructorElement));
+
+        return constructorInfo;
     }
 
     /**
-     * Extracts enum constants from an enum type element.
+     * Converts a method element.
      */
-    private List<EnumConstantInfo> extractEnumConstants(TypeElement typeElement) {
-        List<EnumConstantInfo> constants = new ArrayList<>();
-
-        for (Element enclosedElement : typeElement.getEnclosedElements()) {
-            if (enclosedElement.getKind() == ElementKind.ENUM_CONSTANT) {
-                VariableElement constantElement = (VariableElement) enclosedElement;
-                EnumConstantInfo constantInfo = new EnumConstantInfo();
+    private MethodInfo convertMethod(ExecutableElement methodElement) {
+        MethodInfo methodInfo = new MethodInfo();
+
+        methodInfo.setName(methodElement.getSimpleName().toString());
+        methodInfo.setReturnType(typeNames.getName(methodElement.getReturnType()));
+        methodInfo.setModifiers(extractModifiers(methodElement));
+        methodInfo.setAnnotations(extractAnnotations(methodElement));
+        methodInfo.setParameters(extractParameters(methodElement));
+        methodInfo.setExceptions(extractExceptions(methodElement));
+        methodInfo.setTypeParameters(extractTypeParameters(methodElement.getTypeParameters()));
+        methodInfo.setDefault(methodElement.isDefault());
+
+        // Extract JavaDoc
+        methodInfo.setJavadoc(extractJavaDoc(methodElement));
+
+        return methodInfo;
+    }
 
-                constantInfo.setName(constantElement.getSimpleName().toString());
-                constantInfo.setAnnotations(extractAnnotations(constantElement));
+    /**
+     * Converts an enum constant element.
+     */
+    private EnumConstantInfo convertEnumConstant(VariableElement constantElement) {
+        EnumConstantInfo constantInfo = new EnumConstantInfo();
 
-                // Extract JavaDoc
-                constantInfo.setJavadoc(extractJavaDoc(constantElement));
+        constantInfo.setName(constantElement.getSimpleName().toString());
+        constantInfo.setAnnotations(extractAnnotations(constantElement));
 
-                constants.add(constantInfo);
-            }
-        }
+        // Extract JavaDoc
+        constantInfo.setJavadoc(extractJavaDoc(constantElement));
 
-        return constants;
+        return constantInfo;
     }
 
     /**
-     * Extracts annotation elements from an annotation type element.
+     * Converts an element (method) of an annotation type.
      */
-    private List<AnnotationElementInfo> extractAnnotationElements(TypeElement typeElement) {
-        List<AnnotationElementInfo> elements = new ArrayList<>();
-
-        for (Element enclosedElement : typeElement.getEnclosedElements()) {
-            if (enclosedElement.getKind() == ElementKind.METHOD) {
-                ExecutableElement elementMethod = (ExecutableElement) enclosedElement;
-                AnnotationElementInfo elementInfo = new AnnotationElementInfo();
-
-                elementInfo.setName(elementMethod.getSimpleName().toString());
-                elementInfo.setType(elementMethod.getReturnType().toString());
-
-                // Extract default value
-                AnnotationValue defaultValue = elementMethod.getDefaultValue();
-                if (defaultValue != null) {
-                    elementInfo.setDefaultValue(convertAnnotationValue(defaultValue.getValue()));
-                }
+    private AnnotationElementInfo convertAnnotationElement(ExecutableElement elementMethod) {
+        AnnotationElementInfo elementInfo = new AnnotationElementInfo();
 
-                // Extract JavaDoc
-                elementInfo.setJavadoc(extractJavaDoc(elementMethod));
+        elementInfo.setName(elementMethod.getSimpleName().toString());
+        elementInfo.setType(typeNames.getName(elementMethod.getReturnType()));
 
-                elements.add(elementInfo);
-            }
+        // Extract default value
+        AnnotationValue defaultValue = elementMethod.getDefaultValue();
+        if (defaultValue != null) {
+            elementInfo.setDefaultValue(convertAnnotationValue(defaultValue.getValue()));
         }
 
-        return elements;
+        // Extract JavaDoc
+        elementInfo.setJavadoc(extractJavaDoc(elementMethod));
+
+        return elementInfo;
     }
 
     /**
@@ -390,7 +445,10 @@ public class TypeElementConverter {
      */
     private JavaDocComment extractJavaDoc(Element element) {
         DocTrees docTrees = environment.getDocTrees();
-        DocCommentTree docCommentTree = docTrees.getDocCommentTree(element);
+        DocCommentTree docCommentTree;
+        synchronized (modelLock) {
+            docCommentTree = docTrees.getDocCommentTree(element);
+        }
 
         if (docCommentTree == null) {
             return null;
@@ -399,11 +457,7 @@ public class TypeElementConverter {
         JavaDocComment javadoc = new JavaDocComment();
 
         // Extract description (full body) with HTML and inline tag processing
-        StringBuilder description = new StringBuilder();
-        for (DocTree tree : docCommentTree.getFullBody()) {
-            description.append(processDocTree(tree));
-        }
-        javadoc.setDescription(description.toString().trim());
+        javadoc.setDescription(docRenderer.render(docCommentTree.getFullBody()));
 
         // Extract tags
         List<JavaDocTag> tags = new ArrayList<>();
@@ -508,58 +562,27 @@ public class TypeElementConverter {
         if (trees == null || trees.isEmpty()) {
             return null;
         }
-
-        StringBuilder text = new StringBuilder();
-        for (DocTree tree : trees) {
-            text.append(processDocTree(tree));
-        }
-        return text.toString().trim();
-    }
-
-    /**
-     * Processes a single DocTree element, handling inline tags while preserving HTML.
-     */
-    private String processDocTree(DocTree tree) {
-        if (tree == null) {
-            return "";
-        }
-
-        // Handle inline tags - process these to make them more readable
-        if (tree instanceof LinkTree) {
-            LinkTree linkTree = (LinkTree) tree;
-            // For {@link}, extract the label or reference
-            List<? extends DocTree> label = linkTree.getLabel();
-            if (label != null && !label.isEmpty()) {
-                return extractText(label);
-            }
-            return linkTree.getReference().getSignature();
-        }
-
-        if (tree instanceof LiteralTree) {
-            LiteralTree literalTree = (LiteralTree) tree;
-            // For {@code} and {@literal}, return the body text
-            return literalTree.getBody().getBody();
-        }
-
-        // For all other elements (including HTML tags), preserve them as-is
-        return tree.toString();
+        return docRenderer.render(trees);
     }
 
     /**
      * Extracts parameters from an executable element (method or constructor).
      */
     private List<ParameterInfo> extractParameters(ExecutableElement executableElement) {
-        List<ParameterInfo> parameters = new ArrayList<>();
+        List<? extends VariableElement> paramElements = executableElement.getParameters();
+        List<ParameterInfo> parameters = new ArrayList<>(paramElements.size());
 
-        for (VariableElement paramElement : executableElement.getParameters()) {
+        // Only the last parameter of a varargs method is variadic
+        int varArgsIndex = executableElement.isVarArgs() ? paramElements.size() - 1 : -1;
+
+        for (int i = 0; i < paramElements.size(); i++) {
+            VariableElement paramElement = paramElements.get(i);
             ParameterInfo paramInfo = new ParameterInfo();
 
             paramInfo.setName(paramElement.getSimpleName().toString());
-            paramInfo.setType(paramElement.asType().toString());
+            paramInfo.setType(typeNames.getName(paramElement.asType()));
             paramInfo.setAnnotations(extractAnnotations(paramElement));
-            paramInfo.setVarArgs(executableElement.isVarArgs() &&
-                                 executableElement.getParameters().indexOf(paramElement) ==
-                                 executableElement.getParameters().size() - 1);
+            paramInfo.setVarArgs(i == varArgsIndex);
 
             parameters.add(paramInfo);
         }
@@ -572,7 +595,7 @@ public class TypeElementConverter {
      */
     private List<String> extractExceptions(ExecutableElement executableElement) {
         return executableElement.getThrownTypes().stream()
-                .map(TypeMirror::toString)
+                .map(typeNames::getName)
                 .collect(Collectors.toList());
     }
 
@@ -594,7 +617,7 @@ public class TypeElementConverter {
         for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
             AnnotationUsage annotationUsage = new AnnotationUsage();
 
-            annotationUsage.setType(annotationMirror.getAnnotationType().toString());
+            annotationUsage.setType(typeNames.getName(annotationMirror.getAnnotationType()));
 
             // Extract annotation values
             Map<String, Object> values = new HashMap<>();
@@ -667,8 +690,8 @@ public class TypeElementConverter {
 
             // Extract bounds
             List<String> bounds = typeParam.getBounds().stream()
-                    .filter(bound -> !bound.toString().equals("java.lang.Object"))
-                    .map(TypeMirror::toString)
+                    .map(typeNames::getName)
+                    .filter(bound -> !bound.equals("java.lang.Object"))
                     .collect(Collectors.toList());
             parameter.setBounds(bounds);
 
@@ -677,4 +700,57 @@ public class TypeElementConverter {
 
         return parameters;
     }
+
+    /**
+     * Element visitor partitioning the enclosed elements of one type by kind and converting them
+     * on the fly. Methods of annotation types are converted to {@link AnnotationElementInfo}s;
+     * fields of annotation types are not part of the model and are skipped.
+     * Nested types and initializers are ignored.
+     */
+    private final class MemberCollector extends ElementKindVisitor9<Void, Void> {
+
+        private final String typeName;
+        private final boolean annotationType;
+
+        private final List<FieldInfo> fields = new ArrayList<>();
+        private final List<ConstructorInfo> constructors = new ArrayList<>();
+        private final List<MethodInfo> methods = new ArrayList<>();
+        private final List<EnumConstantInfo> enumConstants = new ArrayList<>();
+        private final List<AnnotationElementInfo> annotationElements = new ArrayList<>();
+
+        MemberCollector(TypeElement typeElement) {
+            this.typeName = typeElement.getSimpleName().toString();
+            this.annotationType = typeElement.getKind() == ElementKind.ANNOTATION_TYPE;
+        }
+
+        @Override
+        public Void visitVariableAsField(VariableElement e, Void p) {
+            if (!annotationType) {
+                fields.add(convertField(e));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitVariableAsEnumConstant(VariableElement e, Void p) {
+            enumConstants.add(convertEnumConstant(e));
+            return null;
+        }
+
+        @Override
+        public Void visitExecutableAsConstructor(ExecutableElement e, Void p) {
+            constructors.add(convertConstructor(e, typeName));
+            return null;
+        }
+
+        @Override
+        public Void visitExecutableAsMethod(ExecutableElement e, Void p) {
+            if (annotationType) {
+                annotationElements.add(convertAnnotationElement(e));
+            } else {
+                methods.add(convertMethod(e));
+            }
+            return null;
+        }
+    }
 }
@@ -0,0 +1,367 @@
+package at.videc.bomblet;
+
+import at.videc.bomblet.dto.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Resolves the type references of a {@link DocumentationModel} to the documented types they link to.
+ *
+ * <p>The client renders type strings such as {@code java.util.Map<at.videc.dummy.User, java.lang.String>}
+ * as clickable signatures. It splits them into type tokens in {@code parseAndLinkTypes} (tree.js) and
+ * links every token that names a documented type, either by qualified or by simple name. This class
+ * performs that resolution once at generation time: it splits every rendered type string exactly like
+ * the client and records each token that resolves in the model's {@code typeLinks} table, mapping the
+ * token to the qualified name of the linked type. The browser then links a token with a single table
+ * lookup; tokens missing from the table are external types.</p>
+ *
+ * <p><strong>Resolution Rules:</strong></p>
+ * <ol>
+ *   <li>A token equal to the qualified name of a documented type links to that type.</li>
+ *   <li>Otherwise a token equal to the simple name of documented types links to the one in the
+ *       package that sorts first by name, the first one by name within that package.</li>
+ * </ol>
+ *
+ * <p>Only strings the client renders as links are resolved: annotation types, superclasses, interfaces,
+ * type parameter bounds of types, field, parameter, return and annotation element types, thrown
+ * exceptions and the exception and reference of javadoc tags.</p>
+ *
+ * <p>While resolving, every linked reference is counted for the type it links to. The counts measure
+ * how widely a type is used in the documented API and rank popular types first in the search.</p>
+ *
+ * <p>{@link #resolveType(TypeInfo)} and {@link #resolvePackage(PackageInfo)} resolve the references of a
+ * single type or package into separate {@link References}. As long as the documented types stay the same,
+ * the references of an unchanged type stay the same, so an incrementally updated model only resolves the
+ * types that changed, see {@link PackageTree#setIncrementalIndex(boolean)}.</p>
+ *
+ * @author DoomDoc Team
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see PackageTree#resolveTypeLinks()
+ */
+public class TypeLinkResolver {
+
+    /**
+     * Tokens the client never links: primitive types and wildcard keywords.
+     */
+    private static final Set<String> UNLINKED_TOKENS = Set.of("void", "boolean", "byte", "short", "int",
+            "long", "float", "double", "char", "extends", "super");
+
+    /**
+     * Qualified names of all documented types.
+     */
+    private final Set<String> qualifiedNames = new HashSet<>();
+
+    /**
+     * Qualified name of the preferred documented type for each simple name.
+     */
+    private final Map<String, String> simpleNames = new HashMap<>();
+
+    /**
+     * The references resolved by {@link #resolve(List)}, with links sorted for a deterministic model.
+     */
+    private final References all = new References(new TreeMap<>());
+
+    /**
+     * The references currently resolved into.
+     */
+    private References current = all;
+
+    /**
+     * Creates a resolver for the types of the given packages.
+     *
+     * @param packages the documented packages
+     */
+    public TypeLinkResolver(List<PackageInfo> packages) {
+        // String order, which compareByName in tree.js replicates, so simple names resolve in tree order
+        List<PackageInfo> sortedPackages = new ArrayList<>(packages);
+        sortedPackages.sort(Comparator.comparing(PackageInfo::getName));
+        for (PackageInfo packageInfo : sortedPackages) {
+            List<TypeInfo> types = new ArrayList<>(packageInfo.getTypes());
+            types.sort(Comparator.comparing(TypeInfo::getName));
+            for (TypeInfo type : types) {
+                qualifiedNames.add(type.getQualifiedName());
+                simpleNames.putIfAbsent(type.getName(), type.getQualifiedName());
+            }
+        }
+    }
+
+    /**
+     * Resolves all type references of the given packages.
+     *
+     * @param packages the packages whose references are resolved
+     * @return the link table, mapping each resolved token to the qualified name of its type
+     */
+    public Map<String, String> resolve(List<PackageInfo> packages) {
+        current = all;
+        for (PackageInfo packageInfo : packages) {
+            addJavaDoc(packageInfo.getJavadoc());
+            for (TypeInfo type : packageInfo.getTypes()) {
+                addType(type);
+            }
+        }
+        return all.getLinks();
+    }
+
+    /**
+     * Gets the number of references to each documented type found by {@link #resolve(List)}.
+     *
+     * @return the reference counts by qualified name; types that are never referenced are missing
+     */
+    public Map<String, Integer> getReferenceCounts() {
+        return all.getCounts();
+    }
+
+    /**
+     * Resolves the references of a single type and its members, without adding them to the result of
+     * {@link #resolve(List)}.
+     *
+     * @param type the type whose references are resolved
+     * @return the links and reference counts of the type
+     */
+    public References resolveType(TypeInfo type) {
+        current = new References(new HashMap<>());
+        try {
+            addType(type);
+            return current;
+        } finally {
+            current = all;
+        }
+    }
+
+    /**
+     * Resolves the references of the javadoc of a package, without its types and without adding them to
+     * the result of {@link #resolve(List)}.
+     *
+     * @param packageInfo the package whose references are resolved
+     * @return the links and reference counts of the package javadoc
+     */
+    public References resolvePackage(PackageInfo packageInfo) {
+        current = new References(new HashMap<>());
+        try {
+            addJavaDoc(packageInfo.getJavadoc());
+            return current;
+        } finally {
+            current = all;
+        }
+    }
+
+    /**
+     * Adds the references of a type and its members.
+     */
+    private void addType(TypeInfo type) {
+        addAnnotations(type.getAnnotations());
+        addTypeParameters(type.getTypeParameters());
+        addJavaDoc(type.getJavadoc());
+
+        if (type instanceof ClassInfo) {
+            ClassInfo classInfo = (ClassInfo) type;
+            addReference(classInfo.getSuperClass());
+            addReferences(classInfo.getInterfaces());
+            addFields(classInfo.getFields());
+            addConstructors(classInfo.getConstructors());
+            addMethods(classInfo.getMethods());
+        } else if (type instanceof InterfaceInfo) {
+            InterfaceInfo interfaceInfo = (InterfaceInfo) type;
+            addReferences(interfaceInfo.getSuperInterfaces());
+            addFields(interfaceInfo.getFields());
+            addMethods(interfaceInfo.getMethods());
+        } else if (type instanceof EnumInfo) {
+            EnumInfo enumInfo = (EnumInfo) type;
+            addReferences(enumInfo.getInterfaces());
+            if (enumInfo.getConstants() != null) {
+                for (EnumConstantInfo constant : enumInfo.getConstants()) {
+                    addAnnotations(constant.getAnnotations());
+                    addJavaDoc(constant.getJavadoc());
+                }
+            }
+            addFields(enumInfo.getFields());
+            addConstructors(enumInfo.getConstructors());
+            addMethods(enumInfo.getMethods());
+        } else if (type instanceof AnnotationInfo) {
+            AnnotationInfo annotationInfo = (AnnotationInfo) type;
+            if (annotationInfo.getElements() != null) {
+                for (AnnotationElementInfo element : annotationInfo.getElements()) {
+                    addTypeString(element.getType());
+                    addJavaDoc(element.getJavadoc());
+                }
+            }
+        }
+    }
+
+    private void addFields(List<FieldInfo> fields) {
+        if (fields == null) {
+            return;
+        }
+        for (FieldInfo field : fields) {
+            addAnnotations(field.getAnnotations());
+            addTypeString(field.getType());
+            addJavaDoc(field.getJavadoc());
+        }
+    }
+
+    private void addConstructors(List<ConstructorInfo> constructors) {
+        if (constructors == null) {
+            return;
+        }
+        for (ConstructorInfo constructor : constructors) {
+            addAnnotations(constructor.getAnnotations());
+            addParameters(constructor.getParameters());
+            addReferences(constructor.getExceptions());
+            addJavaDoc(constructor.getJavadoc());
+        }
+    }
+
+    private void addMethods(List<MethodInfo> methods) {
+        if (methods == null) {
+            return;
+        }
+        for (MethodInfo method : methods) {
+            addAnnotations(method.getAnnotations());
+            addParameters(method.getParameters());
+            addTypeString(method.getReturnType());
+            addReferences(method.getExceptions());
+            addJavaDoc(method.getJavadoc());
+        }
+    }
+
+    private void addParameters(List<ParameterInfo> parameters) {
+        if (parameters == null) {
+            return;
+        }
+        for (ParameterInfo parameter : parameters) {
+            addTypeString(parameter.getType());
+        }
+    }
+
+    private void addTypeParameters(List<TypeParameter> typeParameters) {
+        if (typeParameters == null) {
+            return;
+        }
+        for (TypeParameter typeParameter : typeParameters) {
+            if (typeParameter.getBounds() != null) {
+                for (String bound : typeParameter.getBounds()) {
+                    addTypeString(bound);
+                }
+            }
+        }
+    }
+
+    private void addAnnotations(List<AnnotationUsage> annotations) {
+        if (annotations == null) {
+            return;
+        }
+        for (AnnotationUsage annotation : annotations) {
+            addReference(annotation.getType());
+        }
+    }
+
+    private void addJavaDoc(JavaDocComment javadoc) {
+        if (javadoc == null || javadoc.getTags() == null) {
+            return;
+        }
+        for (JavaDocTag tag : javadoc.getTags()) {
+            addReference(tag.getException());
+            addReference(tag.getReference());
+        }
+    }
+
+    private void addReferences(List<String> references) {
+        if (references == null) {
+            return;
+        }
+        for (String reference : references) {
+            addReference(reference);
+        }
+    }
+
+    /**
+     * Adds a reference the client links as a whole ({@code makeTypeLink}).
+     */
+    private void addReference(String reference) {
+        if (reference == null || reference.isEmpty()) {
+            return;
+        }
+        String target = current.links.get(reference);
+        if (target == null) {
+            target = qualifiedNames.contains(reference) ? reference : simpleNames.get(reference);
+            if (target == null) {
+                return;
+            }
+            current.links.put(reference, target);
+        }
+        current.counts.merge(target, 1, Integer::sum);
+    }
+
+    /**
+     * Splits a type string into tokens like {@code parseAndLinkTypes} in tree.js and adds each token.
+     * Both must agree, otherwise the client looks up tokens that were never resolved.
+     */
+    private void addTypeString(String typeString) {
+        if (typeString == null || typeString.isEmpty()) {
+            return;
+        }
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < typeString.length(); i++) {
+            char c = typeString.charAt(i);
+            if (c == '<' || c == '>' || c == ',' || c == '[' || c == ']') {
+                addToken(current.toString().trim());
+                current.setLength(0);
+            } else if (c == ' ') {
+                String token = current.toString().trim();
+                if (token.equals("extends") || token.equals("super")) {
+                    current.setLength(0);
+                } else if (!token.isEmpty()) {
+                    current.append(c);
+                }
+            } else {
+                current.append(c);
+            }
+        }
+        addToken(current.toString().trim());
+    }
+
+    private void addToken(String token) {
+        if (!token.isEmpty() && !UNLINKED_TOKENS.contains(token)) {
+            addReference(token);
+        }
+    }
+
+    /**
+     * The links and reference counts resolved for a part of the model.
+     */
+    public static class References {
+
+        private final Map<String, String> links;
+        private final Map<String, Integer> counts = new HashMap<>();
+
+        References(Map<String, String> links) {
+            this.links = links;
+        }
+
+        /**
+         * Gets the resolved links, mapping each resolved token to the qualified name of its type.
+         *
+         * @return the links
+         */
+        public Map<String, String> getLinks() {
+            return links;
+        }
+
+        /**
+         * Gets the number of references to each documented type.
+         *
+         * @return the reference counts by qualified name
+         */
+        public Map<String, Integer> getCounts() {
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package at.videc.bomblet;
+
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Memoizing renderer of {@link TypeMirror} names as produced by {@link TypeMirror#toString()}.
+ *
+ * <p>The converter renders a type name for every field, parameter, return type, exception, bound,
+ * superclass and interface. Rendering walks the whole type, which is noticeable for long generic
+ * types, and every call returns a new string. This cache avoids both:</p>
+ *
+ * <ul>
+ *   <li><strong>Memoization:</strong> The name of a mirror that javac shares between uses (primitive
+ *   types, {@code void}, type variables and non-parameterized declared types) is rendered once and
+ *   then looked up by mirror. Parameterized, array and wildcard types are created anew for every
+ *   use, so they are rendered each time and not remembered by mirror.</li>
+ *   <li><strong>Canonicalization:</strong> Every rendered name is replaced by the first equal string
+ *   seen, so equal names in the DTO graph share one {@code String} instance.</li>
+ * </ul>
+ *
+ * <p>Javac mirrors compare by identity, so the mirror lookup never confuses distinct types.</p>
+ *
+ * <p><strong>Thread Safety:</strong></p>
+ * <p>This class is thread-safe and is shared by the workers of a {@link ParallelTypeConverter}.</p>
+ *
+ * @author DoomDoc Team
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see TypeElementConverter
+ */
+public class TypeNameCache {
+
+    /**
+     * Rendered names of shared mirrors.
+     */
+    private final ConcurrentMap<TypeMirror, String> names = new ConcurrentHashMap<>();
+
+    /**
+     * Canonical instance of every rendered name.
+     */
+    private final ConcurrentMap<String, String> canonicalNames = new ConcurrentHashMap<>();
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder canonicalHits = new LongAdder();
+
+    /**
+     * Gets the name of a type, equal to {@code type.toString()}.
+     *
+     * @param type the type to render
+     * @return the canonical rendered name
+     * @throws NullPointerException if type is null
+     */
+    public String getName(TypeMirror type) {
+        lookups.increment();
+        String name = names.get(type);
+        if (name != null) {
+            hits.increment();
+            return name;
+        }
+
+        name = canonicalize(type.toString());
+        if (isShared(type)) {
+            names.putIfAbsent(type, name);
+        }
+        return name;
+    }
+
+    /**
+     * Returns the canonical instance of a rendered name.
+     */
+    private String canonicalize(String name) {
+        String canonical = canonicalNames.putIfAbsent(name, name);
+        if (canonical == null) {
+            return name;
+        }
+        canonicalHits.increment();
+        return canonical;
+    }
+
+    /**
+     * Whether javac hands out the same mirror for every use of the type.
+     */
+    private static boolean isShared(TypeMirror type) {
+        TypeKind kind = type.getKind();
+        if (kind.isPrimitive() || kind == TypeKind.VOID || kind == TypeKind.TYPEVAR) {
+            return true;
+        }
+        return kind == TypeKind.DECLARED && ((DeclaredType) type).getTypeArguments().isEmpty();
+    }
+
+    /**
+     * Gets the number of names requested so far.
+     *
+     * @return the number of lookups
+     */
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    /**
+     * Gets the number of lookups answered without rendering the type.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of rendered names that were replaced by an equal name rendered before.
+     *
+     * @return the number of duplicate names dropped
+     */
+    public long getCanonicalHits() {
+        return canonicalHits.sum();
+    }
+
+    /**
+     * Gets the share of lookups answered without rendering the type.
+     *
+     * @return the hit rate between {@code 0} and {@code 1}, {@code 0} if nothing was looked up
+     */
+    public double getHitRate() {
+        long total = getLookups();
+        return total == 0 ? 0 : (double) getHits() / total;
+    }
+
+    /**
+     * Gets the number of distinct names rendered so far.
+     *
+     * @return the number of distinct names
+     */
+    public int getDistinctNames() {
+        return canonicalNames.size();
+    }
+}
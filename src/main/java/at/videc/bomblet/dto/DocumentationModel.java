@@ -2,6 +2,7 @@ package at.videc.bomblet.dto;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Root data model containing the complete documentation structure.
@@ -11,10 +12,13 @@ import java.util.List;
  * rendering and navigation.</p>
  *
  * <p><strong>Structure:</strong></p>
- * <p>The model consists of two main components:</p>
+ * <p>The model consists of four main components:</p>
  * <ul>
  *   <li><strong>Packages:</strong> Hierarchical organization of types by package</li>
- *   <li><strong>Search Index:</strong> Flat, searchable list of all documentation elements</li>
+ *   <li><strong>Search Index:</strong> Flat, searchable list of all documentation elements, or the same
+ *       data in columnar form ({@link SearchIndexColumns})</li>
+ *   <li><strong>Search Trigrams:</strong> Posting index over the search index for fast substring queries</li>
+ *   <li><strong>Type Links:</strong> Type references resolved to the documented types they link to</li>
  * </ul>
  *
  * <p><strong>Data Flow:</strong></p>
@@ -22,7 +26,8 @@ import java.util.List;
  *   <li>{@link at.videc.bomblet.TypeElementConverter} extracts types from source</li>
  *   <li>{@link at.videc.bomblet.PackageTree} organizes types into this model</li>
  *   <li>{@link at.videc.bomblet.PackageTree#buildSearchIndex()} populates search index</li>
- *   <li>{@link at.videc.bomblet.PackageTree#toCompactJson()} serializes to JSON</li>
+ *   <li>{@link at.videc.bomblet.PackageTree#resolveTypeLinks()} populates type links</li>
+ *   <li>{@link at.videc.bomblet.PackageTree#writeCompactJson(java.io.Writer)} streams the JSON</li>
  *   <li>{@link at.videc.DoomDoclet} embeds JSON in HTML output</li>
  *   <li>JavaScript reads model and generates interactive UI</li>
  * </ol>
@@ -49,6 +54,8 @@ import java.util.List;
  * @since 1.0.0
  * @see PackageInfo
  * @see SearchIndexEntry
+ * @see SearchIndexColumns
+ * @see SearchTrigramIndex
  * @see at.videc.bomblet.PackageTree
  */
 public class DocumentationModel {
@@ -64,6 +71,24 @@ public class DocumentationModel {
      */
     private List<SearchIndexEntry> searchIndex = new ArrayList<>();
 
+    /**
+     * Columnar encoding of the search index. Set instead of {@link #searchIndex} when the
+     * columnar encoding is selected, null otherwise.
+     */
+    private SearchIndexColumns searchColumns;
+
+    /**
+     * Trigram posting index over the search index, positions refer to {@link #searchIndex}
+     * or {@link #searchColumns}. Null until the search index is built.
+     */
+    private SearchTrigramIndex searchTrigrams;
+
+    /**
+     * Type reference tokens mapped to the qualified name of the documented type they link to,
+     * see {@link at.videc.bomblet.TypeLinkResolver}. Null until the links are resolved.
+     */
+    private Map<String, String> typeLinks;
+
     public List<PackageInfo> getPackages() {
         return packages;
     }
@@ -79,4 +104,28 @@ public class DocumentationModel {
     public void setSearchIndex(List<SearchIndexEntry> searchIndex) {
         this.searchIndex = searchIndex;
     }
+
+    public SearchIndexColumns getSearchColumns() {
+        return searchColumns;
+    }
+
+    public void setSearchColumns(SearchIndexColumns searchColumns) {
+        this.searchColumns = searchColumns;
+    }
+
+    public SearchTrigramIndex getSearchTrigrams() {
+        return searchTrigrams;
+    }
+
+    public void setSearchTrigrams(SearchTrigramIndex searchTrigrams) {
+        this.searchTrigrams = searchTrigrams;
+    }
+
+    public Map<String, String> getTypeLinks() {
+        return typeLinks;
+    }
+
+    public void setTypeLinks(Map<String, String> typeLinks) {
+        this.typeLinks = typeLinks;
+    }
 }
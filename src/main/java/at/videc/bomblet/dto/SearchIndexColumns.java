@@ -0,0 +1,173 @@
+package at.videc.bomblet.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Columnar encoding of the search index, an alternative to a list of {@link SearchIndexEntry} objects.
+ *
+ * <p>Entries are stored as parallel arrays, grouped by category and sorted by lower-cased name within
+ * each category. The client ranks the entries of a category by walking its range, and only rebuilds the
+ * entries of the results it shows. The encoding is smaller than one object per entry because values
+ * that are redundant between entries are stored once per owning type and reconstructed on demand:</p>
+ * <ul>
+ *   <li>{@code packageName} - {@code packages[ownerPackages[owners[i]]]}</li>
+ *   <li>{@code qualifiedName} - the owner's qualified name for types,
+ *       {@code ownerQualifiedName + "." + name} for members</li>
+ *   <li>{@code typeName} - the owner's simple name for members</li>
+ *   <li>{@code signature} - {@code name + "(" + parameters + ")"} for methods</li>
+ * </ul>
+ *
+ * <p><strong>Layout:</strong></p>
+ * <ul>
+ *   <li>Category {@code c} occupies positions {@code categoryOffsets[c]} to {@code categoryOffsets[c + 1]}</li>
+ *   <li>Type categories come first; the member part starts with the {@code method} category</li>
+ *   <li>{@code parameters} holds one value per method, {@code returnTypes} one value per member,
+ *       both indexed relative to the start of the member part</li>
+ * </ul>
+ */
+public class SearchIndexColumns {
+
+    /**
+     * Category names in storage order
+     */
+    private List<String> categories = new ArrayList<>();
+
+    /**
+     * Start position of every category, followed by the total entry count
+     */
+    private List<Integer> categoryOffsets = new ArrayList<>();
+
+    /**
+     * Simple name of every entry
+     */
+    private List<String> names = new ArrayList<>();
+
+    /**
+     * Owning type of every entry (the type itself for type entries), index into the owner columns
+     */
+    private List<Integer> owners = new ArrayList<>();
+
+    /**
+     * Simple name of every owner
+     */
+    private List<String> ownerNames = new ArrayList<>();
+
+    /**
+     * Qualified name of every owner
+     */
+    private List<String> ownerQualifiedNames = new ArrayList<>();
+
+    /**
+     * Package of every owner, index into {@link #packages}
+     */
+    private List<Integer> ownerPackages = new ArrayList<>();
+
+    /**
+     * Package names
+     */
+    private List<String> packages = new ArrayList<>();
+
+    /**
+     * Parameter list of every method, the part of the signature between the parentheses
+     */
+    private List<String> parameters = new ArrayList<>();
+
+    /**
+     * Return type of every method, type of every field
+     */
+    private List<String> returnTypes = new ArrayList<>();
+
+    /**
+     * Static ranking score of every entry, see {@link SearchIndexEntry#getBoost()}
+     */
+    private List<Integer> boosts = new ArrayList<>();
+
+    public List<String> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<String> categories) {
+        this.categories = categories;
+    }
+
+    public List<Integer> getCategoryOffsets() {
+        return categoryOffsets;
+    }
+
+    public void setCategoryOffsets(List<Integer> categoryOffsets) {
+        this.categoryOffsets = categoryOffsets;
+    }
+
+    public List<String> getNames() {
+        return names;
+    }
+
+    public void setNames(List<String> names) {
+        this.names = names;
+    }
+
+    public List<Integer> getOwners() {
+        return owners;
+    }
+
+    public void setOwners(List<Integer> owners) {
+        this.owners = owners;
+    }
+
+    public List<String> getOwnerNames() {
+        return ownerNames;
+    }
+
+    public void setOwnerNames(List<String> ownerNames) {
+        this.ownerNames = ownerNames;
+    }
+
+    public List<String> getOwnerQualifiedNames() {
+        return ownerQualifiedNames;
+    }
+
+    public void setOwnerQualifiedNames(List<String> ownerQualifiedNames) {
+        this.ownerQualifiedNames = ownerQualifiedNames;
+    }
+
+    public List<Integer> getOwnerPackages() {
+        return ownerPackages;
+    }
+
+    public void setOwnerPackages(List<Integer> ownerPackages) {
+        this.ownerPackages = ownerPackages;
+    }
+
+    public List<String> getPackages() {
+        return packages;
+    }
+
+    public void setPackages(List<String> packages) {
+        this.packages = packages;
+    }
+
+    public List<String> getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(List<String> parameters) {
+        this.parameters = parameters;
+    }
+
+    public List<String> getReturnTypes() {
+        return returnTypes;
+    }
+
+    public void setReturnTypes(List<String> returnTypes) {
+        this.returnTypes = returnTypes;
+    }
+
+    public List<Integer> getBoosts() {
+        return boosts;
+    }
+
+    public void setBoosts(List<Integer> boosts) {
+        this.boosts = boosts;
+    }
+}
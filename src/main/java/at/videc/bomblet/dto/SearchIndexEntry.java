@@ -42,6 +42,12 @@ public class SearchIndexEntry {
      */
     private String returnType;
 
+    /**
+     * Static ranking score of the item, independent of the query (higher ranks first).
+     * Combines the popularity of the item's type with the brevity of its name.
+     */
+    private int boost;
+
     // Constructor
     public SearchIndexEntry() {
     }
@@ -102,4 +108,12 @@ public class SearchIndexEntry {
     public void setReturnType(String returnType) {
         this.returnType = returnType;
     }
+
+    public int getBoost() {
+        return boost;
+    }
+
+    public void setBoost(int boost) {
+        this.boost = boost;
+    }
 }
@@ -0,0 +1,54 @@
+package at.videc.bomblet.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Trigram posting index over the search index, used by the client to find search candidates
+ * without scanning every {@link SearchIndexEntry}.
+ *
+ * <p>For every trigram (three consecutive characters) of the lower-cased {@code name},
+ * {@code qualifiedName} and {@code signature} of an entry, the posting list holds the positions
+ * of all entries containing it. A substring query of at least three characters can only match
+ * entries that appear in the posting lists of all its trigrams, so intersecting these lists
+ * yields a small candidate set which is then verified exactly.</p>
+ *
+ * <p><strong>Encoding:</strong></p>
+ * <ul>
+ *   <li>Posting lists are sorted and delta encoded: the first value is a position, every further
+ *       value is the distance to the previous position</li>
+ *   <li>Trigrams contained in a large fraction of all entries are listed in {@code stopGrams}
+ *       instead of getting a posting list; they do not narrow a query down and are skipped</li>
+ *   <li>A trigram that is neither posted nor a stop gram occurs in no entry</li>
+ * </ul>
+ */
+public class SearchTrigramIndex {
+
+    /**
+     * Trigrams too common to be worth a posting list
+     */
+    private List<String> stopGrams = new ArrayList<>();
+
+    /**
+     * Delta encoded posting lists by trigram
+     */
+    private Map<String, List<Integer>> postings = new TreeMap<>();
+
+    public List<String> getStopGrams() {
+        return stopGrams;
+    }
+
+    public void setStopGrams(List<String> stopGrams) {
+        this.stopGrams = stopGrams;
+    }
+
+    public Map<String, List<Integer>> getPostings() {
+        return postings;
+    }
+
+    public void setPostings(Map<String, List<Integer>> postings) {
+        this.postings = postings;
+    }
+}
@@ -0,0 +1,361 @@
+/**
+ * DoomDoc Model Loader
+ * Decodes the documentation model when it is embedded gzip-compressed and base64-encoded, and loads
+ * the package shards of a multi-file page and the packages and types of served documentation on demand.
+ */
+
+/**
+ * Pending and completed shard loads of a multi-file page by package name
+ */
+var packageShardRequests = Object.create(null);
+
+/**
+ * Pending and completed requests of served documentation by URL
+ */
+var modelContentRequests = Object.create(null);
+
+/**
+ * Decodes a gzip-compressed, base64-encoded documentation model.
+ * Uses the browser's DecompressionStream where available and falls back to a small
+ * JavaScript inflater otherwise, so the page works in every browser.
+ *
+ * @param {string} base64 - The base64-encoded gzip data
+ * @return {Promise<Object>} Promise resolving to the parsed documentation model
+ */
+function loadCompressedModel(base64) {
+    var bytes = base64ToBytes(base64);
+    if (typeof DecompressionStream === 'function' && typeof Response === 'function') {
+        var stream = new Blob([bytes]).stream().pipeThrough(new DecompressionStream('gzip'));
+        return new Response(stream).text()
+            .then(JSON.parse)
+            .catch(function(error) {
+                console.warn('DecompressionStream failed, using fallback inflater', error);
+                return parseInflatedModel(bytes);
+            });
+    }
+    return new Promise(function(resolve) {
+        resolve(parseInflatedModel(bytes));
+    });
+}
+
+/**
+ * Inflates and parses the model without DecompressionStream.
+ */
+function parseInflatedModel(bytes) {
+    return JSON.parse(new TextDecoder('utf-8').decode(inflateGzip(bytes)));
+}
+
+/**
+ * Converts a base64 string to bytes.
+ */
+function base64ToBytes(base64) {
+    var binary = atob(base64);
+    var bytes = new Uint8Array(binary.length);
+    for (var i = 0; i < binary.length; i++) {
+        bytes[i] = binary.charCodeAt(i);
+    }
+    return bytes;
+}
+
+// Length and distance tables of the deflate format (RFC 1951, section 3.2.5)
+var INFLATE_LENGTH_BASE = [3, 4, 5, 6, 7, 8, 9, 10, 11, 13, 15, 17, 19, 23, 27, 31,
+    35, 43, 51, 59, 67, 83, 99, 115, 131, 163, 195, 227, 258];
+var INFLATE_LENGTH_EXTRA = [0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 2, 2,
+    3, 3, 3, 3, 4, 4, 4, 4, 5, 5, 5, 5, 0];
+var INFLATE_DISTANCE_BASE = [1, 2, 3, 4, 5, 7, 9, 13, 17, 25, 33, 49, 65, 97, 129, 193,
+    257, 385, 513, 769, 1025, 1537, 2049, 3073, 4097, 6145, 8193, 12289, 16385, 24577];
+var INFLATE_DISTANCE_EXTRA = [0, 0, 0, 0, 1, 1, 2, 2, 3, 3, 4, 4, 5, 5, 6, 6,
+    7, 7, 8, 8, 9, 9, 10, 10, 11, 11, 12, 12, 13, 13];
+var INFLATE_CODE_LENGTH_ORDER = [16, 17, 18, 0, 8, 7, 9, 6, 10, 5, 11, 4, 12, 3, 13, 2, 14, 1, 15];
+
+/**
+ * Inflates a single-member gzip stream (RFC 1952).
+ *
+ * @param {Uint8Array} bytes - The gzip data
+ * @return {Uint8Array} The uncompressed data
+ */
+function inflateGzip(bytes) {
+    if (bytes.length < 18 || bytes[0] !== 0x1f || bytes[1] !== 0x8b || bytes[2] !== 8) {
+        throw new Error('Not a gzip stream');
+    }
+    var flags = bytes[3];
+    var pos = 10;
+    if (flags & 4) {
+        pos += 2 + (bytes[pos] | (bytes[pos + 1] << 8)); // FEXTRA
+    }
+    if (flags & 8) {
+        while (bytes[pos++] !== 0) {} // FNAME
+    }
+    if (flags & 16) {
+        while (bytes[pos++] !== 0) {} // FCOMMENT
+    }
+    if (flags & 2) {
+        pos += 2; // FHCRC
+    }
+    var end = bytes.length;
+    var size = (bytes[end - 4] | (bytes[end - 3] << 8) | (bytes[end - 2] << 16) | (bytes[end - 1] << 24)) >>> 0;
+    return inflateRaw(bytes, pos, new Uint8Array(size));
+}
+
+/**
+ * Inflates raw deflate data (RFC 1951) into a preallocated output buffer.
+ * Huffman codes are decoded canonically, one bit at a time, as in zlib's reference inflater "puff".
+ */
+function inflateRaw(src, pos, out) {
+    var bitBuffer = 0;
+    var bitCount = 0;
+    var outPos = 0;
+
+    function bits(count) {
+        while (bitCount < count) {
+            if (pos >= src.length) {
+                throw new Error('Unexpected end of deflate data');
+            }
+            bitBuffer |= src[pos++] << bitCount;
+            bitCount += 8;
+        }
+        var value = bitBuffer & ((1 << count) - 1);
+        bitBuffer >>>= count;
+        bitCount -= count;
+        return value;
+    }
+
+    function decode(table) {
+        var code = 0;
+        var first = 0;
+        var index = 0;
+        for (var len = 1; len < 16; len++) {
+            code |= bits(1);
+            var count = table.counts[len];
+            if (code - count < first) {
+                return table.symbols[index + (code - first)];
+            }
+            index += count;
+            first = (first + count) << 1;
+            code <<= 1;
+        }
+        throw new Error('Invalid Huffman code');
+    }
+
+    var fixedLiterals = null;
+    var fixedDistances = null;
+    var last;
+    do {
+        last = bits(1);
+        var type = bits(2);
+        if (type === 0) {
+            // Stored block: skip to the byte boundary and copy
+            bitBuffer = 0;
+            bitCount = 0;
+            var length = src[pos] | (src[pos + 1] << 8);
+            pos += 4;
+            out.set(src.subarray(pos, pos + length), outPos);
+            pos += length;
+            outPos += length;
+            continue;
+        }
+
+        var literals;
+        var distances;
+        if (type === 1) {
+            if (!fixedLiterals) {
+                var lengths = new Uint8Array(288 + 30);
+                lengths.fill(8, 0, 144);
+                lengths.fill(9, 144, 256);
+                lengths.fill(7, 256, 280);
+                lengths.fill(8, 280, 288);
+                lengths.fill(5, 288, 318);
+                fixedLiterals = buildHuffmanTable(lengths, 0, 288);
+                fixedDistances = buildHuffmanTable(lengths, 288, 30);
+            }
+            literals = fixedLiterals;
+            distances = fixedDistances;
+        } else if (type === 2) {
+            var literalCount = bits(5) + 257;
+            var distanceCount = bits(5) + 1;
+            var codeLengthCount = bits(4) + 4;
+            var codeLengths = new Uint8Array(19);
+            for (var i = 0; i < codeLengthCount; i++) {
+                codeLengths[INFLATE_CODE_LENGTH_ORDER[i]] = bits(3);
+            }
+            var codeLengthTable = buildHuffmanTable(codeLengths, 0, 19);
+            var codeLengthsAll = new Uint8Array(literalCount + distanceCount);
+            var n = 0;
+            while (n < literalCount + distanceCount) {
+                var symbol = decode(codeLengthTable);
+                if (symbol < 16) {
+                    codeLengthsAll[n++] = symbol;
+                    continue;
+                }
+                var repeat;
+                var value = 0;
+                if (symbol === 16) {
+                    if (n === 0) {
+                        throw new Error('Invalid code length repeat');
+                    }
+                    value = codeLengthsAll[n - 1];
+                    repeat = 3 + bits(2);
+                } else if (symbol === 17) {
+                    repeat = 3 + bits(3);
+                } else {
+                    repeat = 11 + bits(7);
+                }
+                while (repeat-- > 0) {
+                    codeLengthsAll[n++] = value;
+                }
+            }
+            literals = buildHuffmanTable(codeLengthsAll, 0, literalCount);
+            distances = buildHuffmanTable(codeLengthsAll, literalCount, distanceCount);
+        } else {
+            throw new Error('Invalid deflate block type');
+        }
+
+        for (;;) {
+            var literal = decode(literals);
+            if (literal < 256) {
+                out[outPos++] = literal;
+            } else if (literal === 256) {
+                break;
+            } else {
+                literal -= 257;
+                var copyLength = INFLATE_LENGTH_BASE[literal] + bits(INFLATE_LENGTH_EXTRA[literal]);
+                var distanceSymbol = decode(distances);
+                var from = outPos - INFLATE_DISTANCE_BASE[distanceSymbol] - bits(INFLATE_DISTANCE_EXTRA[distanceSymbol]);
+                while (copyLength-- > 0) {
+                    out[outPos++] = out[from++];
+                }
+            }
+        }
+    } while (!last);
+
+    return out;
+}
+
+/**
+ * Builds a canonical Huffman decoding table from code lengths.
+ */
+function buildHuffmanTable(lengths, offset, count) {
+    var counts = new Uint16Array(16);
+    for (var i = 0; i < count; i++) {
+        counts[lengths[offset + i]]++;
+    }
+    counts[0] = 0;
+    var offsets = new Uint16Array(16);
+    for (var len = 1; len < 15; len++) {
+        offsets[len + 1] = offsets[len] + counts[len];
+    }
+    var symbols = new Uint16Array(count);
+    for (var symbol = 0; symbol < count; symbol++) {
+        if (lengths[offset + symbol] !== 0) {
+            symbols[offsets[lengths[offset + symbol]]++] = symbol;
+        }
+    }
+    return { counts: counts, symbols: symbols };
+}
+
+/**
+ * Loads the shard holding the complete contents of a package of a multi-file page.
+ * The shard is a script calling packageShardLoaded, so it also loads from file:// URLs where
+ * fetch is not available. Each shard is requested once; later calls share the pending load.
+ *
+ * @param {string} packageName - The package name
+ * @return {Promise} Promise resolved once the package contents are merged into the model
+ */
+function loadPackageShard(packageName) {
+    var request = packageShardRequests[packageName];
+    if (request) {
+        return request.promise;
+    }
+    request = {};
+    request.promise = new Promise(function(resolve, reject) {
+        request.resolve = resolve;
+        request.reject = reject;
+    });
+    packageShardRequests[packageName] = request;
+
+    var script = document.createElement('script');
+    script.src = documentationModel.shards[packageName];
+    script.onerror = function() {
+        // Allow a retry on the next visit
+        delete packageShardRequests[packageName];
+        script.remove();
+        request.reject(new Error('Cannot load ' + script.src));
+    };
+    document.head.appendChild(script);
+    return request.promise;
+}
+
+/**
+ * Called by a package shard once it is loaded.
+ *
+ * @param {string} packageName - The package name
+ * @param {Object} packageInfo - The complete package with all its types
+ */
+function packageShardLoaded(packageName, packageInfo) {
+    mergePackageShard(packageName, packageInfo);
+    var request = packageShardRequests[packageName];
+    if (request) {
+        request.resolve();
+    }
+}
+
+/**
+ * Loads the javadoc of a package: from its endpoint when the documentation is served, otherwise
+ * with its shard.
+ *
+ * @param {string} packageName - The package name
+ * @return {Promise} Promise resolved once the package is merged into the model
+ */
+function loadPackageContent(packageName) {
+    var endpoints = documentationModel.endpoints;
+    if (!endpoints) {
+        return loadPackageShard(packageName);
+    }
+    return fetchModelContent(endpoints['package'] + encodeURIComponent(packageName)).then(function(summary) {
+        mergePackageSummary(packageName, summary);
+    });
+}
+
+/**
+ * Loads the members of a type: from its endpoint when the documentation is served, otherwise
+ * with the shard of its package.
+ *
+ * @param {string} packageName - The package name
+ * @param {string} typeName - The simple type name
+ * @return {Promise} Promise resolved once the type is merged into the model
+ */
+function loadTypeContent(packageName, typeName) {
+    var endpoints = documentationModel.endpoints;
+    if (!endpoints) {
+        return loadPackageShard(packageName);
+    }
+    var typeInfo = findType(packageName, typeName);
+    return fetchModelContent(endpoints.type + encodeURIComponent(typeInfo.qualifiedName)).then(function(content) {
+        mergeContent(typeInfo, content);
+    });
+}
+
+/**
+ * Fetches JSON from the documentation server. Each URL is requested once; later calls share the
+ * pending request. Failed requests are retried on the next call.
+ *
+ * @param {string} url - The URL, relative to the page
+ * @return {Promise<Object>} Promise resolving to the parsed JSON
+ */
+function fetchModelContent(url) {
+    var request = modelContentRequests[url];
+    if (request) {
+        return request;
+    }
+    request = fetch(url).then(function(response) {
+        if (!response.ok) {
+            throw new Error('Cannot load ' + url + ': ' + response.status + ' ' + response.statusText);
+        }
+        return response.json();
+    });
+    request.catch(function() {
+        delete modelContentRequests[url];
+    });
+    modelContentRequests[url] = request;
+    return request;
+}
@@ -9,20 +9,112 @@ var searchDropdownVisible = false;
 var searchSelectedIndex = -1;
 var searchCurrentResults = [];
 var searchDebounceTimer = null;
+var searchColumns = null;
+var searchMemberStart = 0;
+var searchTrigrams = null;
+var searchStopGrams = {};
+var searchDecodedPostings = {};
+var searchNames = null;
+var searchNamesLower = null;
+var searchNameMasks = null;
+var searchBoosts = null;
+var searchCategoryKeys = null;
+
+// Search worker state: the worker owns the index, queries are answered asynchronously
+var searchWorker = null;
+var searchModel = null;
+var searchQueryId = 0;
+var searchPendingQuery = null;
+var searchLatencyAverage = -1;
+var searchDebounceDelay = 150;
+
+/**
+ * URL of the search endpoint when the documentation is served (model.endpoints.search), queried
+ * instead of a local search index
+ */
+var searchEndpoint = null;
+
+/**
+ * Bounds of the adaptive debounce delay in milliseconds, see recordSearchLatency.
+ */
+var SEARCH_DEBOUNCE_MIN = 30;
+var SEARCH_DEBOUNCE_MAX = 300;
+
+/**
+ * Ranking of search results. A result scores the base score of its match kind plus its boost,
+ * the static score precomputed by PackageTree.buildSearchIndex (0 to 99), times the weight of its
+ * category. The base scores are more than 99 apart, so the match kind decides first within a
+ * category; the weights order the categories in the dropdown by their best result.
+ *
+ * Match kinds, all case-insensitive:
+ * - exact: the name equals the query
+ * - prefix: the name starts with the query
+ * - word: the query starts a word of the name (e.g. "map" in HashMap) or matches the initials
+ *   of its words (e.g. "npe" for NullPointerException)
+ * - substring: the name contains the query
+ * - fuzzy: the name contains the characters of the query in order, starting at a word; up to 99
+ *   points more the fewer characters lie in between
+ * - other: only the qualified name or signature contains the query
+ */
+var SEARCH_RANKING = {
+    categoryKeys: {
+        'class': 'classes',
+        'interface': 'interfaces',
+        'enum': 'enums',
+        'annotation': 'annotations',
+        'method': 'methods',
+        'field': 'fields'
+    },
+    weights: {
+        classes: 1.2,
+        interfaces: 1.2,
+        enums: 1.1,
+        annotations: 1.0,
+        methods: 1.0,
+        fields: 0.9
+    },
+    scores: {
+        exact: 1000,
+        prefix: 800,
+        word: 600,
+        substring: 400,
+        fuzzy: 200,
+        other: 100
+    },
+    resultsPerCategory: 5
+};
+
+/**
+ * Functions that make up the search engine. They run on the main thread as well as in the search
+ * worker, whose source is assembled from them, so both return identical results.
+ */
+var SEARCH_ENGINE_FUNCTIONS = [
+    loadSearchIndex, getSearchCharMask, filterSearchIndex, scoreSearchName, scoreFuzzySearchName, isSearchWordStart,
+    isSearchAcronym, addRankedSearchResult, getSearchResult, searchEntryMatches, getSearchEntry,
+    findSearchCandidates, getDecodedPostings, intersectSorted
+];
 
 /**
  * Initializes the search functionality with the documentation model.
  * Should be called after the documentation model is loaded.
  *
- * @param {Object} documentationModel - The documentation model containing searchIndex
+ * @param {Object} documentationModel - The documentation model containing searchIndex or searchColumns
  */
 function initializeSearch(documentationModel) {
-    if (!documentationModel || !documentationModel.searchIndex) {
+    documentationModel = resolveStringTable(documentationModel);
+    searchEndpoint = documentationModel && documentationModel.endpoints ? documentationModel.endpoints.search : null;
+    if (!documentationModel || (!documentationModel.searchIndex && !documentationModel.searchColumns && !searchEndpoint)) {
         console.warn('Search index not available in documentation model');
         return;
     }
 
-    searchIndex = documentationModel.searchIndex;
+    searchModel = documentationModel;
+    if (!searchEndpoint) {
+        searchWorker = createSearchWorker(documentationModel);
+        if (!searchWorker) {
+            loadSearchIndex(documentationModel);
+        }
+    }
 
     var searchInput = document.getElementById('globalSearch');
     if (!searchInput) {
@@ -84,38 +176,305 @@ function handleSearchInput(event) {
         return;
     }
 
-    // Debounce search for performance
+    // Debounce search for performance, adapted to the measured query latency
     searchDebounceTimer = setTimeout(function() {
-        var facetedResults = filterSearchIndex(query);
-        renderAutocompleteDropdown(facetedResults);
+        runSearchQuery(query, function(facetedResults) {
+            renderAutocompleteDropdown(facetedResults);
 
-        // Update ARIA state
-        input.setAttribute('aria-expanded', 'true');
-        searchDropdownVisible = true;
-    }, 150);
+            // Update ARIA state
+            input.setAttribute('aria-expanded', 'true');
+            searchDropdownVisible = true;
+        });
+    }, searchDebounceDelay);
 }
 
 /**
- * Filters the search index based on the query string.
- * Performs case-insensitive substring matching on name, qualifiedName, and signature.
- * Results are grouped by category and limited to 5 items per category (max 30 total).
+ * Runs a search query on the documentation server, in the search worker, or on the main thread if
+ * no worker is available.
+ * Only the latest query is answered: results of a query superseded by a newer one, or by closing
+ * the dropdown, are dropped.
  *
  * @param {string} query - The search query
- * @return {Object} Faceted results object with categories as keys
+ * @param {Function} callback - Receives the faceted results of the query
  */
-function filterSearchIndex(query) {
-    if (!searchIndex || !query) {
-        return {
-            classes: [],
-            interfaces: [],
-            enums: [],
-            annotations: [],
-            methods: [],
-            fields: []
-        };
+function runSearchQuery(query, callback) {
+    searchPendingQuery = {
+        id: ++searchQueryId,
+        query: query,
+        callback: callback,
+        start: performance.now()
+    };
+
+    if (searchEndpoint) {
+        fetchSearchResults(searchPendingQuery.id, query);
+    } else if (searchWorker) {
+        searchWorker.postMessage({ type: 'query', id: searchPendingQuery.id, query: query });
+    } else {
+        completeSearchQuery(searchPendingQuery.id, filterSearchIndex(query));
     }
+}
 
-    var queryLower = query.toLowerCase();
+/**
+ * Queries the search endpoint of the documentation server, which ranks like filterSearchIndex.
+ * A failed query is reported and leaves the dropdown unchanged.
+ *
+ * @param {number} id - The id of the query
+ * @param {string} query - The search query
+ */
+function fetchSearchResults(id, query) {
+    fetch(searchEndpoint + '?q=' + encodeURIComponent(query))
+        .then(function(response) {
+            if (!response.ok) {
+                throw new Error('Search failed: ' + response.status + ' ' + response.statusText);
+            }
+            return response.json();
+        })
+        .then(function(facetedResults) {
+            completeSearchQuery(id, facetedResults);
+        }, function(error) {
+            console.warn(error);
+        });
+}
+
+/**
+ * Passes the results of a query to its callback, unless a newer query was started since.
+ *
+ * @param {number} id - The id of the answered query
+ * @param {Object} facetedResults - The faceted results of the query
+ */
+function completeSearchQuery(id, facetedResults) {
+    var pending = searchPendingQuery;
+    if (!pending || pending.id !== id) {
+        return;
+    }
+    searchPendingQuery = null;
+    recordSearchLatency(performance.now() - pending.start);
+    pending.callback(facetedResults);
+}
+
+/**
+ * Drops the pending query, so its results are never rendered, and tells the worker to skip it.
+ */
+function cancelSearchQuery() {
+    if (!searchPendingQuery) {
+        return;
+    }
+    searchPendingQuery = null;
+    if (searchWorker) {
+        searchWorker.postMessage({ type: 'cancel' });
+    }
+}
+
+/**
+ * Adapts the debounce delay to the query latency: twice the moving average of the measured
+ * latency, kept between SEARCH_DEBOUNCE_MIN and SEARCH_DEBOUNCE_MAX. Small indexes answer within
+ * a few milliseconds and get the shortest delay; slow queries are started less often while typing.
+ *
+ * @param {number} latency - Time from starting a query to receiving its results, in milliseconds
+ */
+function recordSearchLatency(latency) {
+    searchLatencyAverage = searchLatencyAverage < 0 ? latency : 0.7 * searchLatencyAverage + 0.3 * latency;
+    searchDebounceDelay = Math.round(Math.min(SEARCH_DEBOUNCE_MAX,
+        Math.max(SEARCH_DEBOUNCE_MIN, 2 * searchLatencyAverage)));
+}
+
+/**
+ * Creates the search worker from an inlined Blob, so the single-file page needs no separate script,
+ * and hands it the search index. The worker owns the index from then on.
+ *
+ * @param {Object} documentationModel - The resolved documentation model
+ * @return {Worker|null} The worker, or null if the browser cannot create one (e.g. restricted by policy)
+ */
+function createSearchWorker(documentationModel) {
+    if (typeof Worker === 'undefined' || typeof Blob === 'undefined' || typeof URL === 'undefined') {
+        return null;
+    }
+
+    var source = 'var searchIndex = null, searchColumns = null, searchMemberStart = 0, searchTrigrams = null,'
+        + ' searchStopGrams = {}, searchDecodedPostings = {}, searchNames = null, searchNamesLower = null,'
+        + ' searchNameMasks = null, searchBoosts = null, searchCategoryKeys = null;\n'
+        + 'var SEARCH_RANKING = ' + JSON.stringify(SEARCH_RANKING) + ';\n'
+        + SEARCH_ENGINE_FUNCTIONS.map(function(engineFunction) {
+            return engineFunction.toString();
+        }).join('\n')
+        + '\n(' + searchWorkerMain.toString() + ')();';
+
+    var url = null;
+    var worker;
+    try {
+        url = URL.createObjectURL(new Blob([source], { type: 'text/javascript' }));
+        worker = new Worker(url);
+        worker.postMessage({
+            type: 'index',
+            index: {
+                searchIndex: documentationModel.searchIndex || null,
+                searchColumns: documentationModel.searchColumns || null,
+                searchTrigrams: documentationModel.searchTrigrams || null
+            }
+        });
+    } catch (e) {
+        console.warn('Search worker not available, searching on the main thread', e);
+        return null;
+    } finally {
+        if (url) {
+            URL.revokeObjectURL(url);
+        }
+    }
+
+    worker.onmessage = function(event) {
+        completeSearchQuery(event.data.id, event.data.results);
+    };
+    worker.onerror = function(event) {
+        event.preventDefault();
+        fallBackToMainThreadSearch(event.message);
+    };
+    return worker;
+}
+
+/**
+ * Terminates a failed search worker and continues searching on the main thread,
+ * answering the pending query there.
+ *
+ * @param {string} reason - The error reported by the worker
+ */
+function fallBackToMainThreadSearch(reason) {
+    console.warn('Search worker failed, searching on the main thread: ' + reason);
+    if (searchWorker) {
+        searchWorker.terminate();
+        searchWorker = null;
+    }
+    loadSearchIndex(searchModel);
+
+    var pending = searchPendingQuery;
+    if (pending) {
+        completeSearchQuery(pending.id, filterSearchIndex(pending.query));
+    }
+}
+
+/**
+ * Entry point of the search worker, runs inside the worker only.
+ * Queries that arrive while a query is being processed replace each other, so only the latest
+ * one is run and stale queries are skipped.
+ */
+function searchWorkerMain() {
+    var pendingQuery = null;
+    var scheduled = false;
+
+    function runPendingQuery() {
+        scheduled = false;
+        var query = pendingQuery;
+        pendingQuery = null;
+        if (query) {
+            self.postMessage({ id: query.id, results: filterSearchIndex(query.query) });
+        }
+    }
+
+    self.onmessage = function(event) {
+        var message = event.data;
+        if (message.type === 'index') {
+            loadSearchIndex(message.index);
+        } else if (message.type === 'query') {
+            pendingQuery = message;
+            if (!scheduled) {
+                // Handle the messages queued meanwhile first, so a newer query replaces this one
+                scheduled = true;
+                setTimeout(runPendingQuery, 0);
+            }
+        } else if (message.type === 'cancel') {
+            pendingQuery = null;
+        }
+    };
+}
+
+/**
+ * Loads the search index of a model into the search engine state.
+ *
+ * @param {Object} source - The documentation model or an object with its search fields
+ */
+function loadSearchIndex(source) {
+    searchIndex = source.searchIndex || null;
+    searchColumns = source.searchColumns || null;
+    searchMemberStart = 0;
+    if (searchColumns) {
+        searchMemberStart = searchColumns.categoryOffsets[searchColumns.categories.indexOf('method')];
+    }
+    searchTrigrams = source.searchTrigrams || null;
+    searchStopGrams = {};
+    searchDecodedPostings = {};
+    if (searchTrigrams) {
+        searchTrigrams.stopGrams.forEach(function(gram) {
+            searchStopGrams[gram] = true;
+        });
+    }
+
+    // Per-position columns scanned by every query
+    var count = searchColumns ? searchColumns.names.length : (searchIndex ? searchIndex.length : 0);
+    searchNames = new Array(count);
+    searchNamesLower = new Array(count);
+    searchNameMasks = new Int32Array(count);
+    searchBoosts = new Array(count);
+    searchCategoryKeys = new Array(count);
+    if (searchColumns) {
+        var boosts = searchColumns.boosts || [];
+        for (var c = 0; c < searchColumns.categories.length; c++) {
+            var key = SEARCH_RANKING.categoryKeys[searchColumns.categories[c]] || null;
+            for (var p = searchColumns.categoryOffsets[c]; p < searchColumns.categoryOffsets[c + 1]; p++) {
+                searchCategoryKeys[p] = key;
+            }
+        }
+        for (var i = 0; i < count; i++) {
+            searchNames[i] = searchColumns.names[i] || '';
+            searchBoosts[i] = boosts[i] || 0;
+        }
+    } else {
+        for (var j = 0; j < count; j++) {
+            var entry = searchIndex[j];
+            searchNames[j] = entry.name || '';
+            searchBoosts[j] = entry.boost || 0;
+            searchCategoryKeys[j] = SEARCH_RANKING.categoryKeys[entry.category] || null;
+        }
+    }
+    for (var n = 0; n < count; n++) {
+        searchNamesLower[n] = searchNames[n].toLowerCase();
+        searchNameMasks[n] = getSearchCharMask(searchNamesLower[n]);
+    }
+}
+
+/**
+ * Computes the set of characters of a lower-cased text as a bit mask: one bit per letter,
+ * one for all digits and one for all other characters. A name can only match a query if its
+ * mask contains every bit of the query's mask, which rejects most names without comparing them.
+ *
+ * @param {string} textLower - The lower-cased text
+ * @return {number} The character mask
+ */
+function getSearchCharMask(textLower) {
+    var mask = 0;
+    for (var i = 0; i < textLower.length; i++) {
+        var c = textLower.charCodeAt(i);
+        if (c >= 97 && c <= 122) {
+            mask |= 1 << (c - 97);
+        } else if (c >= 48 && c <= 57) {
+            mask |= 1 << 26;
+        } else {
+            mask |= 1 << 27;
+        }
+    }
+    return mask;
+}
+
+/**
+ * Filters and ranks the search index for the query string, see SEARCH_RANKING.
+ * Every name containing the query characters is scored against the query; qualified names and
+ * signatures are only searched for categories with fewer name matches than results shown, narrowed
+ * down by the trigram index. Queries too short for the trigram index stop searching them once these
+ * categories are full. Results are grouped by category, the best 5 of each in descending score,
+ * ties in index order.
+ *
+ * @param {string} query - The search query
+ * @return {Object} Faceted results object with categories as keys, every result with its score
+ */
+function filterSearchIndex(query) {
     var results = {
         classes: [],
         interfaces: [],
@@ -124,48 +483,365 @@ function filterSearchIndex(query) {
         methods: [],
         fields: []
     };
+    if ((!searchIndex && !searchColumns) || !query) {
+        return results;
+    }
 
-    // Map category names to result arrays
-    var categoryMap = {
-        'class': 'classes',
-        'interface': 'interfaces',
-        'enum': 'enums',
-        'annotation': 'annotations',
-        'method': 'methods',
-        'field': 'fields'
-    };
+    var queryLower = query.toLowerCase();
+    var scores = SEARCH_RANKING.scores;
+    var weights = SEARCH_RANKING.weights;
+    var limit = SEARCH_RANKING.resultsPerCategory;
+    var count = searchNames.length;
+    var queryMask = getSearchCharMask(queryLower);
+    var key;
+
+    // Rank by name
+    for (var i = 0; i < count; i++) {
+        key = searchCategoryKeys[i];
+        if (!key || (searchNameMasks[i] & queryMask) !== queryMask) {
+            continue;
+        }
+        var score = scoreSearchName(searchNames[i], searchNamesLower[i], queryLower);
+        if (score > 0) {
+            addRankedSearchResult(results[key], i, (score + searchBoosts[i]) * weights[key], limit);
+        }
+    }
 
-    // Filter search index entries
-    for (var i = 0; i < searchIndex.length; i++) {
-        var entry = searchIndex[i];
+    // Fill categories with few name matches by matches in the qualified name or signature,
+    // which always rank below name matches
+    var open = {};
+    var openCount = 0;
+    for (key in results) {
+        open[key] = results[key].length < limit;
+        if (open[key]) {
+            openCount++;
+        }
+    }
+    if (openCount > 0) {
+        var candidates = findSearchCandidates(queryLower);
+        var candidateCount = candidates ? candidates.length : count;
+        for (var k = 0; k < candidateCount && openCount > 0; k++) {
+            var position = candidates ? candidates[k] : k;
+            key = searchCategoryKeys[position];
+            if (!key || !open[key] || scoreSearchName(searchNames[position], searchNamesLower[position], queryLower) > 0) {
+                continue;
+            }
+            var entry = searchColumns ? getSearchEntry(position) : searchIndex[position];
+            if (searchEntryMatches(entry, queryLower)) {
+                addRankedSearchResult(results[key], position, (scores.other + searchBoosts[position]) * weights[key], limit);
+                if (!candidates && results[key].length === limit) {
+                    // Without candidates every entry is verified, stop once the category is full
+                    open[key] = false;
+                    openCount--;
+                }
+            }
+        }
+    }
 
-        // Check if any searchable field matches the query
-        var nameMatches = entry.name && entry.name.toLowerCase().indexOf(queryLower) !== -1;
-        var qualifiedMatches = entry.qualifiedName && entry.qualifiedName.toLowerCase().indexOf(queryLower) !== -1;
-        var signatureMatches = entry.signature && entry.signature.toLowerCase().indexOf(queryLower) !== -1;
+    for (key in results) {
+        results[key] = results[key].map(getSearchResult);
+    }
+    return results;
+}
 
-        if (nameMatches || qualifiedMatches || signatureMatches) {
-            var categoryKey = categoryMap[entry.category];
-            if (categoryKey && results[categoryKey].length < 5) {
-                results[categoryKey].push(entry);
+/**
+ * Scores the match of a name against the query, without boost and category weight.
+ *
+ * @param {string} name - The name
+ * @param {string} nameLower - The lower-cased name
+ * @param {string} queryLower - The lower-cased search query
+ * @return {number} The base score of the match kind, 0 if the name does not match
+ */
+function scoreSearchName(name, nameLower, queryLower) {
+    var scores = SEARCH_RANKING.scores;
+    var position = nameLower.indexOf(queryLower);
+    if (position === 0) {
+        return nameLower.length === queryLower.length ? scores.exact : scores.prefix;
+    }
+    if (position > 0) {
+        for (; position > 0; position = nameLower.indexOf(queryLower, position + 1)) {
+            if (isSearchWordStart(name, nameLower, position)) {
+                return scores.word;
             }
         }
+        return scores.substring;
+    }
+    return scoreFuzzySearchName(name, nameLower, queryLower);
+}
 
-        // Early exit if we've hit the max total results
-        var totalResults = results.classes.length + results.interfaces.length +
-                          results.enums.length + results.annotations.length +
-                          results.methods.length + results.fields.length;
-        if (totalResults >= 30) {
-            break;
+/**
+ * Scores a name that does not contain the query as a word or fuzzy match.
+ *
+ * @param {string} name - The name
+ * @param {string} nameLower - The lower-cased name
+ * @param {string} queryLower - The lower-cased search query
+ * @return {number} The word score for initials, the fuzzy score plus its closeness bonus, or 0
+ */
+function scoreFuzzySearchName(name, nameLower, queryLower) {
+    // Reject names that do not contain the query characters in order
+    var j = 0;
+    for (var i = 0; i < nameLower.length && j < queryLower.length; i++) {
+        if (nameLower.charCodeAt(i) === queryLower.charCodeAt(j)) {
+            j++;
         }
     }
+    if (j < queryLower.length) {
+        return 0;
+    }
+    if (isSearchAcronym(name, nameLower, queryLower)) {
+        return SEARCH_RANKING.scores.word;
+    }
 
-    return results;
+    // Tightest match starting at a word, matching the remaining characters as early as possible
+    var first = queryLower.charCodeAt(0);
+    var bestGaps = -1;
+    for (var start = 0; start < nameLower.length; start++) {
+        if (nameLower.charCodeAt(start) !== first || !isSearchWordStart(name, nameLower, start)) {
+            continue;
+        }
+        var end = start;
+        var q = 1;
+        for (var p = start + 1; p < nameLower.length && q < queryLower.length; p++) {
+            if (nameLower.charCodeAt(p) === queryLower.charCodeAt(q)) {
+                end = p;
+                q++;
+            }
+        }
+        if (q < queryLower.length) {
+            break; // Later starts match even fewer characters
+        }
+        var gaps = end - start + 1 - queryLower.length;
+        if (bestGaps < 0 || gaps < bestGaps) {
+            bestGaps = gaps;
+        }
+    }
+    if (bestGaps < 0) {
+        return 0;
+    }
+    return SEARCH_RANKING.scores.fuzzy + Math.max(0, 99 - 10 * bestGaps);
+}
+
+/**
+ * Checks whether a word of a name starts at a position: at the start of the name, after
+ * '_', '$' or '.', at a capital letter after a lower-case letter or digit, and at the last
+ * capital of an acronym followed by a lower-case letter (the S of HTTPServer).
+ *
+ * @param {string} name - The name
+ * @param {string} nameLower - The lower-cased name
+ * @param {number} position - The position in the name
+ * @return {boolean} True if a word starts at the position
+ */
+function isSearchWordStart(name, nameLower, position) {
+    if (position === 0) {
+        return true;
+    }
+    if (name.length !== nameLower.length) {
+        return false; // Lower-casing changed the length, positions do not correspond
+    }
+    var previous = name.charCodeAt(position - 1);
+    if (previous === 95 || previous === 36 || previous === 46) {
+        return true;
+    }
+    if (name.charCodeAt(position) === nameLower.charCodeAt(position)) {
+        return false;
+    }
+    if (previous === nameLower.charCodeAt(position - 1)) {
+        return true;
+    }
+    var next = position + 1;
+    return next < name.length && name.charAt(next) !== name.charAt(next).toUpperCase();
+}
+
+/**
+ * Checks whether the query matches the initials of the words of a name in order,
+ * e.g. "npe" for NullPointerException.
+ */
+function isSearchAcronym(name, nameLower, queryLower) {
+    var j = 0;
+    for (var i = 0; i < nameLower.length && j < queryLower.length; i++) {
+        if (nameLower.charCodeAt(i) === queryLower.charCodeAt(j) && isSearchWordStart(name, nameLower, i)) {
+            j++;
+        }
+    }
+    return j === queryLower.length;
+}
+
+/**
+ * Inserts a scored position into a list of at most limit results in descending score.
+ * A result scoring the same as one in the list is placed after it.
+ */
+function addRankedSearchResult(list, position, score, limit) {
+    if (list.length === limit) {
+        if (list[limit - 1].score >= score) {
+            return;
+        }
+        list.pop();
+    }
+    var i = list.length;
+    while (i > 0 && list[i - 1].score < score) {
+        i--;
+    }
+    list.splice(i, 0, { position: position, score: score });
+}
+
+/**
+ * Creates the result entry of a ranked position: a copy of its search index entry with its score.
+ */
+function getSearchResult(ranked) {
+    var entry;
+    if (searchColumns) {
+        entry = getSearchEntry(ranked.position);
+    } else {
+        entry = {};
+        var source = searchIndex[ranked.position];
+        for (var field in source) {
+            entry[field] = source[field];
+        }
+    }
+    entry.score = ranked.score;
+    return entry;
+}
+
+/**
+ * Checks whether the name, qualified name or signature of an entry contains the query.
+ *
+ * @param {Object} entry - The search index entry
+ * @param {string} queryLower - The lower-cased search query
+ * @return {boolean} True if the entry matches
+ */
+function searchEntryMatches(entry, queryLower) {
+    return !!((entry.name && entry.name.toLowerCase().indexOf(queryLower) !== -1) ||
+        (entry.qualifiedName && entry.qualifiedName.toLowerCase().indexOf(queryLower) !== -1) ||
+        (entry.signature && entry.signature.toLowerCase().indexOf(queryLower) !== -1));
+}
+
+/**
+ * Reconstructs the search index entry at a position of the columnar index.
+ *
+ * @param {number} position - The position in the columns
+ * @return {Object} Entry with the same fields as a searchIndex entry
+ */
+function getSearchEntry(position) {
+    var columns = searchColumns;
+    var category = 0;
+    while (columns.categoryOffsets[category + 1] <= position) {
+        category++;
+    }
+    var owner = columns.owners[position];
+    var entry = {
+        category: columns.categories[category],
+        name: columns.names[position],
+        packageName: columns.packages[columns.ownerPackages[owner]]
+    };
+    if (position < searchMemberStart) {
+        entry.qualifiedName = columns.ownerQualifiedNames[owner];
+        return entry;
+    }
+
+    var member = position - searchMemberStart;
+    entry.qualifiedName = columns.ownerQualifiedNames[owner] + '.' + entry.name;
+    entry.typeName = columns.ownerNames[owner];
+    if (entry.category === 'method') {
+        entry.signature = entry.name + '(' + columns.parameters[member] + ')';
+    }
+    if (columns.returnTypes[member] != null) {
+        entry.returnType = columns.returnTypes[member];
+    }
+    return entry;
+}
+
+/**
+ * Looks up the search index positions of all entries that may contain the query, using the trigram
+ * index embedded in the model. The candidates are a superset of the matches in ascending index order,
+ * so verifying them in that order yields the same results as a full scan.
+ *
+ * @param {string} queryLower - The lower-cased search query
+ * @return {Array|null} Sorted candidate positions, or null if the index cannot narrow the query down
+ */
+function findSearchCandidates(queryLower) {
+    if (!searchTrigrams || queryLower.length < 3) {
+        return null;
+    }
+
+    var lists = [];
+    var seen = {};
+    for (var i = 0; i + 3 <= queryLower.length; i++) {
+        var gram = queryLower.substring(i, i + 3);
+        if (seen[gram] === true || searchStopGrams[gram] === true) {
+            continue;
+        }
+        seen[gram] = true;
+        var postings = getDecodedPostings(gram);
+        if (!postings) {
+            return []; // No entry contains this trigram
+        }
+        lists.push(postings);
+    }
+    if (lists.length === 0) {
+        return null; // Only stop grams, which match too many entries to help
+    }
+
+    // Intersect starting with the shortest list
+    lists.sort(function(a, b) {
+        return a.length - b.length;
+    });
+    var result = lists[0];
+    for (var l = 1; l < lists.length && result.length > 0; l++) {
+        result = intersectSorted(result, lists[l]);
+    }
+    return result;
+}
+
+/**
+ * Returns the decoded posting list of a trigram, decoding the delta encoded list on first use.
+ *
+ * @param {string} gram - The trigram
+ * @return {Array|null} Ascending search index positions, or null if no entry contains the trigram
+ */
+function getDecodedPostings(gram) {
+    if (Object.prototype.hasOwnProperty.call(searchDecodedPostings, gram)) {
+        return searchDecodedPostings[gram];
+    }
+    var encoded = Object.prototype.hasOwnProperty.call(searchTrigrams.postings, gram)
+        ? searchTrigrams.postings[gram] : null;
+    var decoded = null;
+    if (encoded) {
+        decoded = new Array(encoded.length);
+        var position = 0;
+        for (var i = 0; i < encoded.length; i++) {
+            position += encoded[i];
+            decoded[i] = position;
+        }
+    }
+    searchDecodedPostings[gram] = decoded;
+    return decoded;
+}
+
+/**
+ * Intersects two ascending arrays of positions.
+ */
+function intersectSorted(a, b) {
+    var result = [];
+    var i = 0;
+    var j = 0;
+    while (i < a.length && j < b.length) {
+        if (a[i] === b[j]) {
+            result.push(a[i]);
+            i++;
+            j++;
+        } else if (a[i] < b[j]) {
+            i++;
+        } else {
+            j++;
+        }
+    }
+    return result;
 }
 
 /**
  * Renders the autocomplete dropdown with faceted search results.
- * Creates sections for each non-empty category with appropriate styling and badges.
+ * Creates sections for each non-empty category with appropriate styling and badges,
+ * ordered by the score of their best result.
  *
  * @param {Object} facetedResults - Faceted results object from filterSearchIndex
  */
@@ -207,6 +883,16 @@ function renderAutocompleteDropdown(facetedResults) {
         { key: 'fields', label: 'Fields', badgeClass: 'badge-field' }
     ];
 
+    // Categories with the best results first, in the order above on equal scores
+    categories.forEach(function(category, order) {
+        var items = facetedResults[category.key];
+        category.order = order;
+        category.score = items.length > 0 && items[0].score != null ? items[0].score : 0;
+    });
+    categories.sort(function(a, b) {
+        return b.score - a.score || a.order - b.order;
+    });
+
     var query = document.getElementById('globalSearch').value;
 
     categories.forEach(function(category) {
@@ -447,10 +1133,19 @@ function navigateToItem(searchIndexEntry) {
         // First show the parent type
         showType(searchIndexEntry.packageName, searchIndexEntry.typeName);
 
-        // Then scroll to the member after a brief delay for rendering
-        setTimeout(function() {
-            scrollToMember(searchIndexEntry.name, category);
-        }, 100);
+        // Then scroll to the member after a brief delay for rendering, once the
+        // type content of a multi-file page or served documentation is loaded
+        var typeInfo = findType(searchIndexEntry.packageName, searchIndexEntry.typeName);
+        var rendered = typeInfo && !isContentLoaded(typeInfo)
+            ? loadTypeContent(searchIndexEntry.packageName, searchIndexEntry.typeName)
+            : Promise.resolve();
+        rendered.then(function() {
+            setTimeout(function() {
+                scrollToMember(searchIndexEntry.name, category);
+            }, 100);
+        }, function() {
+            // showType reports the failed load
+        });
 
         window.location.hash = searchIndexEntry.qualifiedName;
     }
@@ -500,6 +1195,8 @@ function scrollToMember(memberName, memberType) {
  * Closes the autocomplete dropdown and resets search state.
  */
 function closeAutocomplete() {
+    cancelSearchQuery();
+
     var dropdown = document.getElementById('searchDropdown');
     if (dropdown) {
         dropdown.classList.remove('visible');
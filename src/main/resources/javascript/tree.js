@@ -2,32 +2,105 @@
 var documentationModel = null;
 var currentSelectedElement = null;
 
-document.addEventListener('DOMContentLoaded', function() {
-    var toggler = document.getElementsByClassName("caret");
-    for (var i = 0; i < toggler.length; i++) {
-        toggler[i].addEventListener("click", function() {
-            this.parentElement.querySelector(".nested").classList.toggle("active");
-            this.classList.toggle("caret-down");
-        });
+/**
+ * Lookup tables over documentationModel, built once by buildModelIndex when the model is loaded:
+ * packages by name, types by package and simple name, types by qualified name, and all types
+ * sharing a simple name in package order. Keys are stored in prototype-free objects.
+ */
+var modelIndex = null;
+
+/**
+ * State of the virtualized package tree: the flat list of tree rows (every package, followed by the
+ * types of expanded packages), the expanded packages, the selected node and the window of rows
+ * currently in the DOM. Only that window is rendered; the rest of the tree is padding.
+ */
+var treeState = null;
+
+/**
+ * Rows rendered above and below the visible part of the tree, so short scrolls need no re-render
+ */
+var TREE_OVERSCAN_ROWS = 10;
+
+/**
+ * Maximum number of rendered type views kept by typeViewCache, see setTypeViewCacheSize
+ */
+var typeViewCacheSize = 32;
+
+/**
+ * Rendered type detail views by qualified name, least recently shown first. A revisited type shows its
+ * cached view again, including expanded members. A Map iterates in insertion order, so re-inserting
+ * an entry on use keeps the least recently shown view first for eviction.
+ */
+var typeViewCache = new Map();
+
+/**
+ * Number of detail views requested so far. A view that waits for its content is only shown
+ * if no other view was requested in the meantime.
+ */
+var contentRequest = 0;
+
+/**
+ * Expands the package of a type node, so the node is part of the tree rows
+ * Used by highlightTreeNode to reveal the selected type
+ * @param {string} packageName - The package name
+ * @returns {boolean} Whether the package was collapsed before
+ */
+function expandParent(packageName) {
+    return setPackageExpanded(packageName, true);
+}
+
+/**
+ * Model members whose values are never string-pooled (untyped annotation and constant values,
+ * numeric search postings and columns). Must match StringPoolingJsonWriter.UNPOOLED_FIELDS.
+ */
+var UNPOOLED_MODEL_FIELDS = {
+    values: true, defaultValue: true, constantValue: true, searchTrigrams: true,
+    categoryOffsets: true, owners: true, ownerPackages: true, boost: true, boosts: true
+};
+
+/**
+ * Resolves a string-pooled model in place: every number is replaced by its entry in model.strings.
+ * Models without a string table are returned unchanged, so calling it more than once is safe.
+ * @param {Object} model - The DocumentationModel, optionally with a strings table
+ * @returns {Object} The resolved model
+ */
+function resolveStringTable(model) {
+    if (!model || !model.strings) {
+        return model;
     }
-});
+    var strings = model.strings;
+    delete model.strings;
+    resolvePooledStrings(model, strings);
+    return model;
+}
 
 /**
- * Expands all parent nodes of an element
- * Used by search functionality to reveal matching items
+ * Replaces pooled string indexes in an object or array, recursing into nested containers.
+ * Model objects come from JSON.parse, so for-in visits own properties only.
  */
-function expandParent(element) {
-    var parent = element.parentElement;
-    while (parent && parent.id !== "packageTree") {
-        if (parent.classList.contains("nested")) {
-            parent.classList.add("active");
-            var previousSibling = parent.previousElementSibling;
-            if (previousSibling && previousSibling.classList.contains("caret")) {
-                previousSibling.classList.add("caret-down");
+function resolvePooledStrings(container, strings) {
+    var value;
+    if (Array.isArray(container)) {
+        for (var i = 0; i < container.length; i++) {
+            value = container[i];
+            if (typeof value === 'number') {
+                container[i] = strings[value];
+            } else if (value !== null && typeof value === 'object') {
+                resolvePooledStrings(value, strings);
             }
         }
-        parent.style.display = "";
-        parent = parent.parentElement;
+        return;
+    }
+    for (var key in container) {
+        if (UNPOOLED_MODEL_FIELDS[key] === true) {
+            continue;
+        }
+        value = container[key];
+        if (typeof value === 'number') {
+            container[key] = strings[value];
+        } else if (value !== null && typeof value === 'object') {
+            resolvePooledStrings(value, strings);
+        }
     }
 }
 
@@ -36,9 +109,10 @@ function expandParent(element) {
  * @param {Object} model - The DocumentationModel with packages array
  */
 function generateTree(model) {
-    documentationModel = model;
+    documentationModel = resolveStringTable(model);
     var ul = document.getElementById("packageTree");
     ul.innerHTML = ''; // Clear existing content
+    treeState = null;
 
     if (!model || !model.packages || model.packages.length === 0) {
         ul.innerHTML = '<li class="empty-state">No documentation available</li>';
@@ -46,60 +120,245 @@ function generateTree(model) {
     }
 
     // Sort packages by name
-    var packages = model.packages.sort(function(a, b) {
-        return a.name.localeCompare(b.name);
-    });
+    var packages = model.packages.sort(compareByName);
+
+    modelIndex = buildModelIndex(packages);
+    typeViewCache.clear();
+
+    treeState = {
+        packageRows: packages.map(function(packageInfo) {
+            return { packageInfo: packageInfo, typeInfo: null };
+        }),
+        typeRows: Object.create(null),
+        rows: [],
+        expanded: Object.create(null),
+        selected: null,
+        rowHeight: parseFloat(getComputedStyle(ul).getPropertyValue('--tree-row-height')) || 28,
+        first: -1,
+        last: -1
+    };
+    rebuildTreeRows();
+    attachTreeListeners(ul);
+    renderTreeWindow(true);
+}
 
-    packages.forEach(function(packageInfo) {
-        var packageNode = createPackageNode(packageInfo);
-        ul.appendChild(packageNode);
-    });
+/**
+ * Orders packages and types by name in UTF-16 code unit order, like Java's String.compareTo.
+ * TypeLinkResolver resolves simple names in this order, so the tree must not use a locale order.
+ * @param {Object} a - A package or type
+ * @param {Object} b - A package or type
+ * @returns {number} Negative, zero or positive
+ */
+function compareByName(a, b) {
+    return a.name < b.name ? -1 : (a.name > b.name ? 1 : 0);
 }
 
 /**
- * Creates a tree node for a package
+ * Builds the lookup tables of modelIndex in one pass over the model.
+ * Types are sorted by name first, so simple names resolve in tree order.
+ * @param {Array} packages - The packages, sorted by name
+ * @returns {Object} The lookup tables
  */
-function createPackageNode(packageInfo) {
-    var li = document.createElement("li");
+function buildModelIndex(packages) {
+    var index = {
+        packages: Object.create(null),
+        packageTypes: Object.create(null),
+        qualifiedNames: Object.create(null),
+        simpleNames: Object.create(null)
+    };
 
-    var caret = document.createElement("span");
-    caret.className = "caret caret-down"; // Expanded by default
-    caret.textContent = packageInfo.name;
-    caret.setAttribute("onclick", "showPackage('" + packageInfo.name + "')");
-    li.appendChild(caret);
+    packages.forEach(function(packageInfo) {
+        var types = (packageInfo.types || []).sort(compareByName);
+        var packageTypes = Object.create(null);
 
-    var nestedUl = document.createElement("ul");
-    nestedUl.className = "nested active"; // Expanded by default
+        index.packages[packageInfo.name] = packageInfo;
+        index.packageTypes[packageInfo.name] = packageTypes;
 
-    // Sort types by name
-    var types = (packageInfo.types || []).sort(function(a, b) {
-        return a.name.localeCompare(b.name);
+        types.forEach(function(typeInfo) {
+            packageTypes[typeInfo.name] = typeInfo;
+            index.qualifiedNames[typeInfo.qualifiedName] = typeInfo;
+            // Simple names may be ambiguous, keep every candidate
+            (index.simpleNames[typeInfo.name] || (index.simpleNames[typeInfo.name] = [])).push(typeInfo);
+        });
     });
 
-    types.forEach(function(typeInfo) {
-        var typeNode = createTypeNode(packageInfo.name, typeInfo);
-        nestedUl.appendChild(typeNode);
+    return index;
+}
+
+/**
+ * Lists the rows of the tree: every package, followed by its types if it is expanded.
+ * Type rows of a package are created on its first expansion and reused afterwards.
+ */
+function rebuildTreeRows() {
+    var rows = [];
+    treeState.packageRows.forEach(function(packageRow) {
+        rows.push(packageRow);
+        var packageInfo = packageRow.packageInfo;
+        if (treeState.expanded[packageInfo.name]) {
+            var typeRows = treeState.typeRows[packageInfo.name];
+            if (!typeRows) {
+                typeRows = (packageInfo.types || []).map(function(typeInfo) {
+                    return { packageInfo: packageInfo, typeInfo: typeInfo };
+                });
+                treeState.typeRows[packageInfo.name] = typeRows;
+            }
+            Array.prototype.push.apply(rows, typeRows);
+        }
     });
+    treeState.rows = rows;
+}
+
+/**
+ * Expands or collapses a package and updates the tree rows, without rendering them
+ * @param {string} packageName - The package name
+ * @param {boolean} expanded - Whether the package is expanded
+ * @returns {boolean} Whether the state of the package changed
+ */
+function setPackageExpanded(packageName, expanded) {
+    if (!treeState || !treeState.expanded[packageName] === !expanded) {
+        return false;
+    }
+    if (expanded) {
+        treeState.expanded[packageName] = true;
+    } else {
+        delete treeState.expanded[packageName];
+    }
+    rebuildTreeRows();
+    return true;
+}
+
+/**
+ * Registers the delegated click handler of the tree and re-renders the row window on scroll and resize.
+ * The sidebar containing the tree is the scroll container.
+ */
+function attachTreeListeners(ul) {
+    if (ul.getAttribute('data-tree-listeners')) return;
+    ul.setAttribute('data-tree-listeners', 'true');
+
+    ul.addEventListener('click', onTreeClick);
+
+    var scheduled = false;
+    var scheduleRender = function() {
+        if (scheduled) return;
+        scheduled = true;
+        requestAnimationFrame(function() {
+            scheduled = false;
+            renderTreeWindow(false);
+        });
+    };
+    ul.parentElement.addEventListener('scroll', scheduleRender, { passive: true });
+    window.addEventListener('resize', scheduleRender);
+}
+
+/**
+ * Handles clicks on all tree rows: a package row toggles the package and shows it,
+ * a type row shows the type
+ */
+function onTreeClick(event) {
+    var li = event.target.closest('li[data-row]');
+    if (!li || !treeState) return;
+
+    var row = treeState.rows[Number(li.getAttribute('data-row'))];
+    if (!row) return;
+
+    if (row.typeInfo) {
+        showType(row.packageInfo.name, row.typeInfo.name);
+    } else {
+        var packageName = row.packageInfo.name;
+        setPackageExpanded(packageName, !treeState.expanded[packageName]);
+        // Renders the changed rows along with the selection
+        showPackage(packageName);
+    }
+}
+
+/**
+ * Gets the offset of the tree within its scroll container
+ */
+function getTreeOffset(ul, container) {
+    return ul.getBoundingClientRect().top - container.getBoundingClientRect().top + container.scrollTop;
+}
+
+/**
+ * Renders the rows in the visible part of the tree, plus TREE_OVERSCAN_ROWS on either side.
+ * The rows above and below are replaced by padding of the same height.
+ * @param {boolean} force - Whether to render even if the window of rows did not change
+ */
+function renderTreeWindow(force) {
+    if (!treeState) return;
+
+    var ul = document.getElementById("packageTree");
+    var container = ul.parentElement;
+    var rowHeight = treeState.rowHeight;
+    var rows = treeState.rows;
+
+    var top = Math.max(0, container.scrollTop - getTreeOffset(ul, container));
+    var first = Math.max(0, Math.floor(top / rowHeight) - TREE_OVERSCAN_ROWS);
+    var last = Math.min(rows.length, Math.ceil((top + container.clientHeight) / rowHeight) + TREE_OVERSCAN_ROWS);
+    if (!force && first === treeState.first && last === treeState.last) {
+        return;
+    }
+    treeState.first = first;
+    treeState.last = last;
+
+    currentSelectedElement = null;
+    var fragment = document.createDocumentFragment();
+    for (var i = first; i < last; i++) {
+        var row = rows[i];
+        fragment.appendChild(row.typeInfo ? createTypeNode(row, i) : createPackageNode(row, i));
+    }
+
+    ul.style.paddingTop = (first * rowHeight) + 'px';
+    ul.style.paddingBottom = ((rows.length - last) * rowHeight) + 'px';
+    ul.textContent = '';
+    ul.appendChild(fragment);
+}
+
+/**
+ * Creates the tree node of a package row
+ */
+function createPackageNode(row, index) {
+    var li = document.createElement("li");
+    li.className = "tree-row";
+    li.setAttribute("data-row", index);
+
+    var caret = document.createElement("span");
+    caret.className = treeState.expanded[row.packageInfo.name] ? "caret caret-down" : "caret";
+    caret.textContent = row.packageInfo.name;
+    markSelected(caret, row);
+    li.appendChild(caret);
 
-    li.appendChild(nestedUl);
     return li;
 }
 
 /**
- * Creates a tree node for a type (class, interface, enum, annotation)
+ * Creates the tree node of a type row (class, interface, enum, annotation)
  */
-function createTypeNode(packageName, typeInfo) {
+function createTypeNode(row, index) {
     var li = document.createElement("li");
+    li.className = "tree-row tree-row-type";
+    li.setAttribute("data-row", index);
 
     var span = document.createElement("span");
     span.className = "element";
-    span.textContent = typeInfo.name;
-    span.setAttribute("onclick", "showType('" + packageName + "', '" + typeInfo.name + "')");
+    span.textContent = row.typeInfo.name;
+    markSelected(span, row);
     li.appendChild(span);
 
     return li;
 }
 
+/**
+ * Marks the node of a row as selected if the row is the selected tree node
+ */
+function markSelected(element, row) {
+    var selected = treeState.selected;
+    if (selected && row.packageInfo.name === selected.packageName
+            && (row.typeInfo ? row.typeInfo.name === selected.typeName : selected.typeName === null)) {
+        element.classList.add('selected');
+        currentSelectedElement = element;
+    }
+}
+
 /**
  * Shows the package detail view
  */
@@ -109,6 +368,11 @@ function showPackage(packageName) {
         showError("Package not found: " + packageName);
         return;
     }
+    if (!ensureContentLoaded(packageInfo, function() { return loadPackageContent(packageName); },
+            function() { showPackage(packageName); })) {
+        highlightTreeNode(packageName, null);
+        return;
+    }
 
     // Highlight the selected package node in the tree
     highlightTreeNode(packageName, null);
@@ -152,10 +416,116 @@ function showType(packageName, typeName) {
         showError("Type not found: " + packageName + "." + typeName);
         return;
     }
+    if (!ensureContentLoaded(typeInfo, function() { return loadTypeContent(packageName, typeName); },
+            function() { showType(packageName, typeName); })) {
+        highlightTreeNode(packageName, typeName);
+        return;
+    }
 
     // Highlight the selected type node in the tree
     highlightTreeNode(packageName, typeName);
 
+    var view = typeViewCache.get(typeInfo.qualifiedName);
+    if (view) {
+        // Mark as most recently shown
+        typeViewCache.delete(typeInfo.qualifiedName);
+        typeViewCache.set(typeInfo.qualifiedName, view);
+        setContentElement(view);
+        return;
+    }
+
+    setContent(typeInfo.qualifiedName, renderTypeView(typeInfo));
+
+    var docContent = document.getElementById('docContent');
+    if (docContent && docContent.firstElementChild) {
+        cacheTypeView(typeInfo.qualifiedName, docContent.firstElementChild);
+    }
+}
+
+/**
+ * Whether the content of a package or type is available. Only the models of multi-file pages
+ * (model.shards) and of served documentation (model.endpoints) start with names only; their
+ * packages and types are completed by loadPackageContent and loadTypeContent.
+ * @param {Object} item - The package or type
+ * @returns {boolean} Whether the package or type is complete
+ */
+function isContentLoaded(item) {
+    var lazy = documentationModel && (documentationModel.shards || documentationModel.endpoints);
+    return !lazy || item.contentLoaded === true;
+}
+
+/**
+ * Starts a new detail view and makes sure its package or type is loaded.
+ * If the content is still missing, shows a loading state, loads it and calls show once it is
+ * merged, unless another view was requested meanwhile.
+ * @param {Object} item - The package or type of the view
+ * @param {Function} load - Loads the content, returning a Promise
+ * @param {Function} show - Shows the view again once the content is loaded
+ * @returns {boolean} Whether the content is loaded and the view can be shown right away
+ */
+function ensureContentLoaded(item, load, show) {
+    var request = ++contentRequest;
+    if (isContentLoaded(item)) {
+        return true;
+    }
+    var name = item.qualifiedName || item.name;
+    setContent(name, '<div class="empty-state">Loading ' + escapeHtml(name) + '...</div>');
+    load().then(function() {
+        if (request === contentRequest) show();
+    }, function(error) {
+        if (request === contentRequest) showError(error.message);
+    });
+    return false;
+}
+
+/**
+ * Merges a loaded package shard into the model. The package and type objects of the index are
+ * completed in place, so modelIndex and the tree rows keep referring to them.
+ * @param {string} packageName - The package name
+ * @param {Object} shard - The complete package with all its types
+ */
+function mergePackageShard(packageName, shard) {
+    var packageTypes = modelIndex && modelIndex.packageTypes[packageName];
+    if (!packageTypes) return;
+    (shard.types || []).forEach(function(typeShard) {
+        var typeInfo = packageTypes[typeShard.name];
+        if (typeInfo) mergeContent(typeInfo, typeShard);
+    });
+    mergePackageSummary(packageName, shard);
+}
+
+/**
+ * Merges the javadoc of a loaded package into the model
+ * @param {string} packageName - The package name
+ * @param {Object} summary - The package with its javadoc
+ */
+function mergePackageSummary(packageName, summary) {
+    var packageInfo = findPackage(packageName);
+    if (!packageInfo) return;
+    packageInfo.javadoc = summary.javadoc;
+    packageInfo.contentLoaded = true;
+}
+
+/**
+ * Copies the fields of loaded content into a package or type of the model and marks it loaded
+ * @param {Object} target - The package or type of the model
+ * @param {Object} content - The loaded package or type
+ */
+function mergeContent(target, content) {
+    for (var key in content) {
+        if (Object.prototype.hasOwnProperty.call(content, key)) {
+            target[key] = content[key];
+        }
+    }
+    target.contentLoaded = true;
+}
+
+/**
+ * Renders the complete detail view of a type
+ * @param {Object} typeInfo - The type
+ * @returns {string} The HTML of the view
+ */
+function renderTypeView(typeInfo) {
     var html = '<div class="detail-container">';
     html += renderTypeHeader(typeInfo);
     html += renderModifiers(typeInfo.modifiers);
@@ -176,8 +546,36 @@ function showType(packageName, typeName) {
     }
 
     html += '</div>';
+    return html;
+}
+
+/**
+ * Adds a rendered type view to typeViewCache, evicting the least recently shown views beyond its size
+ * @param {string} qualifiedName - The qualified name of the type
+ * @param {Element} view - The rendered view
+ */
+function cacheTypeView(qualifiedName, view) {
+    typeViewCache.set(qualifiedName, view);
+    trimTypeViewCache();
+}
+
+/**
+ * Evicts the least recently shown type views until typeViewCache fits its size
+ */
+function trimTypeViewCache() {
+    while (typeViewCache.size > typeViewCacheSize) {
+        typeViewCache.delete(typeViewCache.keys().next().value);
+    }
+}
 
-    setContent(typeInfo.qualifiedName, html);
+/**
+ * Sets the number of rendered type views kept for revisits; 0 disables the cache
+ * Written into the page by the doclet's --type-view-cache option
+ * @param {number} size - The maximum number of cached views
+ */
+function setTypeViewCacheSize(size) {
+    typeViewCacheSize = Math.max(0, size);
+    trimTypeViewCache();
 }
 
 /**
@@ -676,29 +1074,17 @@ function renderMethod(method) {
  * Helper function to find a package by name
  */
 function findPackage(packageName) {
-    if (!documentationModel || !documentationModel.packages) return null;
-
-    for (var i = 0; i < documentationModel.packages.length; i++) {
-        if (documentationModel.packages[i].name === packageName) {
-            return documentationModel.packages[i];
-        }
-    }
-    return null;
+    if (!modelIndex) return null;
+    return modelIndex.packages[packageName] || null;
 }
 
 /**
  * Helper function to find a type by package and name
  */
 function findType(packageName, typeName) {
-    var packageInfo = findPackage(packageName);
-    if (!packageInfo || !packageInfo.types) return null;
-
-    for (var i = 0; i < packageInfo.types.length; i++) {
-        if (packageInfo.types[i].name === typeName) {
-            return packageInfo.types[i];
-        }
-    }
-    return null;
+    if (!modelIndex) return null;
+    var packageTypes = modelIndex.packageTypes[packageName];
+    return (packageTypes && packageTypes[typeName]) || null;
 }
 
 /**
@@ -707,44 +1093,29 @@ function findType(packageName, typeName) {
  * @returns {Object|null} The type info object or null if not found
  */
 function findTypeByQualifiedName(qualifiedName) {
-    if (!qualifiedName || !documentationModel || !documentationModel.packages) return null;
-
-    // Try to find the type across all packages
-    for (var i = 0; i < documentationModel.packages.length; i++) {
-        var pkg = documentationModel.packages[i];
-        if (!pkg.types) continue;
-
-        for (var j = 0; j < pkg.types.length; j++) {
-            var type = pkg.types[j];
-            if (type.qualifiedName === qualifiedName) {
-                return type;
-            }
-        }
-    }
-    return null;
+    if (!qualifiedName || !modelIndex) return null;
+    return modelIndex.qualifiedNames[qualifiedName] || null;
 }
 
 /**
  * Helper function to find a type by its simple name (searches across all packages)
+ * If several packages declare the name, the type of the first package in tree order is returned
  * @param {string} simpleName - The simple type name (e.g., "String")
  * @returns {Object|null} The type info object or null if not found
  */
 function findTypeBySimpleName(simpleName) {
-    if (!simpleName || !documentationModel || !documentationModel.packages) return null;
-
-    // Try to find the type by simple name across all packages
-    for (var i = 0; i < documentationModel.packages.length; i++) {
-        var pkg = documentationModel.packages[i];
-        if (!pkg.types) continue;
+    var types = findTypesBySimpleName(simpleName);
+    return types.length > 0 ? types[0] : null;
+}
 
-        for (var j = 0; j < pkg.types.length; j++) {
-            var type = pkg.types[j];
-            if (type.name === simpleName) {
-                return type;
-            }
-        }
-    }
-    return null;
+/**
+ * Helper function to find all types with a simple name, in tree order
+ * @param {string} simpleName - The simple type name (e.g., "User")
+ * @returns {Array} The type info objects, empty if none is documented
+ */
+function findTypesBySimpleName(simpleName) {
+    if (!simpleName || !modelIndex) return [];
+    return modelIndex.simpleNames[simpleName] || [];
 }
 
 /**
@@ -768,6 +1139,20 @@ function navigateToType(qualifiedName) {
     }
 }
 
+/**
+ * Resolves a type reference to the qualified name of the documented type it links to
+ * Uses the typeLinks table resolved by the doclet, see TypeLinkResolver
+ * @param {string} typeNameOrQualified - The type name (qualified or simple)
+ * @returns {string|null} The qualified name of the linked type or null for external types
+ */
+function resolveTypeLink(typeNameOrQualified) {
+    var typeLinks = documentationModel && documentationModel.typeLinks;
+    if (!typeLinks || !Object.prototype.hasOwnProperty.call(typeLinks, typeNameOrQualified)) {
+        return null;
+    }
+    return typeLinks[typeNameOrQualified];
+}
+
 /**
  * Creates a clickable link for a type reference
  * @param {string} typeNameOrQualified - The type name (qualified or simple)
@@ -777,27 +1162,20 @@ function navigateToType(qualifiedName) {
 function makeTypeLink(typeNameOrQualified, displayText) {
     if (!typeNameOrQualified) return '';
 
-    // Try to find type - first by qualified name, then by simple name
-    var typeInfo = findTypeByQualifiedName(typeNameOrQualified);
-    if (!typeInfo) {
-        // If not found by qualified name, try simple name
-        typeInfo = findTypeBySimpleName(typeNameOrQualified);
-    }
+    // Links were resolved by the doclet - by qualified name first, then by simple name
+    var qualifiedName = resolveTypeLink(typeNameOrQualified);
 
-    // Determine display text
-    var text = displayText || typeNameOrQualified;
-    if (!displayText && typeInfo) {
-        // Use simple name from found type
-        text = typeInfo.name;
-    } else if (!displayText) {
-        // Extract simple name from input
-        var lastDotIndex = typeNameOrQualified.lastIndexOf('.');
-        text = lastDotIndex > 0 ? typeNameOrQualified.substring(lastDotIndex + 1) : typeNameOrQualified;
+    // Determine display text: the simple name of the linked type or of the input
+    var text = displayText;
+    if (!text) {
+        var name = qualifiedName || typeNameOrQualified;
+        var lastDotIndex = name.lastIndexOf('.');
+        text = lastDotIndex > 0 ? name.substring(lastDotIndex + 1) : name;
     }
 
-    if (typeInfo) {
+    if (qualifiedName) {
         // Type found in documentation - make it clickable
-        return '<span class="type-link" onclick="navigateToType(\'' + escapeHtml(typeInfo.qualifiedName) + '\')">' +
+        return '<span class="type-link" onclick="navigateToType(\'' + escapeHtml(qualifiedName) + '\')">' +
                escapeHtml(text) + '</span>';
     } else {
         // External type (not in our documentation) - show as plain text with different styling
@@ -808,6 +1186,7 @@ function makeTypeLink(typeNameOrQualified, displayText) {
 /**
  * Parses a type string (potentially with generics) and creates clickable links
  * Handles complex types like "List<String>", "Map<String, List<Integer>>", arrays, etc.
+ * Must split type strings exactly like TypeLinkResolver, which resolves the tokens at build time
  * @param {string} typeString - The type string to parse
  * @returns {string} HTML string with clickable type links
  */
@@ -879,6 +1258,35 @@ function parseAndLinkTypes(typeString) {
     return result;
 }
 
+/**
+ * Measurement hook: renders the detail view of a type repeatedly and reports the average render time
+ * The view is rendered anew each time, bypassing typeViewCache
+ * Call it from the browser console, e.g. measureTypeRender('com.example', 'LargeType', 20)
+ * @param {string} packageName - The package name
+ * @param {string} typeName - The simple type name
+ * @param {number} iterations - The number of renders, defaults to 10
+ * @returns {number} The average render time in milliseconds
+ */
+function measureTypeRender(packageName, typeName, iterations) {
+    var count = iterations || 10;
+    var typeInfo = findType(packageName, typeName);
+    if (!typeInfo) {
+        showError("Type not found: " + packageName + "." + typeName);
+        return 0;
+    }
+    if (!isContentLoaded(typeInfo)) {
+        showError("Type not loaded yet: " + typeInfo.qualifiedName);
+        return 0;
+    }
+    var start = performance.now();
+    for (var i = 0; i < count; i++) {
+        setContent(typeInfo.qualifiedName, renderTypeView(typeInfo));
+    }
+    var average = (performance.now() - start) / count;
+    console.log('Rendered ' + packageName + '.' + typeName + ' in ' + average.toFixed(2) + ' ms (average of ' + count + ')');
+    return average;
+}
+
 /**
  * Sets the content of the detail view
  */
@@ -887,6 +1295,16 @@ function setContent(title, html) {
     if (docContent) docContent.innerHTML = html;
 }
 
+/**
+ * Sets an already rendered element as the content of the detail view
+ */
+function setContentElement(element) {
+    var docContent = document.getElementById('docContent');
+    if (!docContent) return;
+    docContent.textContent = '';
+    docContent.appendChild(element);
+}
+
 /**
  * Shows an error message
  */
@@ -922,33 +1340,54 @@ function highlightTreeNode(packageName, typeName) {
         currentSelectedElement.classList.remove('selected');
         currentSelectedElement = null;
     }
+    if (!treeState) return;
+
+    treeState.selected = { packageName: packageName, typeName: typeName || null };
 
-    // Find and highlight the new selection
+    // Ensure parent package of a type node is expanded
     if (typeName) {
-        // Highlighting a type node (class, interface, etc.)
-        var elements = document.querySelectorAll('.element');
-        for (var i = 0; i < elements.length; i++) {
-            var element = elements[i];
-            var onclick = element.getAttribute('onclick');
-            if (onclick && onclick.indexOf("showType('" + packageName + "', '" + typeName + "')") !== -1) {
-                element.classList.add('selected');
-                currentSelectedElement = element;
-                // Ensure parent package is expanded and visible
-                expandParent(element.parentElement);
-                break;
-            }
-        }
-    } else {
-        // Highlighting a package node
-        var carets = document.querySelectorAll('.caret');
-        for (var i = 0; i < carets.length; i++) {
-            var caret = carets[i];
-            var onclick = caret.getAttribute('onclick');
-            if (onclick && onclick.indexOf("showPackage('" + packageName + "')") !== -1) {
-                caret.classList.add('selected');
-                currentSelectedElement = caret;
-                break;
-            }
+        expandParent(packageName);
+    }
+
+    // Scroll the node into view, the window is rendered with the selection below
+    var index = findTreeRowIndex(packageName, typeName);
+    if (index >= 0) {
+        scrollTreeRowIntoView(index);
+    }
+    renderTreeWindow(true);
+}
+
+/**
+ * Finds the index of a tree row
+ * @param {string} packageName - The package name
+ * @param {string} typeName - The type name (null for package rows)
+ * @returns {number} The row index or -1 if the row is not in the tree
+ */
+function findTreeRowIndex(packageName, typeName) {
+    var rows = treeState.rows;
+    for (var i = 0; i < rows.length; i++) {
+        var row = rows[i];
+        if (row.packageInfo.name === packageName
+                && (typeName ? row.typeInfo && row.typeInfo.name === typeName : !row.typeInfo)) {
+            return i;
         }
     }
+    return -1;
+}
+
+/**
+ * Scrolls the sidebar the least distance that makes a tree row visible
+ * @param {number} index - The row index
+ */
+function scrollTreeRowIntoView(index) {
+    var ul = document.getElementById("packageTree");
+    var container = ul.parentElement;
+    var rowTop = getTreeOffset(ul, container) + index * treeState.rowHeight;
+    var rowBottom = rowTop + treeState.rowHeight;
+
+    if (rowTop < container.scrollTop) {
+        container.scrollTop = rowTop;
+    } else if (rowBottom > container.scrollTop + container.clientHeight) {
+        container.scrollTop = rowBottom - container.clientHeight;
+    }
 }
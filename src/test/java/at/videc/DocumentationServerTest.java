@@ -0,0 +1,148 @@
+package at.videc;
+
+import at.videc.bomblet.PackageTree;
+import at.videc.bomblet.dto.ClassInfo;
+import at.videc.bomblet.dto.JavaDocComment;
+import at.videc.bomblet.dto.MethodInfo;
+import at.videc.bomblet.dto.PackageInfo;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DocumentationServerTest {
+
+    private DocumentationServer server;
+
+    @Before
+    public void startServer() throws Exception {
+        PackageTree tree = new PackageTree();
+        for (int i = 0; i < 20; i++) {
+            tree.addType("com.example", createClass("com.example", "Type" + i));
+        }
+        tree.addType("com.example.util", createClass("com.example.util", "StringUtils"));
+        PackageInfo packageInfo = tree.getPackage("com.example");
+        JavaDocComment javadoc = new JavaDocComment();
+        javadoc.setDescription("Example package.");
+        packageInfo.setJavadoc(javadoc);
+        tree.buildSearchIndex();
+        tree.resolveTypeLinks();
+
+        Path assets = Files.createTempDirectory("doomdoc-assets");
+        Path stylesheets = Files.createDirectories(assets.resolve("stylesheets"));
+        Path scripts = Files.createDirectories(assets.resolve("javascript"));
+        Files.write(stylesheets.resolve("a.css"), "body {}".getBytes(StandardCharsets.UTF_8));
+        Files.write(scripts.resolve("a.js"), "function a() {}".getBytes(StandardCharsets.UTF_8));
+
+        server = new DocumentationServer(tree, "Example", stylesheets, scripts, 0);
+        server.start(0);
+    }
+
+    @After
+    public void stopServer() {
+        server.close();
+    }
+
+    @Test
+    public void testShellAndIndexLoadOnlyNames() throws Exception {
+        // When
+        String html = get("/");
+        String index = get("/api/index.js");
+
+        // Then
+        assertTrue(html, html.contains("<link rel=\"stylesheet\" href=\"assets/doomdoc.css\">"));
+        assertTrue(html, html.endsWith("<script src=\"api/index.js\"></script>"
+                + "<script>generateTree(model);initializeSearch(model);</script>"));
+        assertEquals("function a() {}\n", get("/assets/doomdoc.js"));
+
+        assertTrue(index, index.startsWith("var model = {\"packages\":[{\"name\":\"com.example\",\"types\":["));
+        assertTrue(index, index.contains("\"endpoints\":{\"package\":\"api/package/\",\"type\":\"api/type/\",\"search\":\"api/search\"}"));
+        assertFalse(index, index.contains("searchIndex"));
+        assertFalse(index, index.contains("Example package."));
+        assertFalse(index, index.contains("\"methods\""));
+    }
+
+    @Test
+    public void testPackageAndTypeAreServedOnDemand() throws Exception {
+        // When
+        String packageJson = get("/api/package/com.example");
+        String typeJson = get("/api/type/com.example.Type3");
+
+        // Then
+        assertTrue(packageJson, packageJson.startsWith("{\"name\":\"com.example\",\"javadoc\":{\"description\":\"Example package.\""));
+        assertTrue(packageJson, packageJson.contains("{\"kind\":\"class\",\"name\":\"Type3\",\"qualifiedName\":\"com.example.Type3\"}"));
+        assertFalse(packageJson, packageJson.contains("\"methods\""));
+        assertTrue(typeJson, typeJson.contains("\"qualifiedName\":\"com.example.Type3\""));
+        assertTrue(typeJson, typeJson.contains("\"methods\":[{\"name\":\"format\""));
+        assertEquals(404, status("/api/type/com.example.Missing"));
+        assertEquals(404, status("/api/package/com.missing"));
+    }
+
+    @Test
+    public void testSearchIsRankedOnServer() throws Exception {
+        // When
+        String results = get("/api/search?q=stringut");
+
+        // Then
+        assertTrue(results, results.startsWith("{\"classes\":[{\"category\":\"class\",\"name\":\"StringUtils\""));
+        assertTrue(results, results.contains("\"score\":"));
+        assertTrue(results, results.endsWith("\"fields\":[]}"));
+    }
+
+    @Test
+    public void testStaticContentIsRevalidatedByETag() throws Exception {
+        // Given
+        HttpURLConnection first = open("/api/index.js");
+        String etag = first.getHeaderField("ETag");
+        first.getInputStream().close();
+
+        // When
+        HttpURLConnection second = open("/api/index.js");
+        second.setRequestProperty("If-None-Match", etag);
+
+        // Then
+        assertEquals(304, second.getResponseCode());
+    }
+
+    private static ClassInfo createClass(String packageName, String name) {
+        ClassInfo classInfo = new ClassInfo();
+        classInfo.setName(name);
+        classInfo.setQualifiedName(packageName + "." + name);
+        MethodInfo method = new MethodInfo();
+        method.setName("format");
+        method.setReturnType("java.lang.String");
+        classInfo.setMethods(Collections.singletonList(method));
+        return classInfo;
+    }
+
+    private HttpURLConnection open(String path) throws IOException {
+        return (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort() + path).openConnection();
+    }
+
+    private String get(String path) throws IOException {
+        HttpURLConnection connection = open(path);
+        assertEquals(path, 200, connection.getResponseCode());
+        try (InputStream in = connection.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private int status(String path) throws IOException {
+        HttpURLConnection connection = open(path);
+        int status = connection.getResponseCode();
+        connection.disconnect();
+        return status;
+    }
+}
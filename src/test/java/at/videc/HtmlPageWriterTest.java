@@ -0,0 +1,98 @@
+package at.videc;
+
+import at.videc.bomblet.PackageTree;
+import at.videc.bomblet.dto.ClassInfo;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HtmlPageWriterTest {
+
+    @Test
+    public void testCompressedModelInflatesToCompactJson() throws Exception {
+        // Given
+        PackageTree tree = new PackageTree();
+        for (int i = 0; i < 50; i++) {
+            ClassInfo classInfo = new ClassInfo();
+            classInfo.setName("Type" + i);
+            classInfo.setQualifiedName("com.example.Type" + i);
+            tree.addType("com.example", classInfo);
+        }
+        tree.buildSearchIndex();
+        StringWriter expected = new StringWriter();
+        tree.writeCompactJson(expected);
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (HtmlPageWriter page = new HtmlPageWriter(out)) {
+            page.setCompressedModel(true);
+            page.writeModel(tree);
+        }
+
+        // Then
+        String html = out.toString(StandardCharsets.UTF_8);
+        String prefix = "<script>loadCompressedModel(\"";
+        assertTrue(html, html.startsWith(prefix));
+        String base64 = html.substring(prefix.length(), html.indexOf('"', prefix.length()));
+        assertEquals(expected.toString(), inflate(Base64.getDecoder().decode(base64)));
+        assertTrue(html.endsWith("generateTree(model);initializeSearch(model);});</script>"));
+    }
+
+    @Test
+    public void testTypeViewCacheSizeIsSetBeforeTreeIsBuilt() throws Exception {
+        // Given
+        PackageTree tree = new PackageTree();
+        ClassInfo classInfo = new ClassInfo();
+        classInfo.setName("Type");
+        classInfo.setQualifiedName("com.example.Type");
+        tree.addType("com.example", classInfo);
+        tree.buildSearchIndex();
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (HtmlPageWriter page = new HtmlPageWriter(out)) {
+            page.setTypeViewCacheSize(100);
+            page.writeModel(tree);
+        }
+
+        // Then
+        String html = out.toString(StandardCharsets.UTF_8);
+        assertTrue(html, html.startsWith("<script>setTypeViewCacheSize(100);var model = "));
+        assertTrue(html.endsWith("generateTree(model);initializeSearch(model);</script>"));
+    }
+
+    @Test
+    public void testListFilesIsSortedByPath() throws Exception {
+        // Given
+        Path directory = Files.createTempDirectory("doomdoc-resources");
+        Path nested = Files.createDirectories(directory.resolve("a"));
+        for (Path file : new Path[] {directory.resolve("c.js"), nested.resolve("z.js"), directory.resolve("b.js")}) {
+            Files.write(file, new byte[0]);
+        }
+
+        // When
+        List<Path> files = HtmlPageWriter.listFiles(directory);
+
+        // Then
+        assertEquals(Arrays.asList(nested.resolve("z.js"), directory.resolve("b.js"), directory.resolve("c.js")), files);
+    }
+
+    private static String inflate(byte[] gzip) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package at.videc;
+
+import at.videc.bomblet.PackageTree;
+import at.videc.bomblet.dto.ClassInfo;
+import at.videc.bomblet.dto.JavaDocComment;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MultiFileSiteWriterTest {
+
+    @Test
+    public void testShardsAreContentHashedAndIndexHoldsOnlyNames() throws Exception {
+        // Given
+        Path siteDir = Files.createTempDirectory("doomdoc-site");
+        MultiFileSiteWriter site = new MultiFileSiteWriter(siteDir.resolve("output.html"));
+
+        // When
+        Map<String, String> first = site.writePackageShards(createTree("First description."));
+        Map<String, String> second = site.writePackageShards(createTree("Second description."));
+        String index = site.writeIndex(createTree("Second description."), second);
+
+        // Then
+        assertEquals(first.get("com.example.stable"), second.get("com.example.stable"));
+        assertNotEquals(first.get("com.example.changing"), second.get("com.example.changing"));
+        assertTrue(second.get("com.example.changing"),
+                second.get("com.example.changing").matches("output-files/packages/com\\.example\\.changing\\.[0-9a-f]{12}\\.js"));
+
+        String shard = read(siteDir.resolve(second.get("com.example.changing")));
+        assertTrue(shard, shard.startsWith("packageShardLoaded(\"com.example.changing\",{"));
+        assertTrue(shard, shard.contains("Second description."));
+
+        String indexScript = read(siteDir.resolve(index));
+        assertTrue(indexScript, indexScript.startsWith("var model = {\"packages\":[{\"name\":"));
+        assertTrue(indexScript, indexScript.contains("{\"kind\":\"class\",\"name\":\"Changing\",\"qualifiedName\":\"com.example.changing.Changing\"}"));
+        assertTrue(indexScript, indexScript.contains("\"searchIndex\":["));
+        assertTrue(indexScript, indexScript.contains("\"shards\":{\"com.example.stable\":\"" + second.get("com.example.stable") + "\""));
+        assertFalse(indexScript, indexScript.contains("description."));
+    }
+
+    @Test
+    public void testShellLinksBundlesAndStaleFilesAreRemoved() throws Exception {
+        // Given
+        Path siteDir = Files.createTempDirectory("doomdoc-site");
+        Path scripts = Files.createDirectories(siteDir.resolve("scripts"));
+        Files.write(scripts.resolve("a.js"), "function a() {}".getBytes(StandardCharsets.UTF_8));
+        MultiFileSiteWriter previous = new MultiFileSiteWriter(siteDir.resolve("output.html"));
+        String previousShard = previous.writePackageShards(createTree("Old description.")).get("com.example.changing");
+
+        // When
+        MultiFileSiteWriter site = new MultiFileSiteWriter(siteDir.resolve("output.html"));
+        site.setTypeViewCacheSize(8);
+        String script = site.writeScriptBundle(scripts);
+        Map<String, String> shards = site.writePackageShards(createTree("New description."));
+        String index = site.writeIndex(createTree("New description."), shards);
+        site.writeShell("Example", "style.css", script, index);
+        int removed = site.removeStaleFiles();
+
+        // Then
+        String html = read(siteDir.resolve("output.html"));
+        assertTrue(html, html.contains("<script src=\"" + script + "\"></script>"));
+        assertTrue(html, html.endsWith("<script src=\"" + index + "\"></script>"
+                + "<script>setTypeViewCacheSize(8);generateTree(model);initializeSearch(model);</script>"));
+        assertEquals("function a() {}\n", read(siteDir.resolve(script)));
+        assertEquals(1, removed);
+        assertFalse(Files.exists(siteDir.resolve(previousShard)));
+        assertTrue(Files.exists(siteDir.resolve(shards.get("com.example.stable"))));
+    }
+
+    @Test
+    public void testUnchangedShardsAreKept() throws Exception {
+        // Given
+        Path siteDir = Files.createTempDirectory("doomdoc-site");
+        Map<String, String> previous = new MultiFileSiteWriter(siteDir.resolve("output.html"))
+                .writePackageShards(createTree("Old description."));
+        Path stableShard = siteDir.resolve(previous.get("com.example.stable"));
+        Files.write(stableShard, "packageShardLoaded(\"com.example.stable\",{});".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        MultiFileSiteWriter site = new MultiFileSiteWriter(siteDir.resolve("output.html"));
+        Map<String, String> unchanged = new HashMap<>(previous);
+        unchanged.remove("com.example.changing");
+        Map<String, String> shards = site.writePackageShards(createTree("New description."), unchanged);
+        int removed = site.removeStaleFiles();
+
+        // Then
+        assertEquals(previous.get("com.example.stable"), shards.get("com.example.stable"));
+        assertEquals("Kept shards are not written again", "packageShardLoaded(\"com.example.stable\",{});", read(stableShard));
+        assertTrue(read(siteDir.resolve(shards.get("com.example.changing"))).contains("New description."));
+        assertEquals(1, removed);
+    }
+
+    private static PackageTree createTree(String description) {
+        PackageTree tree = new PackageTree();
+        tree.addType("com.example.stable", createClass("com.example.stable", "Stable", "Stable type."));
+        tree.addType("com.example.changing", createClass("com.example.changing", "Changing", description));
+        tree.buildSearchIndex();
+        return tree;
+    }
+
+    private static ClassInfo createClass(String packageName, String name, String description) {
+        ClassInfo classInfo = new ClassInfo();
+        classInfo.setName(name);
+        classInfo.setQualifiedName(packageName + "." + name);
+        JavaDocComment javadoc = new JavaDocComment();
+        javadoc.setDescription(description);
+        classInfo.setJavadoc(javadoc);
+        return classInfo;
+    }
+
+    private static String read(Path file) throws Exception {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,65 @@
+package at.videc;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.spi.ToolProvider;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ParallelConversionTest {
+
+    @Test
+    public void testParallelOutputMatchesSerialOnFixtures() throws Exception {
+        // Given
+        String[] args = new String[] {
+                "-doclet", "at.videc.DoomDoclet",
+                "-sourcepath", "src/main/java:src/test/java",
+                "-subpackages", "at.videc"
+        };
+
+        // When
+        byte[] serial = runDoclet(args);
+        byte[] parallel = runDoclet(withThreads(args, 4));
+
+        // Then
+        assertArrayEquals("Parallel output differs from serial output", serial, parallel);
+    }
+
+    @Test
+    public void testParallelOutputMatchesSerialOnGeneratedCorpus() throws Exception {
+        // Given
+        SyntheticSourceGenerator generator = new SyntheticSourceGenerator();
+        Path sourceRoot = generator.write(Files.createTempDirectory("doomdoc-corpus"));
+        String[] args = generator.javadocArguments(sourceRoot);
+
+        // When
+        byte[] serial = runDoclet(args);
+        byte[] parallel = runDoclet(withThreads(args, 8));
+
+        // Then
+        assertArrayEquals("Parallel output differs from serial output", serial, parallel);
+    }
+
+    private static byte[] runDoclet(String[] args) throws IOException {
+        ToolProvider javadoc = ToolProvider.findFirst("javadoc")
+                .orElseThrow(() -> new IllegalStateException("javadoc tool not found"));
+
+        int result = javadoc.run(System.out, System.err, args);
+        assertEquals("Doclet execution failed", 0, result);
+
+        return Files.readAllBytes(Paths.get("output.html"));
+    }
+
+    private static String[] withThreads(String[] args, int threads) {
+        String[] extended = new String[args.length + 2];
+        extended[0] = "--threads";
+        extended[1] = String.valueOf(threads);
+        System.arraycopy(args, 0, extended, 2, args.length);
+        return extended;
+    }
+}
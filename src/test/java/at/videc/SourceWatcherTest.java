@@ -0,0 +1,55 @@
+package at.videc;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class SourceWatcherTest {
+
+    @Test
+    public void testBurstOfChangesIsReportedOnce() throws Exception {
+        // Given
+        Path directory = Files.createTempDirectory("doomdoc-watch").toRealPath();
+        Path modified = write(directory.resolve("Modified.java"), "class Modified {}");
+        Path deleted = write(directory.resolve("Deleted.java"), "class Deleted {}");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try (SourceWatcher watcher = new SourceWatcher(Collections.singleton(directory), 500)) {
+            // When
+            Future<Set<Path>> changes = executor.submit(watcher::awaitChanges);
+            write(modified, "class Modified { int value; }");
+            Thread.sleep(100);
+            Path created = write(directory.resolve("Created.java"), "class Created {}");
+            write(directory.resolve("notes.txt"), "not a source");
+            Files.delete(deleted);
+
+            // Then
+            Set<Path> expected = new TreeSet<>();
+            expected.add(created);
+            expected.add(deleted);
+            expected.add(modified);
+            assertEquals(expected, changes.get(30, TimeUnit.SECONDS));
+            assertFalse(watcher.isOverflow());
+            expected.remove(deleted);
+            assertEquals(expected, watcher.listSourceFiles());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Path write(Path file, String content) throws Exception {
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
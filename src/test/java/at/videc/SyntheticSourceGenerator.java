@@ -0,0 +1,373 @@
+package at.videc;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Writes a configurable synthetic Java source tree for scale tests and benchmarks of the doclet.
+ *
+ * <p>The tree consists of {@link #getPackages()} packages below {@link #getRootPackage()}, named
+ * {@code <root>.p0}, {@code <root>.p1}, ..., each containing {@link #getTypesPerPackage()} top level
+ * types {@code Type0}, {@code Type1}, .... Out of every ten types seven are classes, one is an
+ * interface, one an enum and one an annotation type. Every type has:</p>
+ * <ul>
+ *   <li>{@link #getFieldsPerType()} fields (enum constants for enums, none for annotation types)</li>
+ *   <li>{@link #getMethodsPerType()} methods (annotation elements for annotation types)</li>
+ *   <li>{@link #getParametersPerMethod()} parameters per method, typed with generics nested
+ *       {@link #getGenericsDepth()} levels deep; a depth of 0 generates no type parameters</li>
+ *   <li>an annotation on the given fraction of its members, see {@link #getAnnotationDensity()}</li>
+ *   <li>doc comments of {@link #getJavadocSentences()} sentences with inline tags, plus block tags</li>
+ * </ul>
+ *
+ * <p>The output only depends on the settings and the {@link #getSeed() seed}, so equally configured
+ * generators write identical trees. Run DoomDoc on a tree like {@code DoomDocTest} does:</p>
+ * <pre>
+ * SyntheticSourceGenerator generator = new SyntheticSourceGenerator();
+ * generator.setPackages(400);
+ * Path root = generator.write(Files.createTempDirectory("corpus"));
+ * javadoc.run(System.out, System.err, generator.javadocArguments(root));
+ * </pre>
+ *
+ * <p>Run with {@code java -cp target/test-classes at.videc.SyntheticSourceGenerator <dir> [packages] [types]}
+ * to write a tree for manual runs.</p>
+ *
+ * @author DoomDoc Team
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see DoomDocTest
+ */
+public class SyntheticSourceGenerator {
+
+    private static final String[] WORDS = {
+            "value", "element", "request", "buffer", "index", "model", "entry", "handler",
+            "stream", "result", "context", "registry", "widget", "session", "payload", "token"
+    };
+
+    private static final String[] GENERIC_WRAPPERS = {
+            "java.util.List<%s>", "java.util.Map<String, %s>", "java.util.Optional<%s>", "java.util.Set<%s>"
+    };
+
+    /**
+     * Package containing all generated packages
+     */
+    private String rootPackage = "gen";
+
+    /**
+     * Number of packages
+     */
+    private int packages = 20;
+
+    /**
+     * Number of types per package
+     */
+    private int typesPerPackage = 25;
+
+    /**
+     * Number of fields (enum constants) per type
+     */
+    private int fieldsPerType = 4;
+
+    /**
+     * Number of methods per type
+     */
+    private int methodsPerType = 6;
+
+    /**
+     * Number of parameters per method
+     */
+    private int parametersPerMethod = 2;
+
+    /**
+     * Nesting depth of generic parameter and return types
+     */
+    private int genericsDepth = 2;
+
+    /**
+     * Fraction of members carrying an annotation, between 0 and 1
+     */
+    private double annotationDensity = 0.5;
+
+    /**
+     * Number of sentences in every doc comment description
+     */
+    private int javadocSentences = 2;
+
+    /**
+     * Seed of the generator choosing words and annotations
+     */
+    private long seed = 42;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: SyntheticSourceGenerator <dir> [packages] [types per package]");
+            System.exit(1);
+        }
+        SyntheticSourceGenerator generator = new SyntheticSourceGenerator();
+        if (args.length > 1) {
+            generator.setPackages(Integer.parseInt(args[1]));
+        }
+        if (args.length > 2) {
+            generator.setTypesPerPackage(Integer.parseInt(args[2]));
+        }
+        Path root = generator.write(Paths.get(args[0]));
+        System.out.printf("Wrote %d types to %s%n", generator.getTypeCount(), root);
+    }
+
+    /**
+     * Writes the source tree.
+     *
+     * @param root the source root, created if it does not exist
+     * @return the source root
+     * @throws IOException if writing fails
+     */
+    public Path write(Path root) throws IOException {
+        Random random = new Random(seed);
+        for (int p = 0; p < packages; p++) {
+            String packageName = rootPackage + ".p" + p;
+            Path dir = root.resolve(packageName.replace('.', '/'));
+            Files.createDirectories(dir);
+            for (int t = 0; t < typesPerPackage; t++) {
+                String typeName = "Type" + t;
+                String source = generateType(packageName, typeName, t, random);
+                Files.write(dir.resolve(typeName + ".java"), source.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Gets the javadoc arguments running DoomDoc on a written tree.
+     *
+     * @param root the source root passed to {@link #write(Path)}
+     * @param options additional options, placed before the source arguments
+     * @return the arguments for the javadoc tool
+     */
+    public String[] javadocArguments(Path root, String... options) {
+        String[] arguments = new String[options.length + 6];
+        System.arraycopy(options, 0, arguments, 0, options.length);
+        int i = options.length;
+        arguments[i++] = "-doclet";
+        arguments[i++] = DoomDoclet.class.getName();
+        arguments[i++] = "-sourcepath";
+        arguments[i++] = root.toString();
+        arguments[i++] = "-subpackages";
+        arguments[i] = rootPackage;
+        return arguments;
+    }
+
+    /**
+     * Gets the total number of generated types.
+     *
+     * @return packages times types per package
+     */
+    public int getTypeCount() {
+        return packages * typesPerPackage;
+    }
+
+    private String generateType(String packageName, String typeName, int index, Random random) {
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(packageName).append(";\n\n");
+        boolean generic = genericsDepth > 0;
+        String element = generic ? "T" : "String";
+        String typeParameters = generic ? "<T extends Comparable<T>>" : "";
+
+        switch (index % 10) {
+            case 7:
+                appendJavadoc(source, "", "Generated interface " + typeName, random, generic);
+                source.append("public interface ").append(typeName).append(typeParameters).append(" {\n");
+                for (int m = 0; m < methodsPerType; m++) {
+                    appendMethod(source, m, element, random, false);
+                }
+                break;
+            case 8:
+                appendJavadoc(source, "", "Generated enum " + typeName, random, false);
+                source.append("public enum ").append(typeName).append(" {\n");
+                for (int f = 0; f < fieldsPerType; f++) {
+                    appendJavadoc(source, "    ", "Constant " + f, random, false);
+                    appendAnnotation(source, random);
+                    source.append("    CONSTANT_").append(f).append(f + 1 < fieldsPerType ? ",\n" : "");
+                }
+                source.append(";\n\n");
+                for (int m = 0; m < methodsPerType; m++) {
+                    appendMethod(source, m, "String", random, true);
+                }
+                break;
+            case 9:
+                appendJavadoc(source, "", "Generated annotation " + typeName, random, false);
+                source.append("@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)\n");
+                source.append("public @interface ").append(typeName).append(" {\n");
+                for (int m = 0; m < methodsPerType; m++) {
+                    appendJavadoc(source, "    ", "Element " + m, random, false);
+                    source.append("    String element").append(m).append("() default \"")
+                            .append(word(random)).append("\";\n");
+                }
+                break;
+            default:
+                appendJavadoc(source, "", "Generated class " + typeName, random, generic);
+                if (random.nextDouble() < annotationDensity) {
+                    source.append("@Deprecated\n");
+                }
+                source.append("public class ").append(typeName).append(typeParameters).append(" {\n");
+                for (int f = 0; f < fieldsPerType; f++) {
+                    appendJavadoc(source, "    ", "Field " + f, random, false);
+                    appendAnnotation(source, random);
+                    source.append("    public static final int FIELD_").append(f).append(" = ").append(f * 7).append(";\n");
+                }
+                for (int m = 0; m < methodsPerType; m++) {
+                    appendMethod(source, m, element, random, true);
+                }
+                break;
+        }
+        source.append("}\n");
+        return source.toString();
+    }
+
+    private void appendMethod(StringBuilder source, int index, String element, Random random, boolean withBody) {
+        source.append("    /**\n");
+        appendSentences(source, "     * ", "Method " + index, random);
+        for (int p = 0; p < parametersPerMethod; p++) {
+            source.append("     * @param arg").append(p).append(" the ").append(word(random)).append('\n');
+        }
+        source.append("     * @return the ").append(word(random)).append('\n');
+        source.append("     * @throws IllegalStateException if the ").append(word(random)).append(" is missing\n");
+        source.append("     */\n");
+        appendAnnotation(source, random);
+        source.append("    ");
+        if (withBody) {
+            source.append("public ");
+        }
+        String type = nestedType(element, genericsDepth);
+        source.append(type).append(" method").append(index).append('(');
+        for (int p = 0; p < parametersPerMethod; p++) {
+            if (p > 0) {
+                source.append(", ");
+            }
+            source.append(p % 2 == 0 ? type : "int").append(" arg").append(p);
+        }
+        source.append(')');
+        source.append(withBody ? " {\n        return null;\n    }\n" : ";\n");
+    }
+
+    private void appendJavadoc(StringBuilder source, String indent, String subject, Random random, boolean typeParameter) {
+        source.append(indent).append("/**\n");
+        appendSentences(source, indent + " * ", subject, random);
+        if (typeParameter) {
+            source.append(indent).append(" * @param <T> the element type\n");
+        }
+        source.append(indent).append(" * @since 1.0.0\n");
+        source.append(indent).append(" */\n");
+    }
+
+    private void appendSentences(StringBuilder source, String prefix, String subject, Random random) {
+        source.append(prefix).append(subject).append(" with a {@link java.util.List} reference and <b>markup</b>.\n");
+        for (int s = 1; s < javadocSentences; s++) {
+            source.append(prefix).append("Returns the {@code ").append(word(random)).append("} of the ")
+                    .append(word(random)).append(" and updates the <i>").append(word(random)).append("</i>.\n");
+        }
+    }
+
+    private void appendAnnotation(StringBuilder source, Random random) {
+        if (random.nextDouble() >= annotationDensity) {
+            return;
+        }
+        source.append(random.nextBoolean()
+                ? "    @Deprecated\n"
+                : "    @SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+    }
+
+    private static String nestedType(String element, int depth) {
+        String type = element;
+        for (int d = 0; d < depth; d++) {
+            type = String.format(GENERIC_WRAPPERS[d % GENERIC_WRAPPERS.length], type);
+        }
+        return type;
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    public String getRootPackage() {
+        return rootPackage;
+    }
+
+    public void setRootPackage(String rootPackage) {
+        this.rootPackage = rootPackage;
+    }
+
+    public int getPackages() {
+        return packages;
+    }
+
+    public void setPackages(int packages) {
+        this.packages = packages;
+    }
+
+    public int getTypesPerPackage() {
+        return typesPerPackage;
+    }
+
+    public void setTypesPerPackage(int typesPerPackage) {
+        this.typesPerPackage = typesPerPackage;
+    }
+
+    public int getFieldsPerType() {
+        return fieldsPerType;
+    }
+
+    public void setFieldsPerType(int fieldsPerType) {
+        this.fieldsPerType = fieldsPerType;
+    }
+
+    public int getMethodsPerType() {
+        return methodsPerType;
+    }
+
+    public void setMethodsPerType(int methodsPerType) {
+        this.methodsPerType = methodsPerType;
+    }
+
+    public int getParametersPerMethod() {
+        return parametersPerMethod;
+    }
+
+    public void setParametersPerMethod(int parametersPerMethod) {
+        this.parametersPerMethod = parametersPerMethod;
+    }
+
+    public int getGenericsDepth() {
+        return genericsDepth;
+    }
+
+    public void setGenericsDepth(int genericsDepth) {
+        this.genericsDepth = genericsDepth;
+    }
+
+    public double getAnnotationDensity() {
+        return annotationDensity;
+    }
+
+    public void setAnnotationDensity(double annotationDensity) {
+        this.annotationDensity = annotationDensity;
+    }
+
+    public int getJavadocSentences() {
+        return javadocSentences;
+    }
+
+    public void setJavadocSentences(int javadocSentences) {
+        this.javadocSentences = javadocSentences;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+}
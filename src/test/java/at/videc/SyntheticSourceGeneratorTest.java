@@ -0,0 +1,60 @@
+package at.videc;
+
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.spi.ToolProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SyntheticSourceGeneratorTest {
+
+    @Test
+    public void testDocletRunsOnGeneratedTree() throws Exception {
+        // Given
+        ToolProvider javadoc = ToolProvider.findFirst("javadoc")
+                .orElseThrow(() -> new IllegalStateException("javadoc tool not found"));
+        SyntheticSourceGenerator generator = new SyntheticSourceGenerator();
+        generator.setPackages(3);
+        generator.setTypesPerPackage(10);
+        generator.setParametersPerMethod(3);
+        generator.setGenericsDepth(3);
+        generator.setAnnotationDensity(1.0);
+        generator.setJavadocSentences(4);
+        Path sourceRoot = generator.write(Files.createTempDirectory("doomdoc-generated"));
+
+        // When
+        int result = javadoc.run(System.out, System.err, generator.javadocArguments(sourceRoot));
+
+        // Then
+        assertEquals("Doclet execution failed", 0, result);
+        String content = Files.readString(Path.of("output.html"));
+        for (int p = 0; p < generator.getPackages(); p++) {
+            for (int t = 0; t < generator.getTypesPerPackage(); t++) {
+                String qualifiedName = "gen.p" + p + ".Type" + t;
+                assertTrue("Output does not contain " + qualifiedName, content.contains("\"" + qualifiedName + "\""));
+            }
+        }
+        assertTrue("Generics are not nested", content.contains("java.util.Optional<java.util.Map<java.lang.String,java.util.List<T>>>"));
+    }
+
+    @Test
+    public void testSameSettingsWriteSameTree() throws Exception {
+        // Given
+        SyntheticSourceGenerator generator = new SyntheticSourceGenerator();
+        generator.setPackages(2);
+        generator.setTypesPerPackage(10);
+
+        // When
+        Path first = generator.write(Files.createTempDirectory("doomdoc-generated"));
+        Path second = generator.write(Files.createTempDirectory("doomdoc-generated"));
+
+        // Then
+        for (int t = 0; t < generator.getTypesPerPackage(); t++) {
+            Path file = Path.of("gen", "p1", "Type" + t + ".java");
+            assertEquals(Files.readString(first.resolve(file)), Files.readString(second.resolve(file)));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package at.videc;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.spi.ToolProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TimingReportTest {
+
+    @Test
+    public void testTimingReportCoversEveryPhase() throws Exception {
+        // Given
+        ToolProvider javadoc = ToolProvider.findFirst("javadoc")
+                .orElseThrow(() -> new IllegalStateException("javadoc tool not found"));
+        Path report = Paths.get(DoomDoclet.TIMING_REPORT_FILE);
+        Files.deleteIfExists(report);
+
+        String[] args = new String[] {
+                "--timing-report",
+                "--threads", "2",
+                "-doclet", "at.videc.DoomDoclet",
+                "-sourcepath", "src/main/java:src/test/java",
+                "-subpackages", "at.videc"
+        };
+
+        // When
+        int result = javadoc.run(System.out, System.err, args);
+
+        // Then
+        assertEquals("Doclet execution failed", 0, result);
+        assertTrue("Timing report does not exist", Files.exists(report));
+        JsonArray phases = JsonParser.parseString(Files.readString(report)).getAsJsonObject().getAsJsonArray("phases");
+        List<String> names = new ArrayList<>();
+        phases.forEach(phase -> names.add(phase.getAsJsonObject().get("name").getAsString()));
+        assertEquals(List.of("element collection", "conversion", "search index", "type links", "asset inlining",
+                "JSON serialization", "file write"), names);
+        Files.delete(report);
+    }
+}
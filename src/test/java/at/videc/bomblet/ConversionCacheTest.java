@@ -0,0 +1,140 @@
+package at.videc.bomblet;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.spi.ToolProvider;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConversionCacheTest {
+
+    @Test
+    public void testSecondRunIsServedFromCacheWithIdenticalOutput() throws Exception {
+        // Given
+        Path cacheDir = Files.createTempDirectory("doomdoc-cache");
+        String[] uncached = fixtureArgs();
+        String[] cached = withCache(fixtureArgs(), cacheDir);
+
+        byte[] expected = runDoclet(uncached).output;
+
+        // When
+        DocletRun first = runDoclet(cached);
+        DocletRun second = runDoclet(cached);
+
+        // Then
+        assertArrayEquals("Output of the populating run differs", expected, first.output);
+        assertArrayEquals("Output of the cached run differs", expected, second.output);
+        assertTrue("First run should not hit: " + first.log, first.log.contains("Conversion cache: 0 hits"));
+        assertTrue("Second run should not miss: " + second.log, second.log.contains(" 0 misses"));
+    }
+
+    @Test
+    public void testChangedSourceIsConvertedAgain() throws Exception {
+        // Given
+        Path sourceRoot = Files.createTempDirectory("doomdoc-sources");
+        Path packageDir = Files.createDirectories(sourceRoot.resolve("cached"));
+        writeSource(packageDir, "Stable", "Stable type.");
+        writeSource(packageDir, "Changing", "Original description.");
+        String[] args = withCache(new String[] {
+                "-doclet", "at.videc.DoomDoclet",
+                "-sourcepath", sourceRoot.toString(),
+                "-subpackages", "cached"
+        }, Files.createTempDirectory("doomdoc-cache"));
+        runDoclet(args);
+
+        // When
+        writeSource(packageDir, "Changing", "Updated description.");
+        DocletRun run = runDoclet(args);
+
+        // Then
+        assertTrue(run.log, run.log.contains("Conversion cache: 1 hits, 1 misses"));
+        String html = new String(run.output, StandardCharsets.UTF_8);
+        assertTrue("Changed type should be reconverted", html.contains("Updated description."));
+        assertTrue("Stale description should be gone", !html.contains("Original description."));
+    }
+
+    @Test
+    public void testConstantOfChangedSourceIsUpdatedInUsingType() throws Exception {
+        // Given
+        Path sourceRoot = Files.createTempDirectory("doomdoc-sources");
+        Path packageDir = Files.createDirectories(sourceRoot.resolve("cached"));
+        writeLimits(packageDir, 100);
+        Files.write(packageDir.resolve("User.java"), ("package cached;\n\n/** Uses a limit. */\npublic class User {\n"
+                + "    /** Maximum. */\n    public static final int MAX = Limits.DEFAULT + 1;\n}\n")
+                .getBytes(StandardCharsets.UTF_8));
+        String[] args = withCache(new String[] {
+                "-doclet", "at.videc.DoomDoclet",
+                "-sourcepath", sourceRoot.toString(),
+                "-subpackages", "cached"
+        }, Files.createTempDirectory("doomdoc-cache"));
+        runDoclet(args);
+
+        // When
+        writeLimits(packageDir, 200);
+        DocletRun run = runDoclet(args);
+
+        // Then
+        assertTrue(run.log, run.log.contains("Conversion cache: 0 hits, 2 misses"));
+        String html = new String(run.output, StandardCharsets.UTF_8);
+        assertTrue("Using type should show the new value", html.contains("201"));
+        assertTrue("Stale value should be gone", !html.contains("101"));
+    }
+
+    private static String[] fixtureArgs() {
+        return new String[] {
+                "-doclet", "at.videc.DoomDoclet",
+                "-sourcepath", "src/main/java:src/test/java",
+                "-subpackages", "at.videc.dummy"
+        };
+    }
+
+    private static String[] withCache(String[] args, Path cacheDir) {
+        String[] extended = new String[args.length + 2];
+        extended[0] = "--conversion-cache";
+        extended[1] = cacheDir.toString();
+        System.arraycopy(args, 0, extended, 2, args.length);
+        return extended;
+    }
+
+    private static void writeSource(Path packageDir, String typeName, String description) throws IOException {
+        String source = "package cached;\n\n/** " + description + " */\npublic class " + typeName + " {\n"
+                + "    /** Answer. */\n    public static final int ANSWER = 42;\n}\n";
+        Files.write(packageDir.resolve(typeName + ".java"), source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeLimits(Path packageDir, int value) throws IOException {
+        String source = "package cached;\n\n/** Limits. */\npublic class Limits {\n"
+                + "    /** Default limit. */\n    public static final int DEFAULT = " + value + ";\n}\n";
+        Files.write(packageDir.resolve("Limits.java"), source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static DocletRun runDoclet(String[] args) throws IOException {
+        ToolProvider javadoc = ToolProvider.findFirst("javadoc")
+                .orElseThrow(() -> new IllegalStateException("javadoc tool not found"));
+
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(log, true, StandardCharsets.UTF_8)) {
+            int result = javadoc.run(out, out, args);
+            assertEquals("Doclet execution failed: " + log, 0, result);
+        }
+
+        DocletRun run = new DocletRun();
+        run.output = Files.readAllBytes(Paths.get("output.html"));
+        run.log = log.toString(StandardCharsets.UTF_8);
+        return run;
+    }
+
+    private static class DocletRun {
+        private byte[] output;
+        private String log;
+    }
+}
@@ -0,0 +1,90 @@
+package at.videc.bomblet;
+
+import com.sun.source.doctree.DocCommentTree;
+import com.sun.source.util.DocTrees;
+import com.sun.source.util.JavacTask;
+import org.junit.Test;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class DocTreeRendererTest {
+
+    @Test
+    public void testInlineTagsAreReplacedAndHtmlIsPreserved() throws IOException {
+        // Given
+        DocCommentTree comment = parseComment(
+                "  Uses {@link java.util.List the  list } and {@link String}, {@code a<b>} and {@literal x&y}.\n"
+                        + " <p class='lead'>See <a href=\"https://example.com\">this</a> &amp; <br/><img src=a.png />"
+                        + "<input checked> <!-- hidden --> done.  ");
+        DocTreeRenderer renderer = new DocTreeRenderer();
+
+        // When
+        String rendered = renderer.render(comment.getFullBody());
+
+        // Then
+        assertEquals("Uses the  list and String, a<b> and x&y.\n"
+                + " <p class='lead'>See <a href=\"https://example.com\">this</a> &amp; <br/><img src=a.png />"
+                + "<input checked> <!-- hidden --> done.", rendered);
+    }
+
+    @Test
+    public void testBufferIsResetBetweenCalls() throws IOException {
+        // Given
+        DocCommentTree first = parseComment(" A rather long first comment. ");
+        DocCommentTree second = parseComment(" Short {@code one}. ");
+        DocTreeRenderer renderer = new DocTreeRenderer();
+
+        // When
+        String firstRendered = renderer.render(first.getFullBody());
+        String secondRendered = renderer.render(second.getFullBody());
+
+        // Then
+        assertEquals("A rather long first comment.", firstRendered);
+        assertEquals("Short one.", secondRendered);
+    }
+
+    @Test
+    public void testNonAsciiTextIsKept() throws IOException {
+        // Given
+        DocCommentTree comment = parseComment(" Maps a \u2192 b <em>gr\u00fc\u00dfe</em>. ");
+
+        // When
+        String rendered = new DocTreeRenderer().render(comment.getFullBody());
+
+        // Then
+        assertEquals("Maps a \u2192 b <em>gr\u00fc\u00dfe</em>.", rendered);
+    }
+
+    @Test
+    public void testEmptyContentRendersEmpty() {
+        assertEquals("", new DocTreeRenderer().render(Collections.emptyList()));
+    }
+
+    private static DocCommentTree parseComment(String comment) throws IOException {
+        String source = "/**" + comment + "*/ public class Fixture {}";
+        JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///Fixture.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        JavacTask task = (JavacTask) ToolProvider.getSystemJavaCompiler()
+                .getTask(null, null, null, null, null, Collections.singletonList(file));
+        Element fixture = null;
+        for (Element element : task.analyze()) {
+            if (element instanceof TypeElement) {
+                fixture = element;
+            }
+        }
+        return DocTrees.instance(task).getDocCommentTree(fixture);
+    }
+}
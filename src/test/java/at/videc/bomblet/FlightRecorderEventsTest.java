@@ -0,0 +1,60 @@
+package at.videc.bomblet;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.spi.ToolProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FlightRecorderEventsTest {
+
+    @Test
+    public void testRecordingContainsPhaseAndConversionEvents() throws Exception {
+        // Given
+        ToolProvider javadoc = ToolProvider.findFirst("javadoc")
+                .orElseThrow(() -> new IllegalStateException("javadoc tool not found"));
+        String[] args = new String[] {
+                "-doclet", "at.videc.DoomDoclet",
+                "-sourcepath", "src/main/java:src/test/java",
+                "-subpackages", "at.videc.dummy"
+        };
+        Path file = Files.createTempFile("doomdoc", ".jfr");
+
+        // When
+        try (Recording recording = new Recording()) {
+            recording.enable(PhaseEvent.NAME);
+            recording.enable(TypeConversionEvent.NAME);
+            recording.start();
+            assertEquals("Doclet execution failed", 0, javadoc.run(System.out, System.err, args));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // Then
+        List<String> phases = new ArrayList<>();
+        RecordedEvent user = null;
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            if (event.getEventType().getName().equals(PhaseEvent.NAME)) {
+                phases.add(event.getString("phase"));
+            } else if ("at.videc.dummy.User".equals(event.getString("typeName"))) {
+                user = event;
+            }
+        }
+        Files.delete(file);
+        assertEquals(List.of("element collection", "conversion", "search index", "type links", "asset inlining",
+                "JSON serialization", "file write"), phases);
+        assertTrue("No conversion event for User", user != null);
+        assertEquals("class", user.getString("kind"));
+        assertTrue(user.getInt("fields") > 0);
+        assertTrue(user.getInt("methods") > 0);
+        assertTrue(user.getInt("javadocSize") > 0);
+    }
+}
@@ -0,0 +1,457 @@
+package at.videc.bomblet;
+
+import at.videc.bomblet.dto.AnnotationUsage;
+import at.videc.bomblet.dto.ClassInfo;
+import at.videc.bomblet.dto.FieldInfo;
+import at.videc.bomblet.dto.MethodInfo;
+import at.videc.bomblet.dto.PackageInfo;
+import at.videc.bomblet.dto.ParameterInfo;
+import at.videc.bomblet.dto.SearchIndexColumns;
+import at.videc.bomblet.dto.SearchIndexEntry;
+import at.videc.bomblet.dto.SearchTrigramIndex;
+import at.videc.bomblet.dto.TypeInfo;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PackageTreeTest {
+
+    private static final Gson GSON = new Gson();
+
+    @Test
+    public void testAddTypeKeepsPackageOrder() {
+        // Given
+        PackageTree tree = new PackageTree();
+
+        // When
+        tree.addType("com.example.b", classInfo("B1"));
+        tree.addType("com.example.a", classInfo("A1"));
+        tree.addType("com.example.b", classInfo("B2"));
+
+        // Then
+        assertEquals(2, tree.getPackageCount());
+        assertEquals("com.example.b", tree.getPackages().get(0).getName());
+        assertEquals("com.example.a", tree.getPackages().get(1).getName());
+        assertEquals(2, tree.getPackage("com.example.b").getTypes().size());
+        assertSame(tree.getPackages().get(0), tree.getPackage("com.example.b"));
+    }
+
+    @Test
+    public void testConcurrentAddType() throws Exception {
+        // Given
+        PackageTree tree = new PackageTree();
+        int packages = 200;
+        int typesPerPackage = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        for (int t = 0; t < typesPerPackage; t++) {
+            for (int p = 0; p < packages; p++) {
+                String packageName = "com.example.p" + p;
+                String typeName = "Type" + t;
+                executor.execute(() -> tree.addType(packageName, classInfo(typeName)));
+            }
+        }
+        executor.shutdown();
+        assertTrue("Workers did not finish", executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(packages, tree.getPackageCount());
+        assertEquals(packages * typesPerPackage, tree.getTypeCount());
+        Set<String> names = new HashSet<>();
+        for (PackageInfo packageInfo : tree.getPackages()) {
+            assertTrue("Duplicate package " + packageInfo.getName(), names.add(packageInfo.getName()));
+            assertEquals(typesPerPackage, packageInfo.getTypes().size());
+        }
+    }
+
+    @Test
+    public void testPooledJsonResolvesToCompactJson() throws Exception {
+        // Given
+        PackageTree tree = new PackageTree();
+        for (int i = 0; i < 3; i++) {
+            ClassInfo classInfo = classInfo("Type" + i);
+            classInfo.setQualifiedName("com.example.Type" + i);
+            classInfo.setSuperClass("java.lang.Object");
+            AnnotationUsage annotation = new AnnotationUsage();
+            annotation.setType("com.example.Priority");
+            annotation.getValues().put("value", 10);
+            annotation.getValues().put("label", "java.lang.Object");
+            classInfo.getAnnotations().add(annotation);
+            FieldInfo field = new FieldInfo();
+            field.setName("LIMIT");
+            field.setType("int");
+            field.setConstantValue(42);
+            classInfo.getFields().add(field);
+            tree.addType("com.example", classInfo);
+        }
+        tree.buildSearchIndex();
+        tree.resolveTypeLinks();
+
+        // When
+        StringWriter pooled = new StringWriter();
+        tree.writePooledJson(pooled);
+
+        // Then
+        JsonObject model = JsonParser.parseString(pooled.toString()).getAsJsonObject();
+        JsonArray strings = model.remove("strings").getAsJsonArray();
+        assertEquals("Strings must be stored once", 1,
+                countOccurrences(strings, "java.lang.Object"));
+        assertEquals(JsonParser.parseString(tree.toCompactJson()), resolve(model, strings));
+    }
+
+    @Test
+    public void testResolveTypeLinks() throws Exception {
+        // Given
+        PackageTree tree = new PackageTree();
+        ClassInfo order = classInfo("Order");
+        order.setQualifiedName("com.b.Order");
+        order.setSuperClass("com.b.Base");
+        MethodInfo method = new MethodInfo();
+        method.setName("customers");
+        method.setReturnType("java.util.Map<com.b.User, java.util.List<User>>[]");
+        method.getExceptions().add("Order");
+        order.getMethods().add(method);
+        tree.addType("com.b", order);
+        ClassInfo userB = classInfo("User");
+        userB.setQualifiedName("com.b.User");
+        tree.addType("com.b", userB);
+        ClassInfo userA = classInfo("User");
+        userA.setQualifiedName("com.a.User");
+        tree.addType("com.a", userA);
+
+        // When
+        tree.resolveTypeLinks();
+
+        // Then
+        Map<String, String> links = tree.getModel().getTypeLinks();
+        assertEquals("com.b.User", links.get("com.b.User"));
+        assertEquals("Ambiguous simple names link to the first package", "com.a.User", links.get("User"));
+        assertEquals("com.b.Order", links.get("Order"));
+        assertEquals("Only documented types are linked", 3, links.size());
+        StringWriter streamed = new StringWriter();
+        tree.writeCompactJson(streamed);
+        assertEquals(JsonParser.parseString(tree.toCompactJson()), JsonParser.parseString(streamed.toString()));
+    }
+
+    @Test
+    public void testResolveTypeLinksAfterSearchIndexSeesLaterTypes() {
+        // Given
+        PackageTree tree = new PackageTree();
+        tree.addType("com.a", referencingClass("com.a", "Order", "Invoice"));
+        tree.buildSearchIndex();
+        tree.resolveTypeLinks();
+        Map<String, String> reused = tree.getModel().getTypeLinks();
+
+        // When
+        tree.addType("com.a", referencingClass("com.a", "Invoice", "Order"));
+        tree.resolveTypeLinks();
+
+        // Then
+        assertEquals(Collections.emptyMap(), reused);
+        assertEquals("com.a.Invoice", tree.getModel().getTypeLinks().get("Invoice"));
+        assertEquals("com.a.Order", tree.getModel().getTypeLinks().get("Order"));
+    }
+
+    @Test
+    public void testSearchBoostRanksPopularTypesAndShortNames() {
+        // Given
+        PackageTree tree = new PackageTree();
+        ClassInfo popular = classInfo("Order");
+        popular.setQualifiedName("com.example.Order");
+        ClassInfo unused = classInfo("Invoice");
+        unused.setQualifiedName("com.example.Invoice");
+        for (int i = 0; i < 7; i++) {
+            MethodInfo method = new MethodInfo();
+            method.setName(i % 2 == 0 ? "get" : "getOrderByCustomerName" + i);
+            method.setReturnType(i % 2 == 0 ? "com.example.Order" : "java.util.List<Order>");
+            unused.getMethods().add(method);
+        }
+        tree.addType("com.example", popular);
+        tree.addType("com.example", unused);
+
+        // When
+        tree.buildSearchIndex();
+
+        // Then
+        Map<String, Integer> boosts = new HashMap<>();
+        for (SearchIndexEntry entry : tree.getModel().getSearchIndex()) {
+            boosts.put(entry.getName(), entry.getBoost());
+        }
+        // Order is referenced 7 times: 10 * log2(8) = 30 popularity, 39 - 5 brevity
+        assertEquals(30 + 34, (int) boosts.get("Order"));
+        assertEquals(0 + 32, (int) boosts.get("Invoice"));
+        assertTrue("Short names rank first", boosts.get("get") > boosts.get("getOrderByCustomerName1"));
+        assertEquals("Popularity is capped", PackageTree.MAX_POPULARITY_BOOST + PackageTree.MAX_BREVITY_BOOST - 1,
+                PackageTree.searchBoost("x", 1_000_000));
+    }
+
+    @Test
+    public void testSearchTrigramsFindEveryMatchingEntry() {
+        // Given
+        PackageTree tree = new PackageTree();
+        for (int p = 0; p < 20; p++) {
+            for (int t = 0; t < 10; t++) {
+                ClassInfo classInfo = classInfo("Widget" + p + "x" + t);
+                classInfo.setQualifiedName("com.example.p" + p + ".Widget" + p + "x" + t);
+                MethodInfo method = new MethodInfo();
+                method.setName("render" + t);
+                classInfo.getMethods().add(method);
+                tree.addType("com.example.p" + p, classInfo);
+            }
+        }
+
+        // When
+        tree.buildSearchIndex();
+
+        // Then
+        List<SearchIndexEntry> index = tree.getModel().getSearchIndex();
+        SearchTrigramIndex trigrams = tree.getModel().getSearchTrigrams();
+        assertTrue("Package trigrams should be stop grams", trigrams.getStopGrams().contains("com"));
+        for (String query : new String[] {"widget3x7", "render4", "p17.widget", "x9.render9()", "nomatch"}) {
+            Set<Integer> candidates = findCandidates(trigrams, query);
+            for (int i = 0; i < index.size(); i++) {
+                if (matches(index.get(i), query)) {
+                    assertTrue("Entry " + i + " missing for " + query, candidates.contains(i));
+                }
+            }
+        }
+        assertTrue(findCandidates(trigrams, "nomatch").isEmpty());
+        // The type and its method, whose qualified name contains the type name
+        assertEquals(2, findCandidates(trigrams, "widget3x7").size());
+    }
+
+    @Test
+    public void testColumnarSearchIndexReconstructsEntries() {
+        // Given
+        PackageTree rows = createSearchTree();
+        PackageTree columnar = createSearchTree();
+        columnar.setColumnarSearchIndex(true);
+
+        // When
+        rows.buildSearchIndex();
+        columnar.buildSearchIndex();
+
+        // Then
+        SearchIndexColumns columns = columnar.getModel().getSearchColumns();
+        List<String> expected = new ArrayList<>();
+        for (SearchIndexEntry entry : rows.getModel().getSearchIndex()) {
+            expected.add(GSON.toJson(entry));
+        }
+        List<String> actual = new ArrayList<>();
+        List<SearchIndexEntry> entries = new ArrayList<>();
+        for (int i = 0; i < columns.getNames().size(); i++) {
+            SearchIndexEntry entry = getSearchEntry(columns, i);
+            actual.add(GSON.toJson(entry));
+            entries.add(entry);
+        }
+        Collections.sort(expected);
+        Collections.sort(actual);
+        assertEquals(expected, actual);
+        List<SearchIndexEntry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparing((SearchIndexEntry entry) -> PackageTree.SEARCH_CATEGORIES.indexOf(entry.getCategory()))
+                .thenComparing(entry -> entry.getName().toLowerCase(Locale.ROOT)));
+        assertEquals("Entries must be grouped by category and sorted by name", sorted, entries);
+        assertNull(columnar.getModel().getSearchIndex());
+    }
+
+    @Test
+    public void testIncrementalIndexMatchesFullBuild() {
+        // Given
+        PackageTree incremental = new PackageTree();
+        incremental.setIncrementalIndex(true);
+        incremental.addType("com.a", referencingClass("com.a", "Order", "com.b.User"));
+        incremental.addType("com.a", referencingClass("com.a", "Invoice", "Order"));
+        incremental.addType("com.b", referencingClass("com.b", "User", "java.lang.String"));
+        incremental.addType("com.c", referencingClass("com.c", "Legacy", "User"));
+        incremental.buildSearchIndex();
+        incremental.resolveTypeLinks();
+
+        // When
+        TypeInfo replaced = incremental.replaceType("com.a", referencingClass("com.a", "Order", "Invoice"));
+        incremental.buildSearchIndex();
+        incremental.resolveTypeLinks();
+        String replacedJson = incremental.toCompactJson();
+        TypeInfo removed = incremental.removeType("com.c.Legacy");
+        incremental.replaceType("com.d", referencingClass("com.d", "Customer", "Order"));
+        incremental.buildSearchIndex();
+        incremental.resolveTypeLinks();
+
+        // Then
+        assertEquals("com.a.Order", replaced.getQualifiedName());
+        assertEquals("com.c.Legacy", removed.getQualifiedName());
+        assertNull(incremental.removeType("com.c.Legacy"));
+        PackageTree full = new PackageTree();
+        full.addType("com.a", referencingClass("com.a", "Order", "Invoice"));
+        full.addType("com.a", referencingClass("com.a", "Invoice", "Order"));
+        full.addType("com.b", referencingClass("com.b", "User", "java.lang.String"));
+        full.addType("com.c", referencingClass("com.c", "Legacy", "User"));
+        full.buildSearchIndex();
+        full.resolveTypeLinks();
+        assertEquals("Only the replaced type changed", full.toCompactJson(), replacedJson);
+        full.removeType("com.c.Legacy");
+        full.addType("com.d", referencingClass("com.d", "Customer", "Order"));
+        full.buildSearchIndex();
+        full.resolveTypeLinks();
+        assertEquals("Types were added and removed", full.toCompactJson(), incremental.toCompactJson());
+        assertEquals(3, incremental.getPackageCount());
+    }
+
+    private static PackageTree createSearchTree() {
+        PackageTree tree = new PackageTree();
+        for (String name : new String[] {"Beta", "alpha"}) {
+            ClassInfo classInfo = classInfo(name);
+            classInfo.setQualifiedName("com.example." + name);
+            MethodInfo method = new MethodInfo();
+            method.setName("apply");
+            method.setReturnType("java.lang.String");
+            ParameterInfo parameter = new ParameterInfo();
+            parameter.setName("value");
+            parameter.setType("java.util.List<java.lang.String>");
+            method.getParameters().add(parameter);
+            classInfo.getMethods().add(method);
+            FieldInfo field = new FieldInfo();
+            field.setName("COUNT");
+            field.setType("int");
+            classInfo.getFields().add(field);
+            tree.addType("com.example", classInfo);
+        }
+        return tree;
+    }
+
+    /**
+     * Java counterpart of getSearchEntry in search.js.
+     */
+    private static SearchIndexEntry getSearchEntry(SearchIndexColumns columns, int position) {
+        int category = 0;
+        while (columns.getCategoryOffsets().get(category + 1) <= position) {
+            category++;
+        }
+        int memberStart = columns.getCategoryOffsets().get(columns.getCategories().indexOf("method"));
+        int owner = columns.getOwners().get(position);
+        SearchIndexEntry entry = new SearchIndexEntry();
+        entry.setCategory(columns.getCategories().get(category));
+        entry.setName(columns.getNames().get(position));
+        entry.setPackageName(columns.getPackages().get(columns.getOwnerPackages().get(owner)));
+        entry.setBoost(columns.getBoosts().get(position));
+        if (position < memberStart) {
+            entry.setQualifiedName(columns.getOwnerQualifiedNames().get(owner));
+            return entry;
+        }
+        int member = position - memberStart;
+        entry.setQualifiedName(columns.getOwnerQualifiedNames().get(owner) + "." + entry.getName());
+        entry.setTypeName(columns.getOwnerNames().get(owner));
+        entry.setReturnType(columns.getReturnTypes().get(member));
+        if ("method".equals(entry.getCategory())) {
+            entry.setSignature(entry.getName() + "(" + columns.getParameters().get(member) + ")");
+        }
+        return entry;
+    }
+
+    /**
+     * Java counterpart of findSearchCandidates in search.js.
+     */
+    private static Set<Integer> findCandidates(SearchTrigramIndex trigrams, String query) {
+        Set<Integer> candidates = null;
+        for (int i = 0; i + 3 <= query.length(); i++) {
+            String gram = query.substring(i, i + 3);
+            if (trigrams.getStopGrams().contains(gram)) {
+                continue;
+            }
+            Set<Integer> positions = new TreeSet<>();
+            int position = 0;
+            for (int delta : trigrams.getPostings().getOrDefault(gram, new ArrayList<>())) {
+                position += delta;
+                positions.add(position);
+            }
+            if (candidates == null) {
+                candidates = positions;
+            } else {
+                candidates.retainAll(positions);
+            }
+        }
+        assertTrue("Query consists of stop grams only: " + query, candidates != null);
+        return candidates;
+    }
+
+    private static boolean matches(SearchIndexEntry entry, String query) {
+        for (String text : new String[] {entry.getName(), entry.getQualifiedName(), entry.getSignature()}) {
+            if (text != null && text.toLowerCase(Locale.ROOT).contains(query)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Java counterpart of resolveStringTable in tree.js.
+     */
+    private static JsonElement resolve(JsonElement element, JsonArray strings) {
+        if (element.isJsonPrimitive() && element.getAsJsonPrimitive().isNumber()) {
+            return strings.get(element.getAsInt());
+        }
+        if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            for (int i = 0; i < array.size(); i++) {
+                array.set(i, resolve(array.get(i), strings));
+            }
+        } else if (element.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> member : element.getAsJsonObject().entrySet()) {
+                if (!StringPoolingJsonWriter.UNPOOLED_FIELDS.contains(member.getKey())) {
+                    member.setValue(resolve(member.getValue(), strings));
+                }
+            }
+        }
+        return element;
+    }
+
+    private static int countOccurrences(JsonArray strings, String value) {
+        int count = 0;
+        for (JsonElement string : strings) {
+            if (string.equals(new JsonPrimitive(value))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static ClassInfo referencingClass(String packageName, String name, String returnType) {
+        ClassInfo classInfo = classInfo(name);
+        classInfo.setQualifiedName(packageName + "." + name);
+        MethodInfo method = new MethodInfo();
+        method.setName("get" + name);
+        method.setReturnType(returnType);
+        classInfo.getMethods().add(method);
+        return classInfo;
+    }
+
+    private static ClassInfo classInfo(String name) {
+        ClassInfo classInfo = new ClassInfo();
+        classInfo.setName(name);
+        return classInfo;
+    }
+}
@@ -0,0 +1,74 @@
+package at.videc.bomblet;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PhaseTimerTest {
+
+    @Test
+    public void testPhasesMeasureTimeAndAllocations() throws Exception {
+        // Given
+        PhaseTimer timer = new PhaseTimer();
+
+        // When
+        PhaseTimer.Phase allocatePhase = timer.start("allocate");
+        try {
+            List<byte[]> chunks = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                chunks.add(new byte[10_000]);
+            }
+            assertEquals(100, chunks.size());
+        } finally {
+            allocatePhase.close();
+        }
+        try (PhaseTimer.Phase phase = timer.start("workers")) {
+            phase.addUsage(5_000_000, 2_000_000);
+        }
+
+        // Then
+        List<PhaseTimer.Phase> phases = timer.getPhases();
+        assertEquals(2, phases.size());
+        assertEquals("allocate", phases.get(0).getName());
+        assertTrue(phases.get(0).getWallNanos() > 0);
+        if (PhaseTimer.currentThreadAllocatedBytes() >= 0) {
+            assertTrue("Allocations not measured: " + phases.get(0).getAllocatedBytes(),
+                    phases.get(0).getAllocatedBytes() >= 1_000_000);
+            assertTrue(phases.get(1).getAllocatedBytes() >= 2_000_000);
+        }
+        if (PhaseTimer.currentThreadCpuNanos() >= 0) {
+            assertTrue(phases.get(1).getCpuNanos() >= 5_000_000);
+        }
+        assertTrue(timer.formatSummary().contains("allocate"));
+        assertTrue(timer.formatSummary().contains("total"));
+    }
+
+    @Test
+    public void testJsonReportListsPhases() throws Exception {
+        // Given
+        PhaseTimer timer = new PhaseTimer();
+        timer.start("first").close();
+        timer.start("second").close();
+
+        // When
+        StringWriter out = new StringWriter();
+        timer.writeJson(out);
+
+        // Then
+        JsonArray phases = JsonParser.parseString(out.toString()).getAsJsonObject().getAsJsonArray("phases");
+        assertEquals(2, phases.size());
+        JsonObject second = phases.get(1).getAsJsonObject();
+        assertEquals("second", second.get("name").getAsString());
+        assertTrue(second.has("wallNanos"));
+        assertTrue(second.has("cpuNanos"));
+        assertTrue(second.has("allocatedBytes"));
+    }
+}
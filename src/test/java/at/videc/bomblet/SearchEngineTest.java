@@ -0,0 +1,82 @@
+package at.videc.bomblet;
+
+import at.videc.bomblet.dto.SearchIndexEntry;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class SearchEngineTest {
+
+    @Test
+    public void testMatchKindsRankLikeTheClient() {
+        // Given
+        SearchEngine engine = new SearchEngine(Arrays.asList(
+                entry("class", "MyNullPointerHelper", "com.example.MyNullPointerHelper", 0),
+                entry("class", "NullPointerException", "java.lang.NullPointerException", 0),
+                entry("class", "Npe", "com.example.Npe", 0),
+                entry("class", "SnpeHolder", "com.example.SnpeHolder", 0),
+                entry("class", "NpeSupport", "com.example.NpeSupport", 0),
+                entry("class", "NopeParser", "com.example.NopeParser", 0)));
+
+        // When
+        Map<String, List<SearchEngine.Result>> results = engine.search("npe");
+
+        // Then: exact, prefix, acronym, substring, fuzzy
+        assertEquals(Arrays.asList("Npe", "NpeSupport", "NullPointerException", "SnpeHolder", "NopeParser"),
+                names(results.get("classes")));
+        assertEquals(1200.0, results.get("classes").get(0).getScore(), 0.001);
+    }
+
+    @Test
+    public void testBoostOrdersMatchesOfTheSameKind() {
+        // Given
+        SearchEngine engine = new SearchEngine(Arrays.asList(
+                entry("class", "MapUtil", "com.example.MapUtil", 5),
+                entry("class", "MapEntry", "com.example.MapEntry", 50)));
+
+        // When
+        List<SearchEngine.Result> classes = engine.search("map").get("classes");
+
+        // Then
+        assertEquals(Arrays.asList("MapEntry", "MapUtil"), names(classes));
+    }
+
+    @Test
+    public void testQualifiedNameMatchesFillOpenCategoriesOnly() {
+        // Given
+        List<SearchIndexEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            entries.add(entry("class", "Widget" + i, "com.example.Widget" + i, 0));
+        }
+        entries.add(entry("class", "Button", "com.example.widget.Button", 0));
+        entries.add(entry("method", "draw", "com.example.widget.Button.draw", 0));
+        SearchEngine engine = new SearchEngine(entries);
+
+        // When
+        Map<String, List<SearchEngine.Result>> results = engine.search("widget");
+
+        // Then
+        assertEquals(5, results.get("classes").size());
+        assertEquals(Arrays.asList("draw"), names(results.get("methods")));
+        assertEquals(100.0, results.get("methods").get(0).getScore(), 0.001);
+    }
+
+    private static SearchIndexEntry entry(String category, String name, String qualifiedName, int boost) {
+        SearchIndexEntry entry = new SearchIndexEntry();
+        entry.setCategory(category);
+        entry.setName(name);
+        entry.setQualifiedName(qualifiedName);
+        entry.setBoost(boost);
+        return entry;
+    }
+
+    private static List<String> names(List<SearchEngine.Result> results) {
+        return results.stream().map(result -> result.getEntry().getName()).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,80 @@
+package at.videc.bomblet;
+
+import com.sun.source.util.JavacTask;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.ToolProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class TypeNameCacheTest {
+
+    private Elements elements;
+    private Types types;
+
+    @Before
+    public void setUp() {
+        JavacTask task = (JavacTask) ToolProvider.getSystemJavaCompiler()
+                .getTask(null, null, null, null, null, null);
+        elements = task.getElements();
+        types = task.getTypes();
+    }
+
+    @Test
+    public void testSharedMirrorIsRenderedOnce() {
+        // Given
+        TypeNameCache cache = new TypeNameCache();
+        TypeMirror string = elements.getTypeElement("java.lang.String").asType();
+        TypeMirror primitive = types.getPrimitiveType(TypeKind.INT);
+
+        // When
+        String first = cache.getName(string);
+        String second = cache.getName(string);
+        cache.getName(primitive);
+        cache.getName(primitive);
+
+        // Then
+        assertEquals("java.lang.String", first);
+        assertSame(first, second);
+        assertEquals(4, cache.getLookups());
+        assertEquals(2, cache.getHits());
+        assertEquals(0.5, cache.getHitRate(), 0);
+        assertEquals(2, cache.getDistinctNames());
+    }
+
+    @Test
+    public void testEqualParameterizedTypesShareOneName() {
+        // Given
+        TypeNameCache cache = new TypeNameCache();
+        TypeElement list = elements.getTypeElement("java.util.List");
+        TypeMirror string = elements.getTypeElement("java.lang.String").asType();
+        DeclaredType first = types.getDeclaredType(list, string);
+        DeclaredType second = types.getDeclaredType(list, string);
+        assertNotSame(first, second);
+
+        // When
+        String firstName = cache.getName(first);
+        String secondName = cache.getName(second);
+
+        // Then
+        assertEquals("java.util.List<java.lang.String>", firstName);
+        assertSame(firstName, secondName);
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getCanonicalHits());
+        assertEquals(1, cache.getDistinctNames());
+    }
+
+    @Test
+    public void testEmptyCacheHasNoHitRate() {
+        assertEquals(0, new TypeNameCache().getHitRate(), 0);
+    }
+}